@@ -0,0 +1,108 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudsimplus.examples.schedulers.CloudletSchedulerTimeSharedArrays;
+import org.cloudsimplus.examples.sweep.ParameterGrid;
+import org.cloudsimplus.util.Log;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JMH benchmark comparing the time and garbage generated by CloudletSchedulers
+ * when VMs run many Cloudlets with a {@link UtilizationModelFull} and
+ * no Datacenter scheduling interval, as in {@link UtilizationModelFullPerformance}.
+ * It's meant to be run with the GC profiler, so that the {@code gc.alloc.rate.norm}
+ * of {@link CloudletSchedulerTimeSharedArrays} can be compared to the regular scheduler.
+ *
+ * <p>Build it with {@code mvn -P benchmark package} and run with:
+ * {@code java -cp target/cloudsimplus-examples-*-with-dependencies.jar org.openjdk.jmh.Main CloudletSchedulerBenchmark -prof gc}.</p>
+ *
+ * @author Ishak Megatli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class CloudletSchedulerBenchmark {
+    @Param({"100"})
+    private int hosts;
+
+    @Param({"400"})
+    private int vms;
+
+    /**
+     * Number of Cloudlets for each VM.
+     */
+    @Param({"10", "100"})
+    private int cloudletsByVm;
+
+    /**
+     * The suffix of a CloudletScheduler class name (the part after "CloudletScheduler").
+     * @see ParameterGrid#cloudletSchedulerSupplier(String)
+     */
+    @Param({"TimeShared", "TimeSharedArrays"})
+    private String cloudletScheduler;
+
+    private PerformanceScenario scenario;
+
+    public static void main(String[] args) throws RunnerException {
+        final var options = new OptionsBuilder()
+            .include(CloudletSchedulerBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setupLogs() {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupScenario() {
+        final var um = new UtilizationModelFull();
+        scenario = new PerformanceScenario()
+            .setHostsNumber(hosts)
+            .setVmsNumber(vms)
+            .setCloudletsNumber(vms * cloudletsByVm)
+            .setSchedulingInterval(0)
+            .setCpuUtilizationModelSupplier(() -> um)
+            .setCloudletSchedulerSupplier(ParameterGrid.cloudletSchedulerSupplier(cloudletScheduler))
+            .build();
+    }
+
+    @Benchmark
+    public double runSimulation() {
+        return scenario.run();
+    }
+}
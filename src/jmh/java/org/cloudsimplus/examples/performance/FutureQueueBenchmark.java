@@ -0,0 +1,169 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.events.CloudSimEvent;
+import org.cloudbus.cloudsim.core.events.FutureQueue;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudsimplus.examples.eventqueue.CalendarFutureQueue;
+import org.cloudsimplus.examples.eventqueue.CloudSimPluggableQueue;
+import org.cloudsimplus.util.Log;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A JMH benchmark comparing the default {@link FutureQueue} with the {@link CalendarFutureQueue}.
+ * It runs the {@link PerformanceScenario} used by {@link UtilizationModelFullPerformance}
+ * and the classic "hold" model, where each operation removes the first event
+ * from a queue with a fixed number of events and inserts a new one in the future.
+ *
+ * <p>Build it with {@code mvn -P benchmark package} and run with:
+ * {@code java -cp target/cloudsimplus-examples-*-with-dependencies.jar org.openjdk.jmh.Main FutureQueueBenchmark}.</p>
+ *
+ * @author Ishak Megatli
+ */
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class FutureQueueBenchmark {
+    /**
+     * The future queue to use: "TreeSet" for the default {@link FutureQueue}
+     * or "Calendar" for the {@link CalendarFutureQueue}.
+     */
+    @Param({"TreeSet", "Calendar"})
+    private String futureQueue;
+
+    /**
+     * The state for running the {@link PerformanceScenario}, which is built before every run.
+     */
+    @State(Scope.Thread)
+    public static class ScenarioState {
+        @Param({"1000"})
+        private int hosts;
+
+        private PerformanceScenario scenario;
+
+        @Setup(Level.Invocation)
+        public void setup(final FutureQueueBenchmark benchmark) {
+            final Supplier<FutureQueue> supplier = benchmark.futureQueueSupplier();
+            scenario = new PerformanceScenario()
+                .setHostsNumber(hosts)
+                .setVmsNumber(hosts*4)
+                .setCloudletsNumber(hosts*8)
+                .setSimulationSupplier(() -> new CloudSimPluggableQueue(supplier.get()))
+                .build();
+        }
+    }
+
+    /**
+     * The state for the hold model, keeping a queue with a fixed number of events.
+     */
+    @State(Scope.Thread)
+    public static class HoldState {
+        /**
+         * Number of events kept into the queue.
+         */
+        @Param({"1000", "100000"})
+        private int queueSize;
+
+        private FutureQueue queue;
+        private SimEntity entity;
+        private Random random;
+        private CloudSimTag[] tags;
+
+        @Setup(Level.Trial)
+        public void setup(final FutureQueueBenchmark benchmark) {
+            entity = new DatacenterBrokerSimple(new CloudSim());
+            random = new Random(123456);
+            tags = CloudSimTag.values();
+            queue = benchmark.futureQueueSupplier().get();
+            for (int i = 0; i < queueSize; i++) {
+                queue.addEvent(newEvent(0));
+            }
+        }
+
+        /**
+         * Creates an event for a given time plus an exponentially distributed delay.
+         * Since the entity's simulation is not running, its clock is always zero
+         * and the event delay is the actual event time.
+         */
+        private SimEvent newEvent(final double time) {
+            final double delay = time - Math.log(1 - random.nextDouble()) * 10;
+            return new CloudSimEvent(delay, entity, tags[random.nextInt(8)], null);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final var options = new OptionsBuilder()
+            .include(FutureQueueBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setupLogs() {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double runSimulation(final ScenarioState state) {
+        return state.scenario.run();
+    }
+
+    /**
+     * Removes the first event and inserts a new one,
+     * whose time is the removed event time plus an exponentially distributed delay.
+     * @return the removed event
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SimEvent hold(final HoldState state) {
+        final SimEvent first = state.queue.first();
+        state.queue.remove(first);
+        state.queue.addEvent(state.newEvent(first.getTime()));
+        return first;
+    }
+
+    private Supplier<FutureQueue> futureQueueSupplier() {
+        return switch (futureQueue) {
+            case "TreeSet" -> FutureQueue::new;
+            case "Calendar" -> CalendarFutureQueue::new;
+            default -> throw new IllegalArgumentException("Unknown FutureQueue: " + futureQueue);
+        };
+    }
+}
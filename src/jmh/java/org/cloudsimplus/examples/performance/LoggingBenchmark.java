@@ -0,0 +1,168 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.resources.Ram;
+import org.cloudbus.cloudsim.resources.ResourceManageable;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletScheduler;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.examples.schedulers.CloudletSchedulerTimeSharedArrays;
+import org.cloudsimplus.listeners.CloudletResourceAllocationFailEventInfo;
+import org.cloudsimplus.listeners.EventListener;
+import org.cloudsimplus.util.Log;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JMH benchmark that measures the cost of the per-Cloudlet over-subscription warnings
+ * in the {@link CloudletSchedulerTimeSharedArrays}, running the {@link PerformanceScenario}
+ * while such warnings are disabled (the log level is ERROR by default).
+ * Cloudlets request more RAM and BW than their VMs have,
+ * so the warnings are hit for several Cloudlets at each processing update.
+ *
+ * <p>The scheduler only builds the warning messages if the WARN level is enabled.
+ * The {@code eager} variant registers a resource allocation fail listener
+ * that builds and logs the same message the way the {@code CloudletSchedulerAbstract} in CloudSim Plus does,
+ * formatting it before the logger checks the level.
+ * The {@code guarded} variant registers a listener that does nothing,
+ * so that both variants have the same listener overhead.</p>
+ *
+ * <p>Build it with {@code mvn -P benchmark package} and run with:
+ * {@code java -cp target/cloudsimplus-examples-*-with-dependencies.jar org.openjdk.jmh.Main LoggingBenchmark -prof gc}.
+ * Compare the {@code gc.alloc.rate.norm} of both variants.</p>
+ *
+ * @author Ishak Megatli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingBenchmark {
+    private static final String OVER_SUBSCRIPTION_MSG = "{}: {}: {} requested {} {} of {} but {}{} which delays Cloudlet processing.";
+
+    /**
+     * The percentage of the VM RAM requested by each Cloudlet.
+     * Since there are 10 Cloudlets for each VM, the RAM is over-subscribed by 5 times.
+     */
+    private static final double RAM_UTILIZATION = 0.5;
+
+    /**
+     * The percentage of the VM BW requested by each Cloudlet,
+     * which over-subscribes the BW just slightly, since Cloudlets that get no BW at all
+     * are delayed for so long that the simulation would never finish.
+     */
+    private static final double BW_UTILIZATION = 0.11;
+
+    @Param({"100"})
+    private int hosts;
+
+    @Param({"400"})
+    private int vms;
+
+    @Param({"4000"})
+    private int cloudlets;
+
+    /**
+     * The level of the library loggers and of the {@link CloudletScheduler#LOGGER},
+     * which must disable WARN messages for the variants to be compared.
+     */
+    @Param({"ERROR"})
+    private String level;
+
+    /**
+     * How the over-subscription warning is logged: "guarded" or "eager".
+     */
+    @Param({"guarded", "eager"})
+    private String logging;
+
+    private PerformanceScenario scenario;
+
+    public static void main(String[] args) throws RunnerException {
+        final var options = new OptionsBuilder()
+            .include(LoggingBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setupLogs() {
+        final var logLevel = ch.qos.logback.classic.Level.toLevel(level);
+        Log.setLevel(logLevel);
+        Log.setLevel(CloudletScheduler.LOGGER, logLevel);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupScenario() {
+        final EventListener<CloudletResourceAllocationFailEventInfo> listener =
+            "eager".equals(logging) ? LoggingBenchmark::logEagerly : info -> {};
+        final UtilizationModel ramModel = new UtilizationModelDynamic(RAM_UTILIZATION);
+        final UtilizationModel bwModel = new UtilizationModelDynamic(BW_UTILIZATION);
+        scenario = new PerformanceScenario()
+            .setHostsNumber(hosts)
+            .setVmsNumber(vms)
+            .setCloudletsNumber(cloudlets)
+            .setCloudletSchedulerSupplier(() -> newCloudletScheduler(listener))
+            .setRamUtilizationModelSupplier(() -> ramModel)
+            .setBwUtilizationModelSupplier(() -> bwModel)
+            .build();
+    }
+
+    private static CloudletScheduler newCloudletScheduler(final EventListener<CloudletResourceAllocationFailEventInfo> listener) {
+        final var scheduler = new CloudletSchedulerTimeSharedArrays();
+        scheduler.addOnCloudletResourceAllocationFail(listener);
+        return scheduler;
+    }
+
+    /**
+     * Logs the over-subscription warning building the message before the level check.
+     * @param info information about the resource that couldn't be allocated
+     */
+    private static void logEagerly(final CloudletResourceAllocationFailEventInfo info) {
+        final Cloudlet cloudlet = info.getCloudlet();
+        final ResourceManageable vmResource = ((VmSimple)cloudlet.getVm()).getResource(info.getResourceClass());
+        final long available = info.getAvailableAmount();
+        final String msg1 = available > 0 ? String.format("just %d was available", available) : "no amount is available.";
+        final String msg2 = info.getResourceClass() == Ram.class ? ". Using Virtual Memory," : ",";
+        CloudletScheduler.LOGGER.warn(
+            OVER_SUBSCRIPTION_MSG,
+            cloudlet.getSimulation().clockStr(), CloudletSchedulerTimeSharedArrays.class.getSimpleName(), cloudlet,
+            info.getRequestedAmount(), vmResource.getUnit(), info.getResourceClass().getSimpleName(), msg1, msg2);
+    }
+
+    @Benchmark
+    public double runSimulation() {
+        return scenario.run();
+    }
+}
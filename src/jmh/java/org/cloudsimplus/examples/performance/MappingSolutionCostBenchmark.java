@@ -0,0 +1,141 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.examples.heuristics.IncrementalCloudletToVmMappingSolution;
+import org.cloudsimplus.heuristics.CloudletToVmMappingSimulatedAnnealing;
+import org.cloudsimplus.heuristics.CloudletToVmMappingSolution;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JMH benchmark comparing the cost evaluation of a {@link CloudletToVmMappingSolution},
+ * which is fully recomputed after every change,
+ * with the {@link IncrementalCloudletToVmMappingSolution}, which is updated in constant time.
+ * Each operation swaps the VMs of two Cloudlets (the move heuristics perform to get a neighbor solution)
+ * and gets the new cost.
+ *
+ * <p>Build it with {@code mvn -P benchmark package} and run with:
+ * {@code java -cp target/cloudsimplus-examples-*-with-dependencies.jar org.openjdk.jmh.Main MappingSolutionCostBenchmark}.</p>
+ *
+ * @author Ishak Megatli
+ */
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingSolutionCostBenchmark {
+    /**
+     * Number of random Cloudlet pairs to swap, which are cycled through.
+     */
+    private static final int PAIRS = 1024;
+
+    /**
+     * The number of Cloudlets, mapped to half that number of VMs.
+     */
+    @Param({"100", "1000", "10000"})
+    private int cloudlets;
+
+    private List<Cloudlet> cloudletList;
+    private CloudletToVmMappingSolution fullSolution;
+    private IncrementalCloudletToVmMappingSolution incrementalSolution;
+    private int[] pairs;
+    private int pair;
+
+    public static void main(String[] args) throws RunnerException {
+        final var options = new OptionsBuilder()
+            .include(MappingSolutionCostBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final var random = new Random(cloudlets);
+        final List<Vm> vmList = new ArrayList<>(cloudlets / 2);
+        for (int i = 0; i < cloudlets / 2; i++) {
+            vmList.add(new VmSimple(i, 1000, 1 + random.nextInt(4)));
+        }
+
+        cloudletList = new ArrayList<>(cloudlets);
+        final Map<Cloudlet, Vm> cloudletVmMap = new LinkedHashMap<>();
+        for (int i = 0; i < cloudlets; i++) {
+            final var cloudlet = new CloudletSimple(i, 10_000, 1 + random.nextInt(2));
+            cloudletList.add(cloudlet);
+            cloudletVmMap.put(cloudlet, vmList.get(random.nextInt(vmList.size())));
+        }
+
+        final var heuristic = new CloudletToVmMappingSimulatedAnnealing(1, new UniformDistr(0, 1, cloudlets));
+        fullSolution = new CloudletToVmMappingSolution(heuristic);
+        cloudletVmMap.forEach(fullSolution::bindCloudletToVm);
+        incrementalSolution = new IncrementalCloudletToVmMappingSolution(heuristic, vmList, cloudletVmMap);
+
+        pairs = random.ints(PAIRS * 2, 0, cloudlets).toArray();
+    }
+
+    private Cloudlet nextCloudlet() {
+        final Cloudlet cloudlet = cloudletList.get(pairs[pair]);
+        pair = (pair + 1) % pairs.length;
+        return cloudlet;
+    }
+
+    /**
+     * Swaps the VMs of two Cloudlets by re-binding them, then gets the cost,
+     * which groups the whole Cloudlet-to-VM map by VM.
+     */
+    @Benchmark
+    public double fullRecomputation() {
+        final Cloudlet cloudlet1 = nextCloudlet();
+        final Cloudlet cloudlet2 = nextCloudlet();
+        final Vm vm1 = fullSolution.getResult().get(cloudlet1);
+        fullSolution.bindCloudletToVm(cloudlet1, fullSolution.getResult().get(cloudlet2));
+        fullSolution.bindCloudletToVm(cloudlet2, vm1);
+        return fullSolution.getCost();
+    }
+
+    /**
+     * Swaps the VMs of two Cloudlets, updating the cost from the per-VM aggregates.
+     */
+    @Benchmark
+    public double incremental() {
+        incrementalSolution.swap(nextCloudlet(), nextCloudlet());
+        return incrementalSolution.getCost();
+    }
+}
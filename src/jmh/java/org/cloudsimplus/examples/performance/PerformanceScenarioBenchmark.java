@@ -0,0 +1,162 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.allocationpolicies.*;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelStochastic;
+import org.cloudsimplus.examples.allocationpolicies.VmAllocationPolicyIndexedFirstFit;
+import org.cloudsimplus.examples.allocationpolicies.VmAllocationPolicySortedBestFit;
+import org.cloudsimplus.util.Log;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A JMH benchmark that runs the {@link PerformanceScenario} used by
+ * {@link PerformanceExample1}, {@link UtilizationModelFullPerformance} and
+ * {@link UtilizationModelStochasticPerformance}, reporting throughput,
+ * average time and the number of processed simulation events per second.
+ *
+ * <p>Build it with {@code mvn -P benchmark package} and run with:
+ * {@code java -cp target/cloudsimplus-examples-*-with-dependencies.jar org.openjdk.jmh.Main -prof gc}.
+ * Scenario parameters can be changed from the command line,
+ * such as {@code -p hosts=50000 -p vms=100000 -p vmAllocationPolicy=BestFit}.</p>
+ *
+ * @author Ishak Megatli
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PerformanceScenarioBenchmark {
+    @Param({"1000"})
+    private int hosts;
+
+    @Param({"4000"})
+    private int vms;
+
+    @Param({"8000"})
+    private int cloudlets;
+
+    @Param({"0", "10"})
+    private double schedulingInterval;
+
+    /**
+     * The suffix of a {@link VmAllocationPolicy} class name
+     * (the part after "VmAllocationPolicy").
+     */
+    @Param({"FirstFit", "IndexedFirstFit", "BestFit", "SortedBestFit", "Simple"})
+    private String vmAllocationPolicy;
+
+    /**
+     * The CPU {@link UtilizationModel} used by Cloudlets: "Full" or "Stochastic".
+     */
+    @Param({"Full", "Stochastic"})
+    private String cpuUtilizationModel;
+
+    /**
+     * Indicates if VMs are placed in batch.
+     * @see PerformanceScenario#setBatchVmPlacement(boolean)
+     */
+    @Param({"false", "true"})
+    private boolean batchVmPlacement;
+
+    private PerformanceScenario scenario;
+
+    /**
+     * Counters reported by JMH together with the benchmark results,
+     * enabling to track the number of simulation events processed per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounters {
+        public long events;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final var options = new OptionsBuilder()
+            .include(PerformanceScenarioBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setupLogs() {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupScenario() {
+        scenario = new PerformanceScenario()
+            .setHostsNumber(hosts)
+            .setVmsNumber(vms)
+            .setCloudletsNumber(cloudlets)
+            .setSchedulingInterval(schedulingInterval)
+            .setVmAllocationPolicySupplier(vmAllocationPolicySupplier())
+            .setCpuUtilizationModelSupplier(cpuUtilizationModelSupplier())
+            .setBatchVmPlacement(batchVmPlacement)
+            .build();
+    }
+
+    @Benchmark
+    public double runSimulation(final EventCounters counters) {
+        final double finishTime = scenario.run();
+        counters.events += scenario.getSimulation().getGeneratedEventsNumber();
+        return finishTime;
+    }
+
+    private Supplier<VmAllocationPolicy> vmAllocationPolicySupplier() {
+        return switch (vmAllocationPolicy) {
+            case "FirstFit" -> VmAllocationPolicyFirstFit::new;
+            case "IndexedFirstFit" -> VmAllocationPolicyIndexedFirstFit::new;
+            case "BestFit" -> VmAllocationPolicyBestFit::new;
+            case "SortedBestFit" -> VmAllocationPolicySortedBestFit::new;
+            case "Simple" -> VmAllocationPolicySimple::new;
+            case "RoundRobin" -> VmAllocationPolicyRoundRobin::new;
+            case "Random" -> () -> new VmAllocationPolicyRandom(new UniformDistr());
+            default -> throw new IllegalArgumentException("Unknown VmAllocationPolicy: " + vmAllocationPolicy);
+        };
+    }
+
+    private Supplier<UtilizationModel> cpuUtilizationModelSupplier() {
+        final UtilizationModel um = switch (cpuUtilizationModel) {
+            case "Full" -> new UtilizationModelFull();
+            case "Stochastic" -> new UtilizationModelStochastic(123456).setHistoryEnabled(false);
+            default -> throw new IllegalArgumentException("Unknown UtilizationModel: " + cpuUtilizationModel);
+        };
+
+        return () -> um;
+    }
+}
@@ -44,8 +44,10 @@ import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.examples.sweep.SimulationLogContext;
 import org.cloudsimplus.util.Log;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -62,17 +64,23 @@ import java.util.List;
  * in the different simulations. There will be just a difference in the number of created
  * objects.</p>
  *
- * <p>To enable such a parallel simulations execution, the logging must be
- * disable (as shown in the first line of the main method) and any console
- * output should be avoided during simulation execution.
+ * <p>To enable such a parallel simulations execution, the logs of each simulation
+ * are written to a different file inside the {@link #LOG_DIR}, by a {@link SimulationLogContext},
+ * and any other console output should be avoided during simulation execution.
  * Further, usage of static mutable attributes must be avoided.
  * All simulation attributes must be instance attributes and one
  * simulation run (a simulation instance) should not share data with other ones.</p>
  *
+ * <p>To run large parameter sweeps with logging enabled, check the
+ * {@link org.cloudsimplus.examples.sweep.ParameterSweepExample}.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 1.0
+ * @see org.cloudsimplus.examples.sweep.ParallelSweepRunner
  */
 public class ParallelSimulationsExample implements Runnable {
+    private static final Path LOG_DIR = Path.of("target", "parallel-simulations-logs");
+
     private final String title;
     private final CloudSim simulation;
     private DatacenterBroker broker;
@@ -88,8 +96,7 @@ public class ParallelSimulationsExample implements Runnable {
      * @param args
      */
     public static void main(String[] args) {
-        /*IT IS MANDATORY TO DISABLE THE LOG WHEN EXECUTING PARALLEL SIMULATIONS TO AVOID RUNTIME EXCEPTIONS.*/
-        Log.setLevel(Level.OFF);
+        Log.setLevel(Level.INFO);
 
         final var simulationList = new ArrayList<ParallelSimulationsExample>(2);
 
@@ -110,15 +117,19 @@ public class ParallelSimulationsExample implements Runnable {
         );
 
         final long startTimeMilliSec = System.currentTimeMillis();
-        //Uses Java 8 Streams to execute the simulation scenarios in parallel.
-        // tag::parallelExecution[]
-        simulationList.parallelStream().forEach(ParallelSimulationsExample::run);
-        // end::parallelExecution[]
+        //Writes the logs of each simulation to its own file, until the context is closed
+        try(var logContext = SimulationLogContext.install(LOG_DIR)) {
+            //Uses Java 8 Streams to execute the simulation scenarios in parallel.
+            // tag::parallelExecution[]
+            simulationList.parallelStream().forEach(simulation -> simulation.run(logContext));
+            // end::parallelExecution[]
+        }
 
         final long finishTimeMilliSec = System.currentTimeMillis() - startTimeMilliSec;
 
-        Log.setLevel(Level.INFO);
-        System.out.printf("Time to run %d simulations: %d milliseconds%n", simulationList.size(), finishTimeMilliSec);
+        System.out.printf(
+            "Time to run %d simulations: %d milliseconds. Logs written to %s%n",
+            simulationList.size(), finishTimeMilliSec, LOG_DIR.toAbsolutePath());
 
         //Prints the cloudlet list of all executed simulations
         simulationList.forEach(ParallelSimulationsExample::printResults);
@@ -227,6 +238,19 @@ public class ParallelSimulationsExample implements Runnable {
                 .setUtilizationModelRam(utilizationModelDynamic);
     }
 
+    /**
+     * Runs the simulation, writing its logs to a file named after the simulation title.
+     * @param logContext the context routing the logs of each simulation to its own file
+     */
+    private void run(final SimulationLogContext logContext) {
+        logContext.open(title.replace(' ', '-'));
+        try {
+            run();
+        } finally {
+            logContext.release();
+        }
+    }
+
     /**
      * Builds the simulation scenario and starts the simulation.
      */
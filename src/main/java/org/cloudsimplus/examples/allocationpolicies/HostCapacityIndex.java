@@ -0,0 +1,180 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.allocationpolicies;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.schedulers.MipsShare;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment tree over a list of Hosts, where each node stores the maximum
+ * free RAM, BW, storage, working PEs and available MIPS among the Hosts below it.
+ * It finds the first Host in a range of the list that is suitable for a VM
+ * in about O(log H), skipping entire sub-ranges where no Host has enough
+ * of some resource.
+ *
+ * <p>The index values are just used to discard Hosts:
+ * a Host that passes them is still checked with {@link Host#isSuitableForVm(Vm)},
+ * so the Host found is exactly the one a linear scan would find,
+ * as long as the index is {@link #update(Host) updated} every time
+ * resources of a Host are released.
+ * Available MIPS are only indexed for Hosts using a {@link VmSchedulerTimeShared},
+ * since other VmSchedulers may use a different criterion to check if there is enough CPU capacity.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class HostCapacityIndex {
+    private final List<? extends Host> hostList;
+    private final Map<Host, Integer> hostIndexes;
+
+    /** Number of leaves in the tree (a power of 2 not smaller than the number of Hosts). */
+    private final int leaves;
+
+    private final long[] ram;
+    private final long[] bw;
+    private final long[] storage;
+    private final long[] pes;
+    private final double[] mips;
+
+    /**
+     * Creates an index for a list of Hosts.
+     * The list must not be changed while the index is used.
+     * @param hostList the list of Hosts to index
+     */
+    public HostCapacityIndex(final List<? extends Host> hostList) {
+        this.hostList = hostList;
+        this.hostIndexes = new IdentityHashMap<>(hostList.size());
+        this.leaves = Integer.highestOneBit(Math.max(hostList.size() - 1, 1)) << 1;
+
+        this.ram = new long[leaves * 2];
+        this.bw = new long[leaves * 2];
+        this.storage = new long[leaves * 2];
+        this.pes = new long[leaves * 2];
+        this.mips = new double[leaves * 2];
+        Arrays.fill(ram, -1);
+        Arrays.fill(bw, -1);
+        Arrays.fill(storage, -1);
+        Arrays.fill(pes, -1);
+        Arrays.fill(mips, -1);
+
+        for (int i = 0; i < hostList.size(); i++) {
+            hostIndexes.put(hostList.get(i), i);
+            setLeaf(i, hostList.get(i));
+        }
+
+        for (int node = leaves - 1; node > 0; node--) {
+            updateNode(node);
+        }
+    }
+
+    /**
+     * Gets the number of indexed Hosts.
+     * @return the number of indexed Hosts
+     */
+    public int size() {
+        return hostList.size();
+    }
+
+    /**
+     * Updates the index for a Host after its resources were allocated or released.
+     * @param host the Host to update (Hosts which are not indexed are ignored)
+     */
+    public void update(final Host host) {
+        final Integer i = hostIndexes.get(host);
+        if(i == null)
+            return;
+
+        setLeaf(i, host);
+        for (int node = (leaves + i) / 2; node > 0; node /= 2) {
+            updateNode(node);
+        }
+    }
+
+    private void setLeaf(final int i, final Host host) {
+        final int node = leaves + i;
+        ram[node] = host.getRam().getAvailableResource();
+        bw[node] = host.getBw().getAvailableResource();
+        storage[node] = host.getStorage().getAvailableResource();
+        pes[node] = host.getWorkingPesNumber();
+        mips[node] =
+            host.getVmScheduler().getClass() == VmSchedulerTimeShared.class ?
+                host.getVmScheduler().getTotalAvailableMips() :
+                Double.POSITIVE_INFINITY;
+    }
+
+    private void updateNode(final int node) {
+        final int left = node * 2, right = left + 1;
+        ram[node] = Math.max(ram[left], ram[right]);
+        bw[node] = Math.max(bw[left], bw[right]);
+        storage[node] = Math.max(storage[left], storage[right]);
+        pes[node] = Math.max(pes[left], pes[right]);
+        mips[node] = Math.max(mips[left], mips[right]);
+    }
+
+    /**
+     * Finds the first Host suitable for a VM inside a range of the Host list.
+     * @param vm the VM to find a Host for
+     * @param from index of the first Host in the range
+     * @param to index of the last Host in the range (inclusive)
+     * @return the index of the first suitable Host or -1 if there is none
+     */
+    public int findFirst(final Vm vm, final int from, final int to) {
+        if(from > to)
+            return -1;
+
+        final MipsShare requestedMips = vm.getCurrentRequestedMips();
+        final var request = new Request(
+            vm.getRam().getCapacity(), vm.getBw().getCapacity(), vm.getStorage().getCapacity(),
+            requestedMips.pes(), requestedMips.totalMips());
+        return findFirst(vm, request, 1, 0, leaves - 1, from, Math.min(to, hostList.size() - 1));
+    }
+
+    private int findFirst(final Vm vm, final Request request, final int node, final int lo, final int hi, final int from, final int to) {
+        if(hi < from || lo > to || !request.fits(this, node))
+            return -1;
+
+        if(lo == hi)
+            return hostList.get(lo).isSuitableForVm(vm) ? lo : -1;
+
+        final int mid = (lo + hi) >>> 1;
+        final int i = findFirst(vm, request, node * 2, lo, mid, from, to);
+        return i >= 0 ? i : findFirst(vm, request, node * 2 + 1, mid + 1, hi, from, to);
+    }
+
+    /**
+     * The amount of resources requested by a VM.
+     */
+    private record Request(long ram, long bw, long storage, long pes, double mips) {
+        boolean fits(final HostCapacityIndex index, final int node) {
+            return index.ram[node] >= ram && index.bw[node] >= bw && index.storage[node] >= storage &&
+                   index.pes[node] >= pes && index.mips[node] >= mips;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.allocationpolicies;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyAbstract;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSuitability;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.autoscaling.VerticalVmScaling;
+
+/**
+ * A base class for {@link VmAllocationPolicy} implementations that keep
+ * an index of Hosts' free capacity.
+ * It calls {@link #updateHost(Host)} every time VMs are placed, destroyed,
+ * migrated or vertically scaled through this policy,
+ * so that subclasses can update their index for that Host.
+ *
+ * @author Ishak Megatli
+ */
+public abstract class VmAllocationPolicyIndexedAbstract extends VmAllocationPolicyAbstract implements VmAllocationPolicy {
+    @Override
+    public HostSuitability allocateHostForVm(final Vm vm, final Host host) {
+        final HostSuitability suitability = super.allocateHostForVm(vm, host);
+        updateHost(host);
+        return suitability;
+    }
+
+    @Override
+    public void deallocateHostForVm(final Vm vm) {
+        final Host host = vm.getHost();
+        super.deallocateHostForVm(vm);
+        updateHost(host);
+    }
+
+    @Override
+    public boolean scaleVmVertically(final VerticalVmScaling scaling) {
+        final Host host = scaling.getVm().getHost();
+        final boolean scaled = super.scaleVmVertically(scaling);
+        updateHost(host);
+        return scaled;
+    }
+
+    /**
+     * Updates the index for a Host whose allocated resources have changed.
+     * It must be called if Host resources are released
+     * outside of this policy (such as when failed PEs are recovered).
+     * @param host the Host to update
+     */
+    public abstract void updateHost(Host host);
+}
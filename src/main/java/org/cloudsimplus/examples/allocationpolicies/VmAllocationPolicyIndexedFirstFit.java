@@ -0,0 +1,93 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.allocationpolicies;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyFirstFit;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A First Fit {@link VmAllocationPolicy} that places VMs exactly as the
+ * {@link VmAllocationPolicyFirstFit}, but uses a {@link HostCapacityIndex}
+ * to find the next suitable Host, instead of checking every Host in the list.
+ * Like the original policy, the search starts from the last Host used
+ * and goes around the Host list.
+ *
+ * <p>This turns the placement of V VMs into H Hosts from O(V*H) into about O(V log H),
+ * which matters when placing a hundred thousand VMs, as in the {@link org.cloudsimplus.examples.performance.PerformanceExample1}.</p>
+ *
+ * <p>See {@link VmAllocationPolicyIndexedAbstract} for details about when the index is updated.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class VmAllocationPolicyIndexedFirstFit extends VmAllocationPolicyIndexedAbstract {
+    private HostCapacityIndex index;
+    private int lastHostIndex;
+
+    @Override
+    protected Optional<Host> defaultFindHostForVm(final Vm vm) {
+        final List<Host> hostList = getHostList();
+        if(hostList.isEmpty())
+            return Optional.empty();
+
+        lastHostIndex %= hostList.size();
+
+        final var capacityIndex = getIndex();
+        int i = capacityIndex.findFirst(vm, lastHostIndex, hostList.size() - 1);
+        if(i < 0)
+            i = capacityIndex.findFirst(vm, 0, lastHostIndex - 1);
+
+        if(i < 0)
+            return Optional.empty();
+
+        lastHostIndex = i;
+        return Optional.of(hostList.get(i));
+    }
+
+    @Override
+    public void updateHost(final Host host) {
+        if(index != null)
+            index.update(host);
+    }
+
+    /**
+     * Gets the capacity index, building it if the Host list has changed.
+     * @return the capacity index
+     */
+    protected HostCapacityIndex getIndex() {
+        if(index == null || index.size() != getHostList().size()) {
+            index = new HostCapacityIndex(getHostList());
+        }
+
+        return index;
+    }
+
+    protected int getLastHostIndex() {
+        return lastHostIndex;
+    }
+}
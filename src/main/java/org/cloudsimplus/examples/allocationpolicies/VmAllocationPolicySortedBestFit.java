@@ -0,0 +1,154 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.allocationpolicies;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyBestFit;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.EventListener;
+import org.cloudsimplus.listeners.HostEventInfo;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * A Best Fit {@link VmAllocationPolicy} that keeps Hosts sorted by their free capacity,
+ * so that the Host with the least free PEs suitable for a VM is found by a
+ * ceiling lookup in O(log H), instead of checking every Host in the list,
+ * as the {@link VmAllocationPolicyBestFit} does.
+ *
+ * <p>Hosts are sorted in a {@link NavigableSet} by:
+ * <ol>
+ *     <li>active Hosts first (as in the {@link VmAllocationPolicyBestFit}, to avoid powering on Hosts);</li>
+ *     <li>number of free PEs;</li>
+ *     <li>free RAM and then free BW, so that among Hosts with the same free PEs,
+ *         the tightest one is selected;</li>
+ *     <li>position in the Host list.</li>
+ * </ol>
+ * A Host is removed and re-inserted with a new key every time its allocation changes
+ * (see {@link VmAllocationPolicyIndexedAbstract}) or when it is powered on/off.
+ * </p>
+ *
+ * <p>The lookup starts at the first Host with at least the number of PEs, RAM and BW the VM requires,
+ * and returns the first one that is {@link Host#isSuitableForVm(Vm) suitable}.
+ * This way, differently from the {@link VmAllocationPolicyBestFit},
+ * Hosts with fewer free PEs than the VM requires are never selected,
+ * even if a time-shared VmScheduler could still share their busy PEs.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class VmAllocationPolicySortedBestFit extends VmAllocationPolicyIndexedAbstract {
+    private static final Comparator<HostEntry> COMPARATOR =
+        Comparator.comparing((HostEntry entry) -> !entry.active())
+                  .thenComparingLong(HostEntry::freePes)
+                  .thenComparingLong(HostEntry::freeRam)
+                  .thenComparingLong(HostEntry::freeBw)
+                  .thenComparingInt(HostEntry::index);
+
+    private final NavigableSet<HostEntry> sortedHosts = new TreeSet<>(COMPARATOR);
+
+    /** The current entry of each Host inside the {@link #sortedHosts}, used to re-key it. */
+    private final Map<Host, HostEntry> hostEntries = new IdentityHashMap<>();
+
+    private final EventListener<HostEventInfo> powerListener = info -> updateHost(info.getHost());
+
+    @Override
+    protected Optional<Host> defaultFindHostForVm(final Vm vm) {
+        buildIndexIfHostListChanged();
+        final Optional<Host> optionalHost = findHostForVm(vm, true);
+        return optionalHost.isPresent() ? optionalHost : findHostForVm(vm, false);
+    }
+
+    /**
+     * Finds the suitable Host with the least free capacity among active or inactive Hosts.
+     * @param vm the VM to find a Host for
+     * @param active true to search active Hosts, false to search inactive ones
+     * @return an Optional with the Host found or an empty Optional if none is suitable
+     */
+    private Optional<Host> findHostForVm(final Vm vm, final boolean active) {
+        final long ram = vm.getRam().getCapacity();
+        final long bw = vm.getBw().getCapacity();
+        final var ceiling = new HostEntry(Host.NULL, -1, active, vm.getNumberOfPes(), ram, bw);
+        for (final HostEntry entry : sortedHosts.tailSet(ceiling, true)) {
+            if(entry.active() != active)
+                break;
+
+            if(entry.freeRam() >= ram && entry.freeBw() >= bw && entry.host().isSuitableForVm(vm))
+                return Optional.of(entry.host());
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public void updateHost(final Host host) {
+        final HostEntry previous = hostEntries.get(host);
+        if(previous == null)
+            return;
+
+        sortedHosts.remove(previous);
+        addHost(host, previous.index());
+    }
+
+    private void addHost(final Host host, final int index) {
+        final var entry = HostEntry.of(host, index);
+        sortedHosts.add(entry);
+        hostEntries.put(host, entry);
+    }
+
+    private void buildIndexIfHostListChanged() {
+        final List<Host> hostList = getHostList();
+        if(hostEntries.size() == hostList.size())
+            return;
+
+        sortedHosts.clear();
+        for (int i = 0; i < hostList.size(); i++) {
+            final Host host = hostList.get(i);
+            if(!hostEntries.containsKey(host)) {
+                host.addOnStartupListener(powerListener).addOnShutdownListener(powerListener);
+            }
+
+            addHost(host, i);
+        }
+    }
+
+    /**
+     * The key of a Host inside the {@link #sortedHosts}.
+     * Since the Host's free capacity changes along the simulation,
+     * it's stored here so that the key doesn't change while the Host is inside the set.
+     */
+    private record HostEntry(Host host, int index, boolean active, long freePes, long freeRam, long freeBw) {
+        static HostEntry of(final Host host, final int index) {
+            return new HostEntry(
+                host, index, host.isActive(), host.getFreePesNumber(),
+                host.getRam().getAvailableResource(), host.getBw().getAvailableResource());
+        }
+    }
+}
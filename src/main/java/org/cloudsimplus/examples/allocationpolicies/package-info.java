@@ -0,0 +1,8 @@
+/**
+ * {@link org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy} implementations
+ * that keep an index of Hosts' free capacity, so that finding a Host for a VM
+ * doesn't require scanning the whole Host list in large-scale simulations.
+ *
+ * @author Ishak Megatli
+ */
+package org.cloudsimplus.examples.allocationpolicies;
@@ -0,0 +1,206 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.autoscaling;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.autoscaling.HorizontalVmScalingSimple;
+import org.cloudsimplus.examples.brokers.DatacenterBrokerLeastLoaded;
+import org.cloudsimplus.examples.brokers.DatacenterBrokerLeastLoaded.LoadMetric;
+import org.cloudsimplus.listeners.EventInfo;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An example comparing how the {@link DatacenterBrokerSimple} (which maps Cloudlets to VMs round-robin)
+ * and the {@link DatacenterBrokerLeastLoaded} (using each {@link LoadMetric})
+ * spread Cloudlets across a pool of VMs which is horizontally scaled,
+ * in the same scenario of the {@link LoadBalancerByHorizontalVmScalingExample}, but with more Hosts and Cloudlets.
+ * Batches of Cloudlets are submitted periodically, while new VMs are created
+ * when some VM is overloaded.
+ *
+ * <p>Since the round-robin mapping ignores the load of VMs,
+ * new VMs get no more Cloudlets than overloaded ones,
+ * which share their PEs among more Cloudlets, increasing their response time.
+ * Mapping by {@link LoadMetric#CPU_UTILIZATION} is not much better than that,
+ * since the CPU utilization of all busy VMs is 100%, no matter how many Cloudlets they are running.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class LoadBalancerBrokersComparisonExample {
+    private static final int SCHEDULING_INTERVAL = 1;
+    private static final int CLOUDLETS_CREATION_INTERVAL = 4;
+    private static final int HOSTS = 4;
+    private static final int HOST_PES = 8;
+    private static final int VMS = 4;
+    private static final int VM_PES = 2;
+
+    /**
+     * The maximum number of running VMs, which fills up all Hosts.
+     */
+    private static final int MAX_VMS = HOSTS * HOST_PES / VM_PES;
+    private static final int CLOUDLETS_BATCH = 10;
+    private static final int TOTAL_CLOUDLETS = 200;
+    private static final long MIN_CLOUDLET_LENGTH = 10_000;
+    private static final long MAX_CLOUDLET_LENGTH = 100_000;
+
+    private final CloudSim simulation;
+    private final DatacenterBroker broker;
+    private final List<Cloudlet> cloudletList;
+    private int createdCloudlets;
+    private int createdVms;
+
+    public static void main(String[] args) {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf(
+            "%n| %-43s | %11s | %17s | %16s | %10s |%n",
+            "Broker", "VMs created", "Mean response (s)", "P99 response (s)", "Finish (s)");
+        run("DatacenterBrokerSimple (round-robin)", DatacenterBrokerSimple::new);
+        for (final LoadMetric metric : LoadMetric.values()) {
+            run("DatacenterBrokerLeastLoaded " + metric, sim -> new DatacenterBrokerLeastLoaded(sim, metric));
+        }
+    }
+
+    private static void run(final String title, final Function<CloudSim, DatacenterBroker> brokerFactory) {
+        final var example = new LoadBalancerBrokersComparisonExample(brokerFactory);
+        example.simulation.start();
+        example.printResults(title);
+    }
+
+    private LoadBalancerBrokersComparisonExample(final Function<CloudSim, DatacenterBroker> brokerFactory) {
+        simulation = new CloudSim();
+        simulation.addOnClockTickListener(this::createNewCloudlets);
+        createDatacenter();
+
+        broker = brokerFactory.apply(simulation);
+        broker.setVmDestructionDelay(10.0);
+        cloudletList = new ArrayList<>(TOTAL_CLOUDLETS);
+
+        final List<Vm> vmList = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            vmList.add(createScalableVm());
+        }
+
+        broker.submitVmList(vmList);
+        broker.submitCloudletList(createCloudlets());
+    }
+
+    private void createDatacenter() {
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            for (int pe = 0; pe < HOST_PES; pe++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            hostList.add(new HostSimple(200_000, 200_000, 10_000_000, peList));
+        }
+
+        new DatacenterSimple(simulation, hostList).setSchedulingInterval(SCHEDULING_INTERVAL);
+    }
+
+    private void createNewCloudlets(final EventInfo info) {
+        final long time = (long) info.getTime();
+        if (time % CLOUDLETS_CREATION_INTERVAL == 0 && createdCloudlets < TOTAL_CLOUDLETS) {
+            broker.submitCloudletList(createCloudlets());
+        }
+    }
+
+    private List<Cloudlet> createCloudlets() {
+        final List<Cloudlet> list = new ArrayList<>(CLOUDLETS_BATCH);
+        for (int i = 0; i < CLOUDLETS_BATCH && createdCloudlets < TOTAL_CLOUDLETS; i++) {
+            final int id = createdCloudlets++;
+            final long steps = MAX_CLOUDLET_LENGTH / MIN_CLOUDLET_LENGTH;
+            final var cloudlet = new CloudletSimple(id, MIN_CLOUDLET_LENGTH * (1 + id % steps), 2);
+            cloudlet.setSizes(1024)
+                    .setUtilizationModelCpu(new UtilizationModelFull())
+                    .setUtilizationModelRam(new UtilizationModelDynamic(0.01))
+                    .setUtilizationModelBw(new UtilizationModelDynamic(0.01));
+            list.add(cloudlet);
+        }
+
+        cloudletList.addAll(list);
+        return list;
+    }
+
+    private Vm createScalableVm() {
+        final Vm vm = createVm();
+        final var scaling = new HorizontalVmScalingSimple();
+        scaling.setVmSupplier(this::createScalableVm)
+               .setOverloadPredicate(this::isVmOverloaded);
+        vm.setHorizontalScaling(scaling);
+        return vm;
+    }
+
+    /**
+     * Checks if a VM is overloaded and a new one can be created.
+     * Scaling is held while previously requested VMs are waiting to be created
+     * or if the pool has reached the {@link #MAX_VMS}, avoiding requests for VMs that don't fit into Hosts.
+     */
+    private boolean isVmOverloaded(final Vm vm) {
+        return vm.getCpuPercentUtilization() > 0.7
+               && broker.getVmWaitingList().isEmpty()
+               && broker.getVmExecList().size() < MAX_VMS;
+    }
+
+    private Vm createVm() {
+        return new VmSimple(createdVms++, 1000, VM_PES)
+            .setRam(1000).setBw(1000).setSize(10000)
+            .setCloudletScheduler(new CloudletSchedulerTimeShared());
+    }
+
+    /**
+     * Prints the response time (from the arrival to the finish time) of finished Cloudlets.
+     */
+    private void printResults(final String title) {
+        final List<Cloudlet> finished = broker.getCloudletFinishedList();
+        final ToDoubleFunction<Cloudlet> responseTime = cloudlet -> cloudlet.getFinishTime() - cloudlet.getArrivalTime();
+        final double[] responseTimes = finished.stream().mapToDouble(responseTime).sorted().toArray();
+        final double mean = finished.stream().mapToDouble(responseTime).average().orElse(0);
+        final double p99 = responseTimes.length == 0 ? 0 : responseTimes[(int) Math.ceil(responseTimes.length * 0.99) - 1];
+        System.out.printf(
+            "| %-43s | %11d | %17.2f | %16.2f | %10.2f |%n",
+            title, broker.getVmCreatedList().size(), mean, p99, simulation.clock());
+        if (finished.size() != cloudletList.size()) {
+            System.out.printf("  Just %d of %d Cloudlets finished.%n", finished.size(), cloudletList.size());
+        }
+    }
+}
@@ -24,7 +24,6 @@
 package org.cloudsimplus.examples.autoscaling;
 
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
-import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -48,6 +47,7 @@ import org.cloudbus.cloudsim.vms.VmSimple;
 import org.cloudsimplus.autoscaling.HorizontalVmScaling;
 import org.cloudsimplus.autoscaling.HorizontalVmScalingSimple;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.examples.brokers.DatacenterBrokerLeastLoaded;
 import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
 
@@ -103,7 +103,7 @@ public class LoadBalancerByHorizontalVmScalingExample {
         simulation.addOnClockTickListener(this::createNewCloudlets);
 
         dc0 = createDatacenter();
-        broker0 = new DatacenterBrokerSimple(simulation);
+        broker0 = new DatacenterBrokerLeastLoaded(simulation);
         broker0.setVmDestructionDelay(10.0);
 
         vmList.addAll(createListOfScalableVms(VMS));
@@ -0,0 +1,67 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+/**
+ * Defines which finished Cloudlets a {@link DatacenterBrokerRetention} keeps in memory.
+ *
+ * @param maxFinishedCloudlets the max number of the last finished Cloudlets to keep
+ *                             ({@link Integer#MAX_VALUE} to keep all of them,
+ *                             0 to just keep counters and aggregates)
+ * @author Ishak Megatli
+ */
+public record CloudletRetentionPolicy(int maxFinishedCloudlets) {
+    /**
+     * Keeps all Cloudlets, as a regular broker does.
+     */
+    public static final CloudletRetentionPolicy ALL = new CloudletRetentionPolicy(Integer.MAX_VALUE);
+
+    /**
+     * Just keeps counters and aggregates of finished Cloudlets.
+     */
+    public static final CloudletRetentionPolicy AGGREGATES = new CloudletRetentionPolicy(0);
+
+    public CloudletRetentionPolicy {
+        if (maxFinishedCloudlets < 0) {
+            throw new IllegalArgumentException("maxFinishedCloudlets cannot be negative");
+        }
+    }
+
+    /**
+     * Creates a policy that keeps the last finished Cloudlets, besides counters and aggregates.
+     * @param maxFinishedCloudlets the max number of the last finished Cloudlets to keep
+     * @return the new policy
+     */
+    public static CloudletRetentionPolicy lastFinished(final int maxFinishedCloudlets) {
+        return new CloudletRetentionPolicy(maxFinishedCloudlets);
+    }
+
+    /**
+     * Checks if all Cloudlets are kept.
+     * @return true if all Cloudlets are kept, false otherwise
+     */
+    public boolean isKeepingAll() {
+        return maxFinishedCloudlets == Integer.MAX_VALUE;
+    }
+}
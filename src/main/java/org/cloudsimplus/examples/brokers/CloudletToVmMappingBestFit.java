@@ -60,8 +60,10 @@ import java.util.List;
  * changing the method used for that goal,
  * without requiring to create a subclass to accomplish that.</p>
  *
- * <p>The example uses the class {@link DatacenterBrokerBestFit} that performs
+ * <p>The example uses the class {@link DatacenterBrokerIndexedBestFit} that performs
  * an optimal mapping of Cloudlets to VMs based on the free Pes in VMs.
+ * It maps Cloudlets exactly as the {@link DatacenterBrokerBestFit},
+ * but finds the VM from an index of VMs by free PEs.
  * </p>
  *
  * @author Manoel Campos da Silva Filho
@@ -95,7 +97,7 @@ public class CloudletToVmMappingBestFit {
         datacenter0 = createDatacenter();
 
         //Creates a broker that is a software acting on behalf a cloud customer to manage his/her VMs and Cloudlets
-        broker0 = new DatacenterBrokerBestFit(simulation);
+        broker0 = new DatacenterBrokerIndexedBestFit(simulation);
 
         vmList = createVms();
         cloudletList = createCloudlets();
@@ -0,0 +1,98 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerBestFit;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.vms.Vm;
+
+/**
+ * A Best Fit broker that maps Cloudlets to VMs exactly as the {@link DatacenterBrokerBestFit},
+ * but uses a {@link VmFreePesIndex} to find the VM with the fewest free PEs that fits a Cloudlet,
+ * instead of checking every created VM.
+ * This way, mapping a Cloudlet takes time proportional to the max number of PEs of a VM,
+ * not to the number of VMs, which matters when there are thousands of VMs
+ * and Cloudlets keep arriving along the simulation.
+ *
+ * <p>The expected number of free PEs of a VM just changes when a Cloudlet is sent to it
+ * and when a Cloudlet finishes. A {@link VmMappingTracker} tells when the index
+ * must be updated for these cases and when new VMs must be added to it.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterBrokerIndexedBestFit extends DatacenterBrokerBestFit {
+    private final VmFreePesIndex index;
+    private final VmMappingTracker tracker;
+
+    /**
+     * Creates a DatacenterBroker object.
+     *
+     * @param simulation The CloudSim instance that represents the simulation the Entity is related to
+     */
+    public DatacenterBrokerIndexedBestFit(final CloudSim simulation) {
+        super(simulation);
+        this.index = new VmFreePesIndex();
+        this.tracker = new VmMappingTracker(
+                            this, index::add,
+                            (cloudlet, vm) -> index.update(vm),
+                            cloudlet -> index.update(cloudlet.getVm()));
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        super.processEvent(evt);
+        tracker.processEvent(evt);
+    }
+
+    /**
+     * Selects the VM with the fewest expected free PEs that still fits the Cloudlet.
+     * @param cloudlet the Cloudlet to find a VM to run it
+     * @return the VM selected for the Cloudlet or {@link Vm#NULL} if no suitable VM was found
+     */
+    @Override
+    public Vm defaultVmMapper(final Cloudlet cloudlet) {
+        tracker.update();
+        if (cloudlet.isBoundToVm()) {
+            return tracker.mapped(cloudlet, cloudlet.getVm());
+        }
+
+        final Vm mappedVm = index.findBestFit(cloudlet.getNumberOfPes());
+        if (Vm.NULL.equals(mappedVm)) {
+            LOGGER.warn("{}: {}: {} (PEs: {}) couldn't be mapped to any suitable VM.",
+                getSimulation().clockStr(), getName(), cloudlet, cloudlet.getNumberOfPes());
+            return mappedVm;
+        }
+
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace(
+                "{}: {}: {} (PEs: {}) mapped to {} (available PEs: {}, tot PEs: {})",
+                getSimulation().clockStr(), getName(), cloudlet, cloudlet.getNumberOfPes(), mappedVm,
+                mappedVm.getExpectedFreePesNumber(), mappedVm.getFreePesNumber());
+        }
+
+        return tracker.mapped(cloudlet, mappedVm);
+    }
+}
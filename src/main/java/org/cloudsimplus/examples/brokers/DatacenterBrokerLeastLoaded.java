@@ -0,0 +1,222 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A broker that maps each Cloudlet to the least loaded VM,
+ * instead of going round-robin over VMs as the {@link DatacenterBrokerSimple} does.
+ * This way, VMs created by a {@link org.cloudsimplus.autoscaling.HorizontalVmScaling}
+ * receive new Cloudlets before overloaded VMs do.
+ * The load of VMs is measured according to a {@link LoadMetric}
+ * and kept into a {@link VmLoadHeap}, so that the least loaded VM is found in constant time.
+ *
+ * <p>The load of a VM depends on the number of PEs required by unfinished Cloudlets mapped to it.
+ * That number is tracked by the broker, since the {@link Vm#getExpectedFreePesNumber() expected number of free PEs}
+ * doesn't go below zero and then can't tell how oversubscribed a VM is.
+ * It just changes when a Cloudlet is sent to the VM and when a Cloudlet finishes,
+ * which are notified by a {@link VmMappingTracker}, together with the creation of VMs.
+ * Destroyed VMs are removed from the heap only when they reach its top,
+ * since the broker isn't notified about that.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterBrokerLeastLoaded extends DatacenterBrokerSimple {
+    /**
+     * The metrics to measure the load of VMs.
+     */
+    public enum LoadMetric {
+        /**
+         * The number of PEs required by unfinished Cloudlets mapped to the VM,
+         * relative to the number of VM PEs (which is greater than 1 when the VM is oversubscribed).
+         */
+        QUEUE_LENGTH,
+
+        /**
+         * The VM CPU utilization, measured at the first mapping of each simulation time,
+         * plus the PEs required by Cloudlets mapped to the VM since then, relative to the number of VM PEs.
+         * Since the utilization of a VM only changes when Cloudlets are processed,
+         * the mapped PEs avoid sending all Cloudlets submitted at the same time to the same VM.
+         */
+        CPU_UTILIZATION
+    }
+
+    /**
+     * The load information of a VM.
+     */
+    private static final class VmLoad {
+        /** The number of PEs required by unfinished Cloudlets mapped to the VM. */
+        private long mappedPes;
+
+        /** The VM CPU utilization (between 0 and 1) at the last time it was sampled. */
+        private double cpuUtilization;
+
+        /** The {@link #mappedPes} at the last time the CPU utilization was sampled. */
+        private long sampledMappedPes;
+    }
+
+    private final LoadMetric metric;
+    private final VmLoadHeap heap;
+    private final Map<Vm, VmLoad> vmLoads;
+    private final VmMappingTracker tracker;
+    private double lastSampleTime;
+
+    /**
+     * Creates a broker that maps Cloudlets by the {@link LoadMetric#QUEUE_LENGTH}.
+     * @param simulation the CloudSim instance that represents the simulation the broker is related to
+     */
+    public DatacenterBrokerLeastLoaded(final CloudSim simulation) {
+        this(simulation, LoadMetric.QUEUE_LENGTH);
+    }
+
+    /**
+     * Creates a broker that maps Cloudlets by a given metric.
+     * @param simulation the CloudSim instance that represents the simulation the broker is related to
+     * @param metric the metric to measure the load of VMs
+     */
+    public DatacenterBrokerLeastLoaded(final CloudSim simulation, final LoadMetric metric) {
+        super(simulation);
+        this.metric = Objects.requireNonNull(metric);
+        this.heap = new VmLoadHeap();
+        this.vmLoads = new IdentityHashMap<>();
+        this.tracker = new VmMappingTracker(this, this::addVm, this::addMappedPes, this::removeMappedPes);
+        this.lastSampleTime = -1;
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        super.processEvent(evt);
+        tracker.processEvent(evt);
+    }
+
+    private void addVm(final Vm vm) {
+        final var vmLoad = new VmLoad();
+        vmLoad.cpuUtilization = cpuUtilization(vm);
+        vmLoads.put(vm, vmLoad);
+        heap.add(vm, load(vm));
+    }
+
+    private void addMappedPes(final Cloudlet cloudlet, final Vm vm) {
+        changeMappedPes(vm, cloudlet.getNumberOfPes());
+    }
+
+    private void removeMappedPes(final Cloudlet cloudlet) {
+        changeMappedPes(cloudlet.getVm(), -cloudlet.getNumberOfPes());
+    }
+
+    private void changeMappedPes(final Vm vm, final long pes) {
+        final VmLoad vmLoad = vmLoads.get(vm);
+        if (vmLoad != null) {
+            vmLoad.mappedPes += pes;
+            heap.update(vm, load(vm));
+        }
+    }
+
+    /**
+     * Samples the CPU utilization of all VMs, if the simulation time has changed since the last sample
+     * and the load is measured by {@link LoadMetric#CPU_UTILIZATION}.
+     */
+    private void sampleCpuUtilization() {
+        if (metric != LoadMetric.CPU_UTILIZATION || getSimulation().clock() == lastSampleTime) {
+            return;
+        }
+
+        lastSampleTime = getSimulation().clock();
+        for (final Map.Entry<Vm, VmLoad> entry : vmLoads.entrySet()) {
+            final Vm vm = entry.getKey();
+            final VmLoad vmLoad = entry.getValue();
+            vmLoad.cpuUtilization = cpuUtilization(vm);
+            vmLoad.sampledMappedPes = vmLoad.mappedPes;
+            heap.update(vm, load(vm));
+        }
+    }
+
+    private double cpuUtilization(final Vm vm) {
+        return metric == LoadMetric.CPU_UTILIZATION ? vm.getCpuPercentUtilization() : 0;
+    }
+
+    /**
+     * Computes the current load of a VM according to the {@link #getLoadMetric() load metric}.
+     * @param vm the VM to compute the load
+     * @return the VM load
+     */
+    private double load(final Vm vm) {
+        final VmLoad vmLoad = vmLoads.get(vm);
+        if (vmLoad == null) {
+            return Double.NaN;
+        }
+
+        final double pes = vm.getNumberOfPes();
+        return switch (metric) {
+            case QUEUE_LENGTH -> vmLoad.mappedPes / pes;
+            case CPU_UTILIZATION -> vmLoad.cpuUtilization + (vmLoad.mappedPes - vmLoad.sampledMappedPes) / pes;
+        };
+    }
+
+    /**
+     * Selects the least loaded VM.
+     * @param cloudlet the Cloudlet to find a VM to run it
+     * @return the VM selected for the Cloudlet or {@link Vm#NULL} if there is no running VM
+     */
+    @Override
+    protected Vm defaultVmMapper(final Cloudlet cloudlet) {
+        tracker.update();
+        if (cloudlet.isBoundToVm()) {
+            return tracker.mapped(cloudlet, cloudlet.getVm());
+        }
+
+        sampleCpuUtilization();
+        Vm vm = heap.peek();
+        while (vm != Vm.NULL && !vm.isCreated()) {
+            heap.remove(vm);
+            vmLoads.remove(vm);
+            vm = heap.peek();
+        }
+
+        if (vm != Vm.NULL && LOGGER.isTraceEnabled()) {
+            LOGGER.trace(
+                "{}: {}: {} mapped to {} (load: {})",
+                getSimulation().clockStr(), getName(), cloudlet, vm, heap.getLoad(vm));
+        }
+
+        return tracker.mapped(cloudlet, vm);
+    }
+
+    /**
+     * Gets the metric to measure the load of VMs.
+     * @return the metric to measure the load of VMs
+     */
+    public LoadMetric getLoadMetric() {
+        return metric;
+    }
+}
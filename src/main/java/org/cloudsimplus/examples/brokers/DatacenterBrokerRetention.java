@@ -0,0 +1,238 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerAbstract;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletScheduler;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerAbstract;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link DatacenterBrokerSimple} that drops finished Cloudlets from its lists
+ * according to a {@link CloudletRetentionPolicy}, keeping just {@link FinishedCloudletsStats}
+ * (and optionally the last N finished Cloudlets).
+ * That enables long-running simulations with millions of Cloudlets
+ * (such as the ones replaying Google traces or kept running indefinitely)
+ * to use memory proportional to the number of Cloudlets in execution,
+ * instead of the number of Cloudlets ever submitted.
+ *
+ * <p>Finished Cloudlets are also removed from the finished and returned lists of the
+ * {@link CloudletSchedulerAbstract} of their VMs, otherwise they would still be reachable
+ * until the VMs are destroyed. Since these lists are private, they are accessed by reflection.</p>
+ *
+ * <p>This broker isn't suitable for simulations using
+ * {@link org.cloudsimplus.autoscaling.HorizontalVmScaling},
+ * which relies on the size of the list of created Cloudlets.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterBrokerRetention extends DatacenterBrokerSimple {
+    /**
+     * Min number of Cloudlets finished since the last compaction
+     * of the submitted/created lists to compact them again.
+     */
+    private static final int MIN_COMPACTION_THRESHOLD = 64;
+
+    private final CloudletRetentionPolicy policy;
+    private final Field cloudletReturnedListField;
+    private final FinishedCloudletsStats stats;
+    private final List<Cloudlet> finishedList;
+    private long finishedSinceCompaction;
+    private long removedSubmittedCloudlets;
+    private long removedCreatedCloudlets;
+
+    /**
+     * Creates a broker with a given retention policy.
+     * @param simulation the CloudSim instance that represents the simulation the broker is related to
+     * @param policy the policy defining which finished Cloudlets are kept
+     */
+    public DatacenterBrokerRetention(final CloudSim simulation, final CloudletRetentionPolicy policy) {
+        this(simulation, "", policy);
+    }
+
+    /**
+     * Creates a broker with a given retention policy.
+     * @param simulation the CloudSim instance that represents the simulation the broker is related to
+     * @param name the broker name (an empty string to use the default one)
+     * @param policy the policy defining which finished Cloudlets are kept
+     */
+    public DatacenterBrokerRetention(final CloudSim simulation, final String name, final CloudletRetentionPolicy policy) {
+        super(simulation, name);
+        this.policy = policy;
+        this.stats = new FinishedCloudletsStats();
+        this.finishedList = findFinishedList();
+        this.cloudletReturnedListField = findCloudletReturnedListField();
+    }
+
+    /**
+     * Gets the internal list of finished Cloudlets,
+     * since {@link #getCloudletFinishedList()} just returns a copy of it.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Cloudlet> findFinishedList() {
+        try {
+            final Field field = DatacenterBrokerAbstract.class.getDeclaredField("cloudletsFinishedList");
+            field.setAccessible(true);
+            return (List<Cloudlet>) field.get(this);
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Unable to access the finished Cloudlet list of " + DatacenterBrokerAbstract.class.getName(), e);
+        }
+    }
+
+    private static Field findCloudletReturnedListField() {
+        try {
+            final Field field = CloudletSchedulerAbstract.class.getDeclaredField("cloudletReturnedList");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException | RuntimeException e) {
+            throw new IllegalStateException("Unable to access the returned Cloudlet list of " + CloudletSchedulerAbstract.class.getName(), e);
+        }
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        super.processEvent(evt);
+        if (evt.getTag() == CloudSimTag.CLOUDLET_RETURN && evt.getData() instanceof Cloudlet cloudlet) {
+            processCloudletReturn(cloudlet);
+        }
+    }
+
+    private void processCloudletReturn(final Cloudlet cloudlet) {
+        stats.add(cloudlet);
+        if (policy.isKeepingAll()) {
+            return;
+        }
+
+        removeFromScheduler(cloudlet);
+        trimFinishedList();
+        compactCloudletLists();
+    }
+
+    private void removeFromScheduler(final Cloudlet cloudlet) {
+        final CloudletScheduler scheduler = cloudlet.getVm().getCloudletScheduler();
+        scheduler.getCloudletFinishedList().removeIf(cle -> cle.getCloudlet() == cloudlet);
+        if (scheduler instanceof CloudletSchedulerAbstract) {
+            try {
+                ((Set<?>) cloudletReturnedListField.get(scheduler)).remove(cloudlet);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to remove " + cloudlet + " from the returned Cloudlet list of " + scheduler, e);
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest finished Cloudlets exceeding the retention limit.
+     * The list is just trimmed when it grows 50% over the limit,
+     * so that the cost of shifting elements is amortized.
+     */
+    private void trimFinishedList() {
+        final int max = policy.maxFinishedCloudlets();
+        if (max == 0) {
+            finishedList.clear();
+            return;
+        }
+
+        final int size = finishedList.size();
+        if (size > max + Math.max(1, max / 2)) {
+            finishedList.subList(0, size - max).clear();
+        }
+    }
+
+    /**
+     * Removes finished Cloudlets from the submitted and created lists
+     * after a number of Cloudlets have finished since the last compaction
+     * (proportional to the lists size, so that the cost is amortized).
+     */
+    private void compactCloudletLists() {
+        final List<Cloudlet> submittedList = getCloudletSubmittedList();
+        if (++finishedSinceCompaction < Math.max(MIN_COMPACTION_THRESHOLD, submittedList.size() / 2)) {
+            return;
+        }
+
+        finishedSinceCompaction = 0;
+        removedSubmittedCloudlets += removeFinished(submittedList);
+        removedCreatedCloudlets += removeFinished(getCloudletCreatedList());
+    }
+
+    private static int removeFinished(final List<Cloudlet> list) {
+        final int size = list.size();
+        list.removeIf(Cloudlet::isFinished);
+        return size - list.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Just the finished Cloudlets retained according to the {@link CloudletRetentionPolicy} are returned.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Cloudlet> List<T> getCloudletFinishedList() {
+        final int size = finishedList.size();
+        final int max = policy.maxFinishedCloudlets();
+        return (List<T>) new ArrayList<>(size > max ? finishedList.subList(size - max, size) : finishedList);
+    }
+
+    /**
+     * Gets the total number of Cloudlets submitted so far,
+     * including the ones already removed from the list of submitted Cloudlets.
+     * @return the total number of Cloudlets submitted so far
+     */
+    public long getSubmittedCloudletsNumber() {
+        return removedSubmittedCloudlets + getCloudletSubmittedList().size();
+    }
+
+    /**
+     * Gets the total number of Cloudlets created so far,
+     * including the ones already removed from the list of created Cloudlets.
+     * @return the total number of Cloudlets created so far
+     */
+    public long getCreatedCloudletsNumber() {
+        return removedCreatedCloudlets + getCloudletCreatedList().size();
+    }
+
+    /**
+     * Gets the aggregates of all finished Cloudlets, including the ones not retained.
+     * @return the aggregates of all finished Cloudlets
+     */
+    public FinishedCloudletsStats getFinishedCloudletsStats() {
+        return stats;
+    }
+
+    /**
+     * Gets the policy defining which finished Cloudlets are kept.
+     * @return the policy defining which finished Cloudlets are kept
+     */
+    public CloudletRetentionPolicy getRetentionPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.listeners.EventInfo;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An example showing how to use a {@link DatacenterBrokerRetention}
+ * to run a long simulation that keeps submitting new Cloudlets (like the ones
+ * replaying workload traces), without holding every finished Cloudlet in memory.
+ * A batch of {@link #CLOUDLETS_BY_BATCH} Cloudlets is submitted every
+ * {@link #BATCH_INTERVAL} seconds, up to {@link #CLOUDLETS} Cloudlets.
+ * The example doesn't keep references to the Cloudlets itself.
+ *
+ * <p>The same simulation is run with different {@link CloudletRetentionPolicy}s.
+ * The finished Cloudlets statistics are the same for all of them,
+ * but the number of Cloudlets held by the broker and the used heap
+ * are much smaller when only aggregates (or the last finished Cloudlets) are kept.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterBrokerRetentionExample {
+    private static final int HOSTS = 100;
+    private static final int HOST_PES = 8;
+
+    private static final int VMS = 400;
+    private static final int VM_PES = 2;
+
+    private static final int CLOUDLETS = 200_000;
+    private static final int CLOUDLETS_BY_BATCH = 400;
+    private static final int CLOUDLET_LENGTH = 10_000;
+
+    /**
+     * Interval (in seconds) to submit a new batch of Cloudlets.
+     */
+    private static final double BATCH_INTERVAL = 5;
+
+    private final CloudletRetentionPolicy policy;
+    private CloudSim simulation;
+    private DatacenterBrokerRetention broker;
+    private int submittedCloudlets;
+    private double nextBatchTime;
+
+    public static void main(String[] args) {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf(
+            "| %-16s | %9s | %9s | %9s | %11s | %10s | %10s | %9s |%n",
+            "Retention policy", "Finished", "Retained", "Submitted", "Mean exec", "Total cost", "Used heap", "Exec time");
+        new DatacenterBrokerRetentionExample(CloudletRetentionPolicy.ALL);
+        new DatacenterBrokerRetentionExample(CloudletRetentionPolicy.lastFinished(1000));
+        new DatacenterBrokerRetentionExample(CloudletRetentionPolicy.AGGREGATES);
+    }
+
+    private DatacenterBrokerRetentionExample(final CloudletRetentionPolicy policy) {
+        this.policy = policy;
+        final double startSecs = TimeUtil.currentTimeSecs();
+
+        simulation = new CloudSim();
+        final var datacenter = new DatacenterSimple(simulation, createHosts(), new VmAllocationPolicySimple());
+        datacenter.getCharacteristics().setCostPerSecond(0.01);
+
+        broker = new DatacenterBrokerRetention(simulation, policy);
+        broker.setShutdownWhenIdle(false);
+        broker.submitVmList(createVms());
+        simulation.addOnClockTickListener(this::submitNextBatch);
+        simulation.terminateAt(CLOUDLETS / CLOUDLETS_BY_BATCH * BATCH_INTERVAL + CLOUDLET_LENGTH / 100.0);
+        submitNextBatch(null);
+        simulation.start();
+
+        printResults(startSecs);
+    }
+
+    private void submitNextBatch(final EventInfo info) {
+        if (submittedCloudlets >= CLOUDLETS || simulation.clock() < nextBatchTime) {
+            return;
+        }
+
+        nextBatchTime += BATCH_INTERVAL;
+        final var utilizationRamBw = new UtilizationModelDynamic(0.001);
+        final List<Cloudlet> list = new ArrayList<>(CLOUDLETS_BY_BATCH);
+        for (int i = 0; i < CLOUDLETS_BY_BATCH; i++) {
+            final Cloudlet cloudlet =
+                new CloudletSimple(submittedCloudlets++, CLOUDLET_LENGTH, 1)
+                    .setUtilizationModelRam(utilizationRamBw)
+                    .setUtilizationModelBw(utilizationRamBw);
+            list.add(cloudlet);
+        }
+
+        broker.submitCloudletList(list);
+    }
+
+    private void printResults(final double startSecs) {
+        final double execTime = TimeUtil.elapsedSeconds(startSecs);
+        final var stats = broker.getFinishedCloudletsStats();
+        final String policyName =
+            policy.isKeepingAll() ? "ALL" : policy.maxFinishedCloudlets() == 0 ? "AGGREGATES" : "LAST " + policy.maxFinishedCloudlets();
+        System.out.printf(
+            "| %-16s | %9d | %9d | %9d | %9.2f s | $ %8.2f | %7.1f MB | %7.2f s |%n",
+            policyName, stats.getCloudlets(), broker.getCloudletFinishedList().size(),
+            broker.getSubmittedCloudletsNumber(), stats.getMeanExecTime(), stats.getTotalProcessingCost(),
+            usedHeapMegabytes(), execTime);
+    }
+
+    /**
+     * Gets the used heap (in Megabytes) after a garbage collection, while the simulation objects are still reachable.
+     * @return the used heap in Megabytes
+     */
+    private static double usedHeapMegabytes() {
+        final var runtime = Runtime.getRuntime();
+        System.gc();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024.0 / 1024.0;
+    }
+
+    private List<Host> createHosts() {
+        final List<Host> list = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            for (int pe = 0; pe < HOST_PES; pe++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            list.add(new HostSimple(20480, 100000, 1000000, peList));
+        }
+
+        return list;
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            final Vm vm = new VmSimple(i, 1000, VM_PES).setRam(512).setBw(1000).setSize(10000);
+            list.add(vm.setCloudletScheduler(new CloudletSchedulerSpaceShared()));
+        }
+
+        return list;
+    }
+}
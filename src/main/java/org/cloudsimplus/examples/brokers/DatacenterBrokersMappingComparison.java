@@ -26,7 +26,6 @@ package org.cloudsimplus.examples.brokers;
 import ch.qos.logback.classic.Level;
 import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.brokers.DatacenterBroker;
-import org.cloudbus.cloudsim.brokers.DatacenterBrokerBestFit;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerHeuristic;
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
@@ -51,6 +50,7 @@ import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.examples.heuristics.IncrementalCloudletToVmMappingSolution;
 import org.cloudsimplus.heuristics.CloudletToVmMappingHeuristic;
 import org.cloudsimplus.heuristics.CloudletToVmMappingSimulatedAnnealing;
 import org.cloudsimplus.heuristics.CloudletToVmMappingSolution;
@@ -59,6 +59,7 @@ import org.cloudsimplus.util.Log;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -120,7 +121,7 @@ public class DatacenterBrokersMappingComparison {
         // BestFit
         final CloudSim simulation1 = new CloudSim();
         final UniformDistr random1 = new UniformDistr(0, 1, seed);
-        final DatacenterBroker broker1 = new DatacenterBrokerBestFit(simulation1);
+        final DatacenterBroker broker1 = new DatacenterBrokerIndexedBestFit(simulation1);
         new DatacenterBrokersMappingComparison(broker1, random1, verbose);
 
         // Simple - RoundRobin
@@ -272,14 +273,15 @@ public class DatacenterBrokersMappingComparison {
         CloudletToVmMappingSimulatedAnnealing heuristic =
             new CloudletToVmMappingSimulatedAnnealing(SA_INITIAL_TEMPERATURE, random);
 
-        final CloudletToVmMappingSolution mappingSolution = new CloudletToVmMappingSolution(heuristic);
-        int i = 0;
+        final Map<Cloudlet, Vm> cloudletVmMap = new LinkedHashMap<>();
         for (Cloudlet c : cloudletList) {
             if (c.isBoundToVm()) {
-                mappingSolution.bindCloudletToVm(c, c.getVm());
+                cloudletVmMap.put(c, c.getVm());
             }
         }
 
+        final CloudletToVmMappingSolution mappingSolution = new IncrementalCloudletToVmMappingSolution(heuristic, vmList, cloudletVmMap);
+
         if (doPrint) {
             printSolution(
                 "Best fit solution used by DatacenterBrokerSimple class",
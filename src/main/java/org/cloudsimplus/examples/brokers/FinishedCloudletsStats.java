@@ -0,0 +1,160 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.vms.VmCost;
+
+/**
+ * Aggregates of finished Cloudlets, updated incrementally as each one finishes,
+ * so that they don't need to be kept in memory.
+ *
+ * @author Ishak Megatli
+ */
+public class FinishedCloudletsStats {
+    private long cloudlets;
+    private double totalWaitTime;
+    private double maxWaitTime;
+    private double totalExecTime;
+    private double maxExecTime;
+    private double lastFinishTime;
+    private double totalProcessingCost;
+
+    /**
+     * Adds a finished Cloudlet to the aggregates.
+     * @param cloudlet the finished Cloudlet
+     */
+    void add(final Cloudlet cloudlet) {
+        cloudlets++;
+        totalWaitTime += cloudlet.getWaitingTime();
+        maxWaitTime = Math.max(maxWaitTime, cloudlet.getWaitingTime());
+        totalExecTime += cloudlet.getActualCpuTime();
+        maxExecTime = Math.max(maxExecTime, cloudlet.getActualCpuTime());
+        lastFinishTime = Math.max(lastFinishTime, cloudlet.getFinishTime());
+        totalProcessingCost += processingCost(cloudlet);
+    }
+
+    /**
+     * Computes the processing cost of a Cloudlet the same way {@link VmCost#getProcessingCost()} does:
+     * the Datacenter cost per second divided by the Host MIPS (the cost by MI)
+     * multiplied by the MI executed by all Cloudlet PEs.
+     */
+    private static double processingCost(final Cloudlet cloudlet) {
+        final var host = cloudlet.getVm().getHost();
+        final double hostMips = host.getMips();
+        if (hostMips == 0) {
+            return 0;
+        }
+
+        final double costPerMI = host.getDatacenter().getCharacteristics().getCostPerSecond() / hostMips;
+        return costPerMI * cloudlet.getFinishedLengthSoFar() * cloudlet.getNumberOfPes();
+    }
+
+    /**
+     * Gets the number of finished Cloudlets.
+     * @return the number of finished Cloudlets
+     */
+    public long getCloudlets() {
+        return cloudlets;
+    }
+
+    /**
+     * Gets the total time (in seconds) finished Cloudlets waited to start.
+     * @return the total time (in seconds) finished Cloudlets waited to start
+     */
+    public double getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    /**
+     * Gets the mean time (in seconds) finished Cloudlets waited to start.
+     * @return the mean time (in seconds) finished Cloudlets waited to start
+     */
+    public double getMeanWaitTime() {
+        return cloudlets == 0 ? 0 : totalWaitTime / cloudlets;
+    }
+
+    /**
+     * Gets the max time (in seconds) a finished Cloudlet waited to start.
+     * @return the max time (in seconds) a finished Cloudlet waited to start
+     */
+    public double getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    /**
+     * Gets the total execution time (in seconds) of finished Cloudlets.
+     * @return the total execution time (in seconds) of finished Cloudlets
+     */
+    public double getTotalExecTime() {
+        return totalExecTime;
+    }
+
+    /**
+     * Gets the mean execution time (in seconds) of finished Cloudlets.
+     * @return the mean execution time (in seconds) of finished Cloudlets
+     */
+    public double getMeanExecTime() {
+        return cloudlets == 0 ? 0 : totalExecTime / cloudlets;
+    }
+
+    /**
+     * Gets the max execution time (in seconds) of a finished Cloudlet.
+     * @return the max execution time (in seconds) of a finished Cloudlet
+     */
+    public double getMaxExecTime() {
+        return maxExecTime;
+    }
+
+    /**
+     * Gets the time the last Cloudlet finished.
+     * @return the time the last Cloudlet finished
+     */
+    public double getLastFinishTime() {
+        return lastFinishTime;
+    }
+
+    /**
+     * Gets the total processing cost of finished Cloudlets.
+     * @return the total processing cost of finished Cloudlets
+     * @see #processingCost(Cloudlet)
+     */
+    public double getTotalProcessingCost() {
+        return totalProcessingCost;
+    }
+
+    /**
+     * Gets the mean processing cost of finished Cloudlets.
+     * @return the mean processing cost of finished Cloudlets
+     */
+    public double getMeanProcessingCost() {
+        return cloudlets == 0 ? 0 : totalProcessingCost / cloudlets;
+    }
+
+    @Override
+    public String toString() {
+        return "Finished Cloudlets: %d | Mean wait time: %.2f s | Mean exec time: %.2f s | Total processing cost: $ %.2f"
+            .formatted(cloudlets, getMeanWaitTime(), getMeanExecTime(), totalProcessingCost);
+    }
+}
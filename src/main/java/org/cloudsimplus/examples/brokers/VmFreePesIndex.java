@@ -0,0 +1,143 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of VMs by their {@link Vm#getExpectedFreePesNumber() expected number of free PEs},
+ * which keeps one bucket for each number of free PEs.
+ * Each bucket is a {@link BitSet} of the positions VMs were added to the index,
+ * so that the VM with the fewest free PEs that fits a Cloudlet is found
+ * by checking at most one bucket for each possible number of PEs,
+ * instead of every VM.
+ * Ties are broken by the order VMs were added, as a linear scan would do.
+ *
+ * <p>The index must be {@link #update(Vm) updated} every time
+ * the expected number of free PEs of a VM changes.
+ * VMs without free PEs are not kept into any bucket.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class VmFreePesIndex {
+    private final List<Vm> vmList;
+    private final Map<Vm, Integer> vmIndexes;
+
+    /** The bucket where each VM is (0 if the VM has no free PEs). */
+    private int[] vmBuckets;
+
+    /** Buckets by number of free PEs, where buckets[0] is always empty. */
+    private BitSet[] buckets;
+
+    /**
+     * Creates an empty index.
+     */
+    public VmFreePesIndex() {
+        this.vmList = new ArrayList<>();
+        this.vmIndexes = new IdentityHashMap<>();
+        this.vmBuckets = new int[16];
+        this.buckets = new BitSet[1];
+        this.buckets[0] = new BitSet();
+    }
+
+    /**
+     * Gets the number of indexed VMs.
+     * @return the number of indexed VMs
+     */
+    public int size() {
+        return vmList.size();
+    }
+
+    /**
+     * Adds a VM to the index (if it's not indexed yet).
+     * @param vm the VM to add
+     */
+    public void add(final Vm vm) {
+        if (vmIndexes.containsKey(vm)) {
+            return;
+        }
+
+        final int i = vmList.size();
+        vmList.add(vm);
+        vmIndexes.put(vm, i);
+        if (i == vmBuckets.length) {
+            vmBuckets = Arrays.copyOf(vmBuckets, i * 2);
+        }
+
+        setBucket(i, vm);
+    }
+
+    /**
+     * Updates the index for a VM whose expected number of free PEs has changed.
+     * @param vm the VM to update (VMs which are not indexed are ignored)
+     */
+    public void update(final Vm vm) {
+        final Integer i = vmIndexes.get(vm);
+        if (i == null) {
+            return;
+        }
+
+        buckets[vmBuckets[i]].clear(i);
+        setBucket(i, vm);
+    }
+
+    private void setBucket(final int i, final Vm vm) {
+        final int bucket = (int) Math.max(vm.getExpectedFreePesNumber(), 0);
+        if (bucket >= buckets.length) {
+            final int previousLength = buckets.length;
+            buckets = Arrays.copyOf(buckets, bucket + 1);
+            for (int pes = previousLength; pes < buckets.length; pes++) {
+                buckets[pes] = new BitSet();
+            }
+        }
+
+        vmBuckets[i] = bucket;
+        if (bucket > 0) {
+            buckets[bucket].set(i);
+        }
+    }
+
+    /**
+     * Finds the VM with the fewest expected free PEs that still has a given number of free PEs.
+     * @param pes the number of PEs required
+     * @return the first VM added to the index having such a number of free PEs or {@link Vm#NULL} if there is none
+     */
+    public Vm findBestFit(final long pes) {
+        for (int bucket = (int) Math.max(pes, 1); bucket < buckets.length; bucket++) {
+            final int i = buckets[bucket].nextSetBit(0);
+            if (i >= 0) {
+                return vmList.get(i);
+            }
+        }
+
+        return Vm.NULL;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An indexed binary min-heap of VMs by load,
+ * which gives the least loaded VM in constant time
+ * and updates the load of a VM in O(log V).
+ * The position of each VM into the heap is kept,
+ * so that a VM whose load has changed is moved up or down from where it is,
+ * instead of being searched for.
+ * Ties are broken by the order VMs were added.
+ *
+ * @author Ishak Megatli
+ */
+public class VmLoadHeap {
+    private final List<Vm> vmList;
+    private final Map<Vm, Integer> vmIndexes;
+
+    /** The load of each VM, by the order VMs were added. */
+    private double[] loads;
+
+    /** The heap position of each VM, by the order VMs were added (-1 if the VM was removed). */
+    private int[] positions;
+
+    /** The VMs (by the order they were added) into heap order. */
+    private int[] heap;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     */
+    public VmLoadHeap() {
+        this.vmList = new ArrayList<>();
+        this.vmIndexes = new IdentityHashMap<>();
+        this.loads = new double[16];
+        this.positions = new int[16];
+        this.heap = new int[16];
+    }
+
+    /**
+     * Gets the number of VMs into the heap.
+     * @return the number of VMs into the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap has no VMs.
+     * @return true if the heap has no VMs, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if a VM was ever added to the heap (even if it was removed afterwards).
+     * @param vm the VM to check
+     * @return true if the VM was added, false otherwise
+     */
+    public boolean isIndexed(final Vm vm) {
+        return vmIndexes.containsKey(vm);
+    }
+
+    /**
+     * Adds a VM to the heap (if it was never added).
+     * @param vm the VM to add
+     * @param load the VM load
+     */
+    public void add(final Vm vm, final double load) {
+        if (vmIndexes.containsKey(vm)) {
+            return;
+        }
+
+        final int i = vmList.size();
+        vmList.add(vm);
+        vmIndexes.put(vm, i);
+        if (i == loads.length) {
+            loads = Arrays.copyOf(loads, i * 2);
+            positions = Arrays.copyOf(positions, i * 2);
+            heap = Arrays.copyOf(heap, i * 2);
+        }
+
+        loads[i] = load;
+        heap[size] = i;
+        positions[i] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Updates the load of a VM.
+     * @param vm the VM to update (VMs which are not into the heap are ignored)
+     * @param load the new VM load
+     */
+    public void update(final Vm vm, final double load) {
+        final Integer i = vmIndexes.get(vm);
+        if (i == null || positions[i] < 0) {
+            return;
+        }
+
+        final double previous = loads[i];
+        loads[i] = load;
+        if (load < previous) {
+            siftUp(positions[i]);
+        } else {
+            siftDown(positions[i]);
+        }
+    }
+
+    /**
+     * Removes a VM from the heap, so that it's not selected anymore.
+     * @param vm the VM to remove (VMs which are not into the heap are ignored)
+     */
+    public void remove(final Vm vm) {
+        final Integer i = vmIndexes.get(vm);
+        if (i == null || positions[i] < 0) {
+            return;
+        }
+
+        final int position = positions[i];
+        positions[i] = -1;
+        if (position == --size) {
+            return;
+        }
+
+        final int last = heap[size];
+        move(last, position);
+        siftUp(position);
+        if (positions[last] == position) {
+            siftDown(position);
+        }
+    }
+
+    /**
+     * Gets the least loaded VM or {@link Vm#NULL} if the heap is empty.
+     * @return the least loaded VM or {@link Vm#NULL} if the heap is empty
+     */
+    public Vm peek() {
+        return size == 0 ? Vm.NULL : vmList.get(heap[0]);
+    }
+
+    /**
+     * Gets the last load set for a VM.
+     * @param vm the VM to get the load
+     * @return the VM load or {@link Double#NaN} if the VM was never added
+     */
+    public double getLoad(final Vm vm) {
+        final Integer i = vmIndexes.get(vm);
+        return i == null ? Double.NaN : loads[i];
+    }
+
+    private void siftUp(int position) {
+        final int vm = heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (!isLess(vm, heap[parent])) {
+                break;
+            }
+
+            move(heap[parent], position);
+            position = parent;
+        }
+
+        move(vm, position);
+    }
+
+    private void siftDown(int position) {
+        final int vm = heap[position];
+        while (true) {
+            int child = position * 2 + 1;
+            if (child >= size) {
+                break;
+            }
+
+            if (child + 1 < size && isLess(heap[child + 1], heap[child])) {
+                child++;
+            }
+
+            if (!isLess(heap[child], vm)) {
+                break;
+            }
+
+            move(heap[child], position);
+            position = child;
+        }
+
+        move(vm, position);
+    }
+
+    private void move(final int vm, final int position) {
+        heap[position] = vm;
+        positions[vm] = position;
+    }
+
+    private boolean isLess(final int vm1, final int vm2) {
+        final int comparison = Double.compare(loads[vm1], loads[vm2]);
+        return comparison < 0 || (comparison == 0 && vm1 < vm2);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.brokers;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Notifies a broker about changes in the VMs it maps Cloudlets to,
+ * so that the broker can keep an index of VMs (such as a {@link VmFreePesIndex} or a {@link VmLoadHeap})
+ * updated without checking every VM at each mapping.
+ * It notifies when a VM is created, when a Cloudlet is sent to the VM it was mapped to,
+ * and when a Cloudlet returns to the broker.
+ *
+ * <p>The broker's Cloudlet mapper can't update the VM it returns,
+ * since the Cloudlet is just sent to the VM (and the VM
+ * {@link Vm#getExpectedFreePesNumber() expected number of free PEs} changed) after the mapper returns.
+ * Therefore, the mapper must record each mapping by calling {@link #mapped(Cloudlet, Vm)},
+ * which is notified only when {@link #update()} is called.
+ * That must happen before the next Cloudlet is mapped and after the broker processes each event,
+ * by calling {@link #update()} at the beginning of the mapper and
+ * {@link #processEvent(SimEvent)} at the end of the broker's processEvent method.</p>
+ *
+ * @author Ishak Megatli
+ */
+public final class VmMappingTracker {
+    private final DatacenterBroker broker;
+    private final Consumer<Vm> vmCreatedListener;
+    private final BiConsumer<Cloudlet, Vm> cloudletSentListener;
+    private final Consumer<Cloudlet> cloudletReturnedListener;
+
+    /** The number of VMs from the broker's created list that were already notified. */
+    private int createdVms;
+    private Cloudlet lastMappedCloudlet;
+    private Vm lastMappedVm;
+
+    /**
+     * Creates a tracker for the VMs of a broker.
+     * @param broker the broker to track
+     * @param vmCreatedListener called for each VM added to the broker's created list
+     * @param cloudletSentListener called with a Cloudlet and the VM it was sent to, after it was mapped
+     * @param cloudletReturnedListener called for each Cloudlet returned to the broker
+     */
+    public VmMappingTracker(
+        final DatacenterBroker broker, final Consumer<Vm> vmCreatedListener,
+        final BiConsumer<Cloudlet, Vm> cloudletSentListener, final Consumer<Cloudlet> cloudletReturnedListener)
+    {
+        this.broker = Objects.requireNonNull(broker);
+        this.vmCreatedListener = Objects.requireNonNull(vmCreatedListener);
+        this.cloudletSentListener = Objects.requireNonNull(cloudletSentListener);
+        this.cloudletReturnedListener = Objects.requireNonNull(cloudletReturnedListener);
+        this.lastMappedCloudlet = Cloudlet.NULL;
+        this.lastMappedVm = Vm.NULL;
+    }
+
+    /**
+     * Notifies the VMs created since the last update
+     * and the VM the last mapped Cloudlet was sent to (if it was actually sent).
+     */
+    public void update() {
+        final List<Vm> createdList = broker.getVmCreatedList();
+        for (; createdVms < createdList.size(); createdVms++) {
+            vmCreatedListener.accept(createdList.get(createdVms));
+        }
+
+        final Cloudlet cloudlet = lastMappedCloudlet;
+        final Vm vm = lastMappedVm;
+        lastMappedCloudlet = Cloudlet.NULL;
+        lastMappedVm = Vm.NULL;
+        if (vm != Vm.NULL && cloudlet.getVm() == vm) {
+            cloudletSentListener.accept(cloudlet, vm);
+        }
+    }
+
+    /**
+     * Records the VM a Cloudlet was mapped to, to be notified at the next {@link #update()}.
+     * @param cloudlet the mapped Cloudlet
+     * @param vm the VM selected for the Cloudlet (which may be {@link Vm#NULL})
+     * @return the given VM
+     */
+    public Vm mapped(final Cloudlet cloudlet, final Vm vm) {
+        this.lastMappedCloudlet = cloudlet;
+        this.lastMappedVm = vm;
+        return vm;
+    }
+
+    /**
+     * Updates the tracker after the broker processed an event,
+     * notifying the Cloudlet returned to the broker, if that is the event.
+     * @param evt the event processed by the broker
+     */
+    public void processEvent(final SimEvent evt) {
+        update();
+        if (evt.getTag() == CloudSimTag.CLOUDLET_RETURN && evt.getData() instanceof Cloudlet cloudlet) {
+            cloudletReturnedListener.accept(cloudlet);
+        }
+    }
+}
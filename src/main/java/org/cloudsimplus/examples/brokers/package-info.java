@@ -10,6 +10,16 @@
  * and other example showing how to dynamically change the policy used
  * to map Cloudlets to VMs without requiring to subclass the
  * {@link org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple}.
+ * The {@link org.cloudsimplus.examples.brokers.DatacenterBrokerRetention}
+ * drops finished Cloudlets according to a
+ * {@link org.cloudsimplus.examples.brokers.CloudletRetentionPolicy},
+ * keeping just aggregated statistics for long-running simulations.
+ * The {@link org.cloudsimplus.examples.brokers.DatacenterBrokerIndexedBestFit}
+ * maps Cloudlets as the {@link org.cloudbus.cloudsim.brokers.DatacenterBrokerBestFit},
+ * using a {@link org.cloudsimplus.examples.brokers.VmFreePesIndex} instead of checking every VM.
+ * The {@link org.cloudsimplus.examples.brokers.DatacenterBrokerLeastLoaded}
+ * maps each Cloudlet to the least loaded VM, kept into a
+ * {@link org.cloudsimplus.examples.brokers.VmLoadHeap}.
  * </p>
  *
  * @author Manoel Campos da Silva Filho
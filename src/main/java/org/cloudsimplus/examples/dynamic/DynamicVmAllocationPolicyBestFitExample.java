@@ -175,6 +175,7 @@ public final class DynamicVmAllocationPolicyBestFitExample {
      * @param vm the VM to find a host to
      * @return an {@link Optional<Host>} which may contain a Host or an empty Optional if no suitable Host was found
      * @see #createDatacenter()
+     * @see org.cloudsimplus.examples.allocationpolicies.VmAllocationPolicySortedBestFit for a Best Fit policy that doesn't scan the whole Host list
      */
     private Optional<Host> bestFitHostSelectionPolicy(VmAllocationPolicy allocationPolicy, Vm vm) {
         return allocationPolicy
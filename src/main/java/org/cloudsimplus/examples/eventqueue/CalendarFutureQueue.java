@@ -0,0 +1,509 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.eventqueue;
+
+import org.cloudbus.cloudsim.core.events.FutureQueue;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link FutureQueue} implemented as a calendar queue,
+ * which provides amortized O(1) insertion and removal of the first event,
+ * instead of the O(log n) of the default {@link java.util.TreeSet}-based queue.
+ *
+ * <p>Events are hashed into an array of buckets (the days of a calendar year)
+ * according to their time. Each bucket keeps its events sorted
+ * in the same order defined by {@link SimEvent#compareTo(SimEvent)}
+ * (time, tag and serial), so that events happening at the same time
+ * are dequeued in exactly the same order as in the default queue.
+ * Serial numbers are assigned just like {@link FutureQueue} does.
+ * The number of buckets doubles or halves as the queue grows or shrinks,
+ * and the bucket width is recomputed from the average time separation
+ * between the next events, as proposed by
+ * <a href="https://doi.org/10.1145/63039.63045">Brown (1988)</a>.</p>
+ *
+ * <p>Iterating over or streaming the queue returns the events in order,
+ * but requires sorting a snapshot of them.
+ * That is just used when searching for or canceling events,
+ * which are not frequent operations.</p>
+ *
+ * @author Ishak Megatli
+ * @see CloudSimPluggableQueue
+ */
+public class CalendarFutureQueue extends FutureQueue {
+    private static final int MIN_BUCKETS = 16;
+
+    /**
+     * Number of distinct event times sampled to compute the bucket width.
+     */
+    private static final int WIDTH_SAMPLE_SIZE = 25;
+
+    private Bucket[] buckets;
+    private int mask;
+    private double width = 1;
+    private int size;
+
+    /**
+     * The virtual bucket (the number of bucket widths since time zero)
+     * where the search for the first event starts.
+     * No event in the queue has a virtual bucket lower than this one.
+     */
+    private long currentVirtualBucket;
+
+    /**
+     * The first event in the queue, found by the last call to {@link #first()},
+     * or null if it has to be searched again.
+     */
+    private SimEvent first;
+
+    private long serial;
+    private long lowestSerial;
+    private long maxEventsNumber;
+
+    public CalendarFutureQueue() {
+        super();
+        this.buckets = newBuckets(MIN_BUCKETS);
+        this.mask = MIN_BUCKETS - 1;
+    }
+
+    private static Bucket[] newBuckets(final int count) {
+        final var newBuckets = new Bucket[count];
+        for (int i = 0; i < count; i++) {
+            newBuckets[i] = new Bucket();
+        }
+
+        return newBuckets;
+    }
+
+    @Override
+    public void addEvent(final SimEvent newEvent) {
+        newEvent.setSerial(serial++);
+        insert(newEvent);
+        maxEventsNumber = Math.max(maxEventsNumber, size);
+    }
+
+    @Override
+    public void addEventFirst(final SimEvent newEvent) {
+        newEvent.setSerial(--lowestSerial);
+        insert(newEvent);
+    }
+
+    private void insert(final SimEvent evt) {
+        final long virtualBucket = virtualBucket(evt.getTime());
+        bucket(virtualBucket).add(evt);
+        size++;
+
+        if (virtualBucket < currentVirtualBucket) {
+            currentVirtualBucket = virtualBucket;
+        }
+
+        if (first != null && evt.compareTo(first) < 0) {
+            first = null;
+        }
+
+        if (size > buckets.length * 2) {
+            resize(buckets.length * 2);
+        }
+    }
+
+    @Override
+    public SimEvent first() throws NoSuchElementException {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        if (first == null) {
+            first = findFirst();
+        }
+
+        return first;
+    }
+
+    /**
+     * Searches the first event, scanning the buckets from {@link #currentVirtualBucket}
+     * up to a full calendar year.
+     * If the event isn't found in that year, performs a direct search
+     * on the first event of every bucket.
+     * @return the first event
+     */
+    private SimEvent findFirst() {
+        for (int i = 0; i < buckets.length; i++, currentVirtualBucket++) {
+            final Bucket bucket = bucket(currentVirtualBucket);
+            if (!bucket.isEmpty() && virtualBucket(bucket.first().getTime()) <= currentVirtualBucket) {
+                return bucket.first();
+            }
+        }
+
+        SimEvent min = null;
+        for (final Bucket bucket : buckets) {
+            if (!bucket.isEmpty() && (min == null || bucket.first().compareTo(min) < 0)) {
+                min = bucket.first();
+            }
+        }
+
+        currentVirtualBucket = virtualBucket(min.getTime());
+        return min;
+    }
+
+    @Override
+    public boolean remove(final SimEvent event) {
+        if (size == 0 || event == null || event == SimEvent.NULL) {
+            return false;
+        }
+
+        final Bucket bucket = bucket(virtualBucket(event.getTime()));
+        if (event == first) {
+            bucket.removeFirst();
+            first = null;
+        } else if (!bucket.remove(event)) {
+            return false;
+        }
+
+        size--;
+        if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+            resize(buckets.length / 2);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<SimEvent> events) {
+        boolean removed = false;
+        for (final SimEvent evt : events) {
+            removed |= remove(evt);
+        }
+
+        return removed;
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<SimEvent> predicate) {
+        int removed = 0;
+        for (final Bucket bucket : buckets) {
+            removed += bucket.removeIf(predicate);
+        }
+
+        if (removed == 0) {
+            return false;
+        }
+
+        size -= removed;
+        first = null;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (final Bucket bucket : buckets) {
+            bucket.clear();
+        }
+
+        size = 0;
+        first = null;
+        currentVirtualBucket = 0;
+    }
+
+    @Override
+    public Iterator<SimEvent> iterator() {
+        return Arrays.asList(sortedEvents()).iterator();
+    }
+
+    @Override
+    public Stream<SimEvent> stream() {
+        return Arrays.stream(sortedEvents());
+    }
+
+    /**
+     * Creates a new array with all events in the queue, in the order they will be processed.
+     * @return a new array with all events in the queue, in the order they will be processed
+     */
+    private SimEvent[] sortedEvents() {
+        final SimEvent[] events = new SimEvent[size];
+        int count = 0;
+        for (final Bucket bucket : buckets) {
+            count = bucket.copyTo(events, count);
+        }
+
+        Arrays.sort(events);
+        return events;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSerial() {
+        return serial;
+    }
+
+    @Override
+    public long getMaxEventsNumber() {
+        return maxEventsNumber;
+    }
+
+    /**
+     * Computes the number of bucket widths from time zero to a given time.
+     * @param time the time to get its virtual bucket
+     * @return the number of bucket widths from time zero to a given time
+     */
+    private long virtualBucket(final double time) {
+        return (long)(time / width);
+    }
+
+    private Bucket bucket(final long virtualBucket) {
+        return buckets[(int)(virtualBucket & mask)];
+    }
+
+    /**
+     * Changes the number of buckets, recomputing the bucket width
+     * and redistributing all events.
+     * @param newBucketsNumber the new number of buckets (a power of 2)
+     */
+    private void resize(final int newBucketsNumber) {
+        final SimEvent[] events = new SimEvent[size];
+        int count = 0;
+        for (final Bucket bucket : buckets) {
+            count = bucket.copyTo(events, count);
+        }
+
+        width = computeWidth(events);
+        buckets = newBuckets(newBucketsNumber);
+        mask = newBucketsNumber - 1;
+        currentVirtualBucket = Long.MAX_VALUE;
+        for (final SimEvent evt : events) {
+            final long virtualBucket = virtualBucket(evt.getTime());
+            bucket(virtualBucket).append(evt);
+            currentVirtualBucket = Math.min(currentVirtualBucket, virtualBucket);
+        }
+
+        for (final Bucket bucket : buckets) {
+            bucket.sort();
+        }
+
+        if (size == 0) {
+            currentVirtualBucket = 0;
+        }
+
+        first = null;
+    }
+
+    /**
+     * Computes the bucket width as 3 times the average separation between
+     * the first {@link #WIDTH_SAMPLE_SIZE} distinct event times,
+     * ignoring separations larger than twice the average.
+     * @param events the events in the queue
+     * @return the new bucket width, or the current one if it cannot be computed
+     */
+    private double computeWidth(final SimEvent[] events) {
+        final double[] times = new double[WIDTH_SAMPLE_SIZE];
+        int count = 0;
+        for (final SimEvent evt : events) {
+            count = addSampleTime(times, count, evt.getTime());
+        }
+
+        if (count < 2) {
+            return width;
+        }
+
+        final double average = (times[count - 1] - times[0]) / (count - 1);
+        double sum = 0;
+        int separations = 0;
+        for (int i = 1; i < count; i++) {
+            final double separation = times[i] - times[i - 1];
+            if (separation <= average * 2) {
+                sum += separation;
+                separations++;
+            }
+        }
+
+        final double newWidth = 3 * sum / separations;
+        return newWidth > 0 && Double.isFinite(newWidth) ? newWidth : width;
+    }
+
+    /**
+     * Adds a time to a sorted array with the lowest distinct times found so far.
+     * @param times the array of the lowest times
+     * @param count the number of times in the array
+     * @param time the time to add
+     * @return the new number of times in the array
+     */
+    private static int addSampleTime(final double[] times, final int count, final double time) {
+        if (count == times.length && time >= times[count - 1]) {
+            return count;
+        }
+
+        int pos = Arrays.binarySearch(times, 0, count, time);
+        if (pos >= 0) {
+            return count;
+        }
+
+        pos = -pos - 1;
+        final int moved = Math.min(count, times.length - 1) - pos;
+        System.arraycopy(times, pos, times, pos + 1, moved);
+        times[pos] = time;
+        return Math.min(count + 1, times.length);
+    }
+
+    /**
+     * A calendar day, keeping its events sorted into
+     * the {@code [head, tail)} region of an array.
+     * Removing the first event just moves the head forward.
+     */
+    private static final class Bucket {
+        private static final SimEvent[] EMPTY = new SimEvent[0];
+
+        private SimEvent[] events = EMPTY;
+        private int head;
+        private int tail;
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        SimEvent first() {
+            return events[head];
+        }
+
+        void removeFirst() {
+            events[head++] = null;
+            if (head == tail) {
+                head = tail = 0;
+            }
+        }
+
+        /**
+         * Inserts an event keeping the bucket sorted.
+         * Events added in increasing order (the usual case) are just appended.
+         */
+        void add(final SimEvent evt) {
+            if (isEmpty() || evt.compareTo(events[tail - 1]) > 0) {
+                append(evt);
+                return;
+            }
+
+            final int pos = -Arrays.binarySearch(events, head, tail, evt) - 1;
+            if (head > 0 && pos - head < tail - pos) {
+                System.arraycopy(events, head, events, head - 1, pos - head);
+                head--;
+                events[pos - 1] = evt;
+                return;
+            }
+
+            final int offset = pos - head;
+            ensureCapacity();
+            final int newPos = head + offset;
+            System.arraycopy(events, newPos, events, newPos + 1, tail - newPos);
+            events[newPos] = evt;
+            tail++;
+        }
+
+        /**
+         * Appends an event without keeping the bucket sorted.
+         */
+        void append(final SimEvent evt) {
+            ensureCapacity();
+            events[tail++] = evt;
+        }
+
+        private void ensureCapacity() {
+            if (tail < events.length) {
+                return;
+            }
+
+            final int count = tail - head;
+            if (head > 0 && count < events.length / 2) {
+                System.arraycopy(events, head, events, 0, count);
+                Arrays.fill(events, count, tail, null);
+            } else {
+                events = Arrays.copyOfRange(events, head, Math.max(4, events.length * 2));
+            }
+
+            head = 0;
+            tail = count;
+        }
+
+        boolean remove(final SimEvent evt) {
+            final int pos = Arrays.binarySearch(events, head, tail, evt);
+            if (pos < 0) {
+                return false;
+            }
+
+            if (pos == head) {
+                removeFirst();
+                return true;
+            }
+
+            System.arraycopy(events, pos + 1, events, pos, tail - pos - 1);
+            events[--tail] = null;
+            return true;
+        }
+
+        int removeIf(final Predicate<SimEvent> predicate) {
+            int kept = head;
+            for (int i = head; i < tail; i++) {
+                if (!predicate.test(events[i])) {
+                    events[kept++] = events[i];
+                }
+            }
+
+            final int removed = tail - kept;
+            Arrays.fill(events, kept, tail, null);
+            tail = kept;
+            if (head == tail) {
+                head = tail = 0;
+            }
+
+            return removed;
+        }
+
+        void sort() {
+            Arrays.sort(events, head, tail);
+        }
+
+        int copyTo(final SimEvent[] dest, final int destPos) {
+            final int count = tail - head;
+            System.arraycopy(events, head, dest, destPos, count);
+            return destPos + count;
+        }
+
+        void clear() {
+            Arrays.fill(events, head, tail, null);
+            head = tail = 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.eventqueue;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.events.FutureQueue;
+
+import java.util.Objects;
+
+/**
+ * A {@link CloudSim} simulation which enables choosing, at instantiation time,
+ * the {@link FutureQueue} that holds all scheduled events,
+ * such as a {@link CalendarFutureQueue}.
+ *
+ * <p>{@link CloudSim} creates its future queue internally and keeps it into a private field,
+ * which this class replaces through {@link FutureQueues} right after the superclass is constructed
+ * (when no event was scheduled yet).
+ * Since {@link FutureQueue} is a class, the given queue must extend it
+ * and override all of its public methods.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class CloudSimPluggableQueue extends CloudSim {
+    private final FutureQueue futureQueue;
+
+    /**
+     * Creates a simulation using a given future event queue.
+     * @param futureQueue the queue to hold events scheduled for the future
+     */
+    public CloudSimPluggableQueue(final FutureQueue futureQueue) {
+        this(0.1, futureQueue);
+    }
+
+    /**
+     * Creates a simulation using a given future event queue.
+     * @param minTimeBetweenEvents the minimal period between events
+     * @param futureQueue the queue to hold events scheduled for the future
+     * @see CloudSim#CloudSim(double)
+     */
+    public CloudSimPluggableQueue(final double minTimeBetweenEvents, final FutureQueue futureQueue) {
+        super(minTimeBetweenEvents);
+        this.futureQueue = Objects.requireNonNull(futureQueue);
+        if(!futureQueue.isEmpty()){
+            throw new IllegalArgumentException("The future event queue must be empty.");
+        }
+
+        FutureQueues.replace(this, current -> futureQueue);
+    }
+
+    /**
+     * Gets the queue holding events scheduled for the future.
+     * @return the queue holding events scheduled for the future
+     */
+    public FutureQueue getFutureQueue() {
+        return futureQueue;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.eventqueue;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.examples.performance.HostSkippingIdleVms;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * An example showing how a {@link CoalescingFutureQueue} and {@link HostSkippingIdleVms}
+ * reduce the number of processed events in a long, mostly idle simulation
+ * using a Datacenter scheduling interval of 1 second
+ * (as in the autoscaling, migration and power examples).
+ * Cloudlets arrive in small bursts every {@link #BURST_INTERVAL} seconds,
+ * so VMs are idle most of the time.
+ *
+ * <p>The same scenario is executed with the default queue and Hosts,
+ * then with the coalescing queue and Hosts that skip idle VMs,
+ * showing the events processed and execution time of each run.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class CoalescedUpdatesExample {
+    private static final int HOSTS = 100;
+    private static final int HOST_PES = 8;
+
+    private static final int VMS = 400;
+    private static final int VM_PES = 2;
+
+    private static final int BURSTS = 20;
+    private static final int CLOUDLETS_BY_BURST = 100;
+    private static final int BURST_INTERVAL = 600;
+    private static final int CLOUDLET_LENGTH = 60_000;
+
+    private static final int SCHEDULING_INTERVAL = 1;
+
+    private final boolean coalescing;
+    private long processedEvents;
+
+    public static void main(String[] args) {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf("| %-10s | %16s | %16s | %13s | %12s | %10s |%n", "Run", "Generated events", "Processed events", "Merged events", "Skipped VMs", "Exec time");
+        final List<Cloudlet> regular = new CoalescedUpdatesExample(false).run();
+        final List<Cloudlet> coalesced = new CoalescedUpdatesExample(true).run();
+        System.out.printf("%nSame Cloudlet finish times in both runs: %s%n", sameFinishTimes(regular, coalesced));
+    }
+
+    private CoalescedUpdatesExample(final boolean coalescing) {
+        this.coalescing = coalescing;
+    }
+
+    private List<Cloudlet> run() {
+        final double startSecs = TimeUtil.currentTimeSecs();
+        final var queue = new CoalescingFutureQueue(new CalendarFutureQueue());
+        final CloudSim simulation = coalescing ? new CloudSimPluggableQueue(queue) : new CloudSim();
+        simulation.addOnEventProcessingListener(evt -> processedEvents++);
+
+        final List<Host> hostList = createHosts();
+        new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple()).setSchedulingInterval(SCHEDULING_INTERVAL);
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        broker.submitVmList(createVms());
+        broker.submitCloudletList(createCloudlets());
+
+        simulation.start();
+
+        final long skippedVms = hostList.stream()
+                                        .filter(host -> host instanceof HostSkippingIdleVms)
+                                        .mapToLong(host -> ((HostSkippingIdleVms)host).getSkippedVmUpdates())
+                                        .sum();
+        System.out.printf(
+            "| %-10s | %16d | %16d | %13d | %12d | %8.2f s |%n",
+            coalescing ? "Coalescing" : "Regular", simulation.getGeneratedEventsNumber(), processedEvents,
+            queue.getCoalescedEvents(), skippedVms, TimeUtil.elapsedSeconds(startSecs));
+        return broker.getCloudletFinishedList();
+    }
+
+    private static boolean sameFinishTimes(final List<Cloudlet> list1, final List<Cloudlet> list2) {
+        if (list1.size() != list2.size()) {
+            return false;
+        }
+
+        return IntStream.range(0, list1.size())
+                        .allMatch(i -> list1.get(i).getId() == list2.get(i).getId() &&
+                                       list1.get(i).getFinishTime() == list2.get(i).getFinishTime());
+    }
+
+    private List<Host> createHosts() {
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            IntStream.range(0, HOST_PES).forEach(pe -> peList.add(new PeSimple(1000)));
+
+            final long ram = 20480; //in Megabytes
+            final long bw = 100000; //in Megabits/s
+            final long storage = 1000000; //in Megabytes
+            hostList.add(coalescing ? new HostSkippingIdleVms(ram, bw, storage, peList) : new HostSimple(ram, bw, storage, peList));
+        }
+
+        return hostList;
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            list.add(new VmSimple(i, 1000, VM_PES).setRam(512).setBw(1000).setSize(10000));
+        }
+
+        return list;
+    }
+
+    /**
+     * Creates Cloudlets arriving in bursts, each one with a random fraction of the {@link #CLOUDLET_LENGTH}.
+     */
+    private List<Cloudlet> createCloudlets() {
+        final List<Cloudlet> list = new ArrayList<>(BURSTS * CLOUDLETS_BY_BURST);
+        final var utilizationRamBw = new UtilizationModelDynamic(0.1);
+        for (int burst = 0; burst < BURSTS; burst++) {
+            for (int i = 0; i < CLOUDLETS_BY_BURST; i++) {
+                final int id = burst * CLOUDLETS_BY_BURST + i;
+                final long length = CLOUDLET_LENGTH / (1 + id % 5);
+                final Cloudlet cloudlet =
+                    new CloudletSimple(id, length, VM_PES)
+                        .setUtilizationModelBw(utilizationRamBw)
+                        .setUtilizationModelRam(utilizationRamBw)
+                        .setSizes(1024);
+                cloudlet.setSubmissionDelay(burst * BURST_INTERVAL);
+                list.add(cloudlet);
+            }
+        }
+
+        return list;
+    }
+}
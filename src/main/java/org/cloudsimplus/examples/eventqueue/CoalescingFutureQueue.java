@@ -0,0 +1,198 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.eventqueue;
+
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.events.FutureQueue;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link FutureQueue} decorator that merges repeated
+ * {@link CloudSimTag#VM_UPDATE_CLOUDLET_PROCESSING} events
+ * sent to the same entity for the same time, keeping just the first one.
+ *
+ * <p>Every Cloudlet submission, every Datacenter scheduling interval and every VM idleness
+ * verification requested by brokers schedule such an update event,
+ * so many identical ones usually pile up for the same time.
+ * Since a Datacenter updates Cloudlets processing just once
+ * for a given time (see {@link org.cloudbus.cloudsim.datacenters.DatacenterSimple#getLastProcessTime()}),
+ * the repeated events are processed with no effect.
+ * Merging them in the queue avoids inserting, sorting and processing such events.
+ * Only events without data are merged.</p>
+ *
+ * <p>It can wrap any {@link FutureQueue}, such as the default one
+ * or a {@link CalendarFutureQueue}, and should be given to a {@link CloudSimPluggableQueue}.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class CoalescingFutureQueue extends FutureQueue {
+    /**
+     * Identifies update events pending for a given entity at a given time.
+     */
+    private record PendingUpdate(SimEntity destination, double time) { }
+
+    private final FutureQueue queue;
+    private final Set<PendingUpdate> pendingUpdates = new HashSet<>();
+    private long coalescedEvents;
+
+    /**
+     * Creates a coalescing queue that stores events into the default {@link FutureQueue}.
+     */
+    public CoalescingFutureQueue() {
+        this(new FutureQueue());
+    }
+
+    /**
+     * Creates a coalescing queue that stores events into a given queue.
+     * @param queue the (empty) queue where non-merged events are stored
+     */
+    public CoalescingFutureQueue(final FutureQueue queue) {
+        super();
+        this.queue = Objects.requireNonNull(queue);
+    }
+
+    @Override
+    public void addEvent(final SimEvent newEvent) {
+        if (isCoalescible(newEvent) && !pendingUpdates.add(pendingUpdate(newEvent))) {
+            coalescedEvents++;
+            return;
+        }
+
+        queue.addEvent(newEvent);
+    }
+
+    @Override
+    public void addEventFirst(final SimEvent newEvent) {
+        if (isCoalescible(newEvent)) {
+            pendingUpdates.add(pendingUpdate(newEvent));
+        }
+
+        queue.addEventFirst(newEvent);
+    }
+
+    private static boolean isCoalescible(final SimEvent evt) {
+        return evt.getTag() == CloudSimTag.VM_UPDATE_CLOUDLET_PROCESSING && evt.getData() == null;
+    }
+
+    private static PendingUpdate pendingUpdate(final SimEvent evt) {
+        return new PendingUpdate(evt.getDestination(), evt.getTime());
+    }
+
+    @Override
+    public boolean remove(final SimEvent event) {
+        if (!queue.remove(event)) {
+            return false;
+        }
+
+        if (isCoalescible(event)) {
+            pendingUpdates.remove(pendingUpdate(event));
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<SimEvent> events) {
+        boolean removed = false;
+        for (final SimEvent evt : events) {
+            removed |= remove(evt);
+        }
+
+        return removed;
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<SimEvent> predicate) {
+        return queue.removeIf(evt -> {
+            if (!predicate.test(evt)) {
+                return false;
+            }
+
+            if (isCoalescible(evt)) {
+                pendingUpdates.remove(pendingUpdate(evt));
+            }
+
+            return true;
+        });
+    }
+
+    @Override
+    public SimEvent first() throws NoSuchElementException {
+        return queue.first();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+        pendingUpdates.clear();
+    }
+
+    @Override
+    public Iterator<SimEvent> iterator() {
+        return queue.iterator();
+    }
+
+    @Override
+    public Stream<SimEvent> stream() {
+        return queue.stream();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public long getSerial() {
+        return queue.getSerial();
+    }
+
+    @Override
+    public long getMaxEventsNumber() {
+        return queue.getMaxEventsNumber();
+    }
+
+    /**
+     * Gets the number of events merged into an already pending identical event.
+     * @return the number of events merged into an already pending identical event
+     */
+    public long getCoalescedEvents() {
+        return coalescedEvents;
+    }
+}
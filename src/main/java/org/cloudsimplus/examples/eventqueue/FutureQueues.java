@@ -0,0 +1,71 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.eventqueue;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.events.FutureQueue;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Utility methods to access the {@link FutureQueue} of a {@link CloudSim} instance,
+ * which is created internally and kept into a private field that has no setter.
+ * This is the only class depending on the name of that field.
+ *
+ * @author Ishak Megatli
+ */
+public final class FutureQueues {
+    private static final String FIELD_NAME = "future";
+
+    /**
+     * A private constructor to avoid class instantiation.
+     */
+    private FutureQueues() {/**/}
+
+    /**
+     * Replaces the future event queue of a simulation.
+     * @param simulation the simulation to replace the queue
+     * @param replacement a function that receives the current queue and returns the one to use
+     *                    (which may be the current one, so that nothing is changed)
+     * @return the queue returned by the replacement function
+     * @throws IllegalStateException if the queue cannot be accessed
+     */
+    public static FutureQueue replace(final CloudSim simulation, final UnaryOperator<FutureQueue> replacement) {
+        try {
+            final Field field = CloudSim.class.getDeclaredField(FIELD_NAME);
+            field.setAccessible(true);
+            final var current = (FutureQueue) field.get(simulation);
+            final FutureQueue queue = Objects.requireNonNull(replacement.apply(current));
+            if (queue != current) {
+                field.set(simulation, queue);
+            }
+
+            return queue;
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Unable to replace the future event queue of " + CloudSim.class.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Alternative implementations of the {@link org.cloudbus.cloudsim.core.events.FutureQueue}
+ * that holds all events scheduled in a {@link org.cloudbus.cloudsim.core.CloudSim} simulation,
+ * and a {@link org.cloudbus.cloudsim.core.CloudSim} subclass enabling to choose
+ * which queue to use when the simulation is instantiated.
+ *
+ * @author Ishak Megatli
+ */
+package org.cloudsimplus.examples.eventqueue;
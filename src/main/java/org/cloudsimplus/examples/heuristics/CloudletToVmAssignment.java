@@ -0,0 +1,284 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.heuristics.CloudletToVmMappingSolution;
+import org.cloudsimplus.heuristics.Heuristic;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mapping of Cloudlets to VMs, represented by the index of the VM each Cloudlet is assigned to,
+ * whose cost is the same as the one from {@link CloudletToVmMappingSolution}:
+ * the sum, for every VM having some Cloudlet, of the absolute difference between
+ * the number of VM PEs and the total number of PEs required by its Cloudlets.
+ *
+ * <p>The number of PEs requested from each VM and the number of Cloudlets assigned to it
+ * are kept into primitive arrays, so that the cost of moving a Cloudlet to another VM
+ * or swapping the VMs of two Cloudlets is computed and applied in constant time.
+ * Since costs are integers, the cost updated incrementally is exactly the one computed from scratch.</p>
+ *
+ * @author Ishak Megatli
+ */
+public final class CloudletToVmAssignment {
+    private final int[] cloudletPes;
+    private final int[] vmPes;
+    private final int[] vmOfCloudlet;
+    private final long[] vmRequestedPes;
+    private final int[] vmCloudlets;
+    private long cost;
+
+    /**
+     * Creates an assignment.
+     * @param cloudletPes the number of PEs of each Cloudlet
+     * @param vmPes the number of PEs of each VM
+     * @param vmOfCloudlet the index of the VM assigned to each Cloudlet (which is copied)
+     */
+    public CloudletToVmAssignment(final int[] cloudletPes, final int[] vmPes, final int[] vmOfCloudlet) {
+        if (cloudletPes.length != vmOfCloudlet.length) {
+            throw new IllegalArgumentException("There must be one VM index for each Cloudlet.");
+        }
+
+        this.cloudletPes = cloudletPes;
+        this.vmPes = vmPes;
+        this.vmOfCloudlet = vmOfCloudlet.clone();
+        this.vmRequestedPes = new long[vmPes.length];
+        this.vmCloudlets = new int[vmPes.length];
+        for (int cloudlet = 0; cloudlet < vmOfCloudlet.length; cloudlet++) {
+            vmRequestedPes[vmOfCloudlet[cloudlet]] += cloudletPes[cloudlet];
+            vmCloudlets[vmOfCloudlet[cloudlet]]++;
+        }
+
+        this.cost = computeCost();
+    }
+
+    /**
+     * A copy constructor.
+     * @param source the assignment to copy
+     */
+    public CloudletToVmAssignment(final CloudletToVmAssignment source) {
+        this.cloudletPes = source.cloudletPes;
+        this.vmPes = source.vmPes;
+        this.vmOfCloudlet = source.vmOfCloudlet.clone();
+        this.vmRequestedPes = source.vmRequestedPes.clone();
+        this.vmCloudlets = source.vmCloudlets.clone();
+        this.cost = source.cost;
+    }
+
+    /**
+     * Gets the number of PEs of each Cloudlet.
+     * @param cloudlets the Cloudlets
+     * @return an array with the number of PEs of each Cloudlet, in the same order
+     */
+    public static int[] cloudletPes(final List<Cloudlet> cloudlets) {
+        return cloudlets.stream().mapToInt(cloudlet -> (int) cloudlet.getNumberOfPes()).toArray();
+    }
+
+    /**
+     * Gets the number of PEs of each VM.
+     * @param vms the VMs
+     * @return an array with the number of PEs of each VM, in the same order
+     */
+    public static int[] vmPes(final List<Vm> vms) {
+        return vms.stream().mapToInt(vm -> (int) vm.getNumberOfPes()).toArray();
+    }
+
+    /**
+     * Computes the cost of an assignment from scratch.
+     * @param cloudletPes the number of PEs of each Cloudlet
+     * @param vmPes the number of PEs of each VM
+     * @param vmOfCloudlet the index of the VM assigned to each Cloudlet
+     * @param vmRequestedPes a scratch array with one element for each VM, where the PEs requested from each one are computed
+     * @param vmCloudlets a scratch array with one element for each VM, where the number of Cloudlets assigned to each one is computed
+     * @return the assignment cost
+     */
+    public static long computeCost(
+        final int[] cloudletPes, final int[] vmPes, final int[] vmOfCloudlet,
+        final long[] vmRequestedPes, final int[] vmCloudlets)
+    {
+        Arrays.fill(vmRequestedPes, 0);
+        Arrays.fill(vmCloudlets, 0);
+        for (int cloudlet = 0; cloudlet < vmOfCloudlet.length; cloudlet++) {
+            vmRequestedPes[vmOfCloudlet[cloudlet]] += cloudletPes[cloudlet];
+            vmCloudlets[vmOfCloudlet[cloudlet]]++;
+        }
+
+        long cost = 0;
+        for (int vm = 0; vm < vmPes.length; vm++) {
+            cost += vmCost(vmPes[vm], vmRequestedPes[vm], vmCloudlets[vm]);
+        }
+
+        return cost;
+    }
+
+    /**
+     * Computes the assignment cost from scratch.
+     * It's the same value returned by {@link #getCost()}, which is updated incrementally.
+     * @return the assignment cost computed from scratch
+     */
+    public long computeCost() {
+        return computeCost(cloudletPes, vmPes, vmOfCloudlet, new long[vmPes.length], new int[vmPes.length]);
+    }
+
+    private static long vmCost(final int vmPes, final long requestedPes, final int cloudlets) {
+        return cloudlets == 0 ? 0 : Math.abs(vmPes - requestedPes);
+    }
+
+    /**
+     * Computes how much the cost changes if the VMs of two Cloudlets are swapped,
+     * without changing the assignment.
+     * @param cloudlet1 index of the first Cloudlet
+     * @param cloudlet2 index of the second Cloudlet
+     * @return the cost change (negative if the cost decreases)
+     */
+    public long swapDelta(final int cloudlet1, final int cloudlet2) {
+        final int vm1 = vmOfCloudlet[cloudlet1];
+        final int vm2 = vmOfCloudlet[cloudlet2];
+        if (vm1 == vm2) {
+            return 0;
+        }
+
+        final int diff = cloudletPes[cloudlet2] - cloudletPes[cloudlet1];
+        return vmCost(vmPes[vm1], vmRequestedPes[vm1] + diff, vmCloudlets[vm1]) - vmCost(vm1)
+             + vmCost(vmPes[vm2], vmRequestedPes[vm2] - diff, vmCloudlets[vm2]) - vmCost(vm2);
+    }
+
+    /**
+     * Swaps the VMs of two Cloudlets, updating the cost.
+     * @param cloudlet1 index of the first Cloudlet
+     * @param cloudlet2 index of the second Cloudlet
+     */
+    public void swap(final int cloudlet1, final int cloudlet2) {
+        final int vm1 = vmOfCloudlet[cloudlet1];
+        final int vm2 = vmOfCloudlet[cloudlet2];
+        if (vm1 == vm2) {
+            return;
+        }
+
+        cost += swapDelta(cloudlet1, cloudlet2);
+        final int diff = cloudletPes[cloudlet2] - cloudletPes[cloudlet1];
+        vmRequestedPes[vm1] += diff;
+        vmRequestedPes[vm2] -= diff;
+        vmOfCloudlet[cloudlet1] = vm2;
+        vmOfCloudlet[cloudlet2] = vm1;
+    }
+
+    /**
+     * Computes how much the cost changes if a Cloudlet is moved to a given VM,
+     * without changing the assignment.
+     * @param cloudlet index of the Cloudlet to move
+     * @param vm index of the VM to move the Cloudlet to
+     * @return the cost change (negative if the cost decreases)
+     */
+    public long moveDelta(final int cloudlet, final int vm) {
+        final int source = vmOfCloudlet[cloudlet];
+        if (source == vm) {
+            return 0;
+        }
+
+        final int pes = cloudletPes[cloudlet];
+        return vmCost(vmPes[source], vmRequestedPes[source] - pes, vmCloudlets[source] - 1) - vmCost(source)
+             + vmCost(vmPes[vm], vmRequestedPes[vm] + pes, vmCloudlets[vm] + 1) - vmCost(vm);
+    }
+
+    /**
+     * Moves a Cloudlet to a given VM, updating the cost.
+     * @param cloudlet index of the Cloudlet to move
+     * @param vm index of the VM to move the Cloudlet to
+     */
+    public void move(final int cloudlet, final int vm) {
+        final int source = vmOfCloudlet[cloudlet];
+        if (source == vm) {
+            return;
+        }
+
+        cost += moveDelta(cloudlet, vm);
+        final int pes = cloudletPes[cloudlet];
+        vmRequestedPes[source] -= pes;
+        vmCloudlets[source]--;
+        vmRequestedPes[vm] += pes;
+        vmCloudlets[vm]++;
+        vmOfCloudlet[cloudlet] = vm;
+    }
+
+    private long vmCost(final int vm) {
+        return vmCost(vmPes[vm], vmRequestedPes[vm], vmCloudlets[vm]);
+    }
+
+    /**
+     * Gets the assignment cost.
+     * @return the assignment cost
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Gets the index of the VM a Cloudlet is assigned to.
+     * @param cloudlet the Cloudlet index
+     * @return the VM index
+     */
+    public int getVm(final int cloudlet) {
+        return vmOfCloudlet[cloudlet];
+    }
+
+    /**
+     * Gets a copy of the array with the index of the VM assigned to each Cloudlet.
+     * @return a copy of the array with the index of the VM assigned to each Cloudlet
+     */
+    public int[] toArray() {
+        return vmOfCloudlet.clone();
+    }
+
+    /**
+     * Gets the number of Cloudlets.
+     * @return the number of Cloudlets
+     */
+    public int getCloudletsNumber() {
+        return vmOfCloudlet.length;
+    }
+
+    /**
+     * Gets the number of VMs.
+     * @return the number of VMs
+     */
+    public int getVmsNumber() {
+        return vmPes.length;
+    }
+
+    /**
+     * Creates a {@link CloudletToVmMappingSolution} binding each Cloudlet to its assigned VM,
+     * whose cost is updated incrementally.
+     * @param heuristic the heuristic the solution belongs to
+     * @param cloudlets the Cloudlets, in the same order used by this assignment
+     * @param vms the VMs, in the same order used by this assignment
+     * @return the new solution
+     */
+    public CloudletToVmMappingSolution toSolution(final Heuristic<CloudletToVmMappingSolution> heuristic, final List<Cloudlet> cloudlets, final List<Vm> vms) {
+        return new IncrementalCloudletToVmMappingSolution(heuristic, cloudlets, vms, this);
+    }
+}
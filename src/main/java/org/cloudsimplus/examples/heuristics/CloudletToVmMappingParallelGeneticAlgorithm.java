@@ -0,0 +1,308 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A <a href="https://en.wikipedia.org/wiki/Genetic_algorithm">Genetic Algorithm</a>
+ * for mapping Cloudlets to VMs, whose offspring is created and evaluated in parallel.
+ *
+ * <p>A chromosome is an int array with the index of the VM assigned to each Cloudlet.
+ * At each generation, {@link #getSearchesByIteration()} children are created.
+ * Each child has its 2 parents selected by binary tournament,
+ * gets the genes of the first parent with a random segment from the second one (two-point crossover)
+ * and has a {@link #getMutationRate() fraction} of its genes (at least one) changed to random VMs.
+ * The parents, segments and mutations are drawn by the calling thread,
+ * then children are built and have their cost computed from scratch
+ * in parallel over a {@link ForkJoinPool}, using primitive per-task scratch arrays.
+ * The next population gets the best chromosomes among parents and children (elitism),
+ * ties being broken by the chromosome position,
+ * so results are the same no matter the number of threads.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class CloudletToVmMappingParallelGeneticAlgorithm extends CloudletToVmMappingParallelHeuristicAbstract {
+    /**
+     * The default min number of children by generation for them to be created in parallel.
+     * Since creating and evaluating a child is linear in the number of Cloudlets,
+     * a few children are enough for parallelism to pay off.
+     */
+    public static final int DEF_MIN_SEARCHES_TO_PARALLELIZE = 4;
+
+    /**
+     * The default number of chromosomes in the population.
+     */
+    public static final int DEF_POPULATION_SIZE = 64;
+
+    /**
+     * The default max number of generations.
+     */
+    public static final int DEF_MAX_GENERATIONS = 500;
+
+    /**
+     * The default fraction of the genes of a child changed to random VMs.
+     */
+    public static final double DEF_MUTATION_RATE = 0.01;
+
+    private int populationSize;
+    private int maxGenerations;
+    private double mutationRate;
+    private int generation;
+    private double lastAcceptanceProbability;
+
+    /**
+     * Creates a heuristic that uses the {@link ForkJoinPool#commonPool() common pool}.
+     * @param random a pseudo random number generator (giving values between 0 and 1)
+     */
+    public CloudletToVmMappingParallelGeneticAlgorithm(final ContinuousDistribution random) {
+        this(random, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a heuristic that uses a given pool.
+     * @param random a pseudo random number generator (giving values between 0 and 1)
+     * @param pool the pool to create and evaluate children in parallel
+     */
+    public CloudletToVmMappingParallelGeneticAlgorithm(final ContinuousDistribution random, final ForkJoinPool pool) {
+        super(random, pool, DEF_MIN_SEARCHES_TO_PARALLELIZE);
+        setSearchesByIteration(DEF_POPULATION_SIZE);
+        this.populationSize = DEF_POPULATION_SIZE;
+        this.maxGenerations = DEF_MAX_GENERATIONS;
+        this.mutationRate = DEF_MUTATION_RATE;
+    }
+
+    /**
+     * Evolves a population (which includes the initial solution and random ones)
+     * for the max number of generations.
+     * @param initial the initial solution
+     * @return the best chromosome found
+     */
+    @Override
+    protected int[] search(final CloudletToVmAssignment initial) {
+        final int cloudlets = initial.getCloudletsNumber();
+        final int vms = initial.getVmsNumber();
+        final int children = getSearchesByIteration();
+        final int mutations = Math.max(1, (int) Math.round(mutationRate * cloudlets));
+
+        /* The population is kept at the beginning of the arrays, followed by the children
+         * of the current generation, which replace the discarded chromosomes. */
+        int[][] chromosomes = new int[populationSize + children][];
+        long[] costs = new long[chromosomes.length];
+        chromosomes[0] = initial.toArray();
+        costs[0] = initial.getCost();
+        for (int i = 1; i < populationSize; i++) {
+            chromosomes[i] = newRandomVms();
+        }
+
+        for (int i = populationSize; i < chromosomes.length; i++) {
+            chromosomes[i] = new int[cloudlets];
+        }
+
+        final int[][] population = chromosomes;
+        final long[] populationCosts = costs;
+        processCandidates(populationSize, (from, to) -> {
+            final var requestedPes = new long[vms];
+            final var vmCloudlets = new int[vms];
+            for (int i = Math.max(from, 1); i < to; i++) {
+                populationCosts[i] = CloudletToVmAssignment.computeCost(getCloudletPes(), getVmPes(), population[i], requestedPes, vmCloudlets);
+            }
+        });
+
+        final int[] firstParents = new int[children];
+        final int[] secondParents = new int[children];
+        final int[] segmentStarts = new int[children];
+        final int[] segmentEnds = new int[children];
+        final int[] mutatedGenes = new int[children * mutations];
+        final int[] mutatedVms = new int[children * mutations];
+        final long[] sortKeys = new long[chromosomes.length];
+        int[][] sortedChromosomes = new int[chromosomes.length][];
+        long[] sortedCosts = new long[chromosomes.length];
+
+        generation = 0;
+        while (!isToStopSearch()) {
+            generation++;
+            for (int child = 0; child < children; child++) {
+                firstParents[child] = selectParent(costs);
+                secondParents[child] = selectParent(costs);
+                final int point1 = getRandomValue(cloudlets + 1);
+                final int point2 = getRandomValue(cloudlets + 1);
+                segmentStarts[child] = Math.min(point1, point2);
+                segmentEnds[child] = Math.max(point1, point2);
+                for (int i = child * mutations; i < (child + 1) * mutations; i++) {
+                    mutatedGenes[i] = getRandomValue(cloudlets);
+                    mutatedVms[i] = getRandomValue(vms);
+                }
+            }
+
+            final int[][] current = chromosomes;
+            final long[] currentCosts = costs;
+            processCandidates(children, (from, to) -> {
+                final var requestedPes = new long[vms];
+                final var vmCloudlets = new int[vms];
+                for (int child = from; child < to; child++) {
+                    final int[] chromosome = current[populationSize + child];
+                    System.arraycopy(current[firstParents[child]], 0, chromosome, 0, cloudlets);
+                    final int start = segmentStarts[child];
+                    System.arraycopy(current[secondParents[child]], start, chromosome, start, segmentEnds[child] - start);
+                    for (int i = child * mutations; i < (child + 1) * mutations; i++) {
+                        chromosome[mutatedGenes[i]] = mutatedVms[i];
+                    }
+
+                    currentCosts[populationSize + child] =
+                        CloudletToVmAssignment.computeCost(getCloudletPes(), getVmPes(), chromosome, requestedPes, vmCloudlets);
+                }
+            });
+
+            selectSurvivors(chromosomes, costs, sortKeys, sortedChromosomes, sortedCosts);
+
+            // The sorted arrays become the current ones and the previous arrays are reused for sorting
+            chromosomes = sortedChromosomes;
+            costs = sortedCosts;
+            sortedChromosomes = current;
+            sortedCosts = currentCosts;
+        }
+
+        return chromosomes[0].clone();
+    }
+
+    /**
+     * Selects a parent by binary tournament: the best of 2 random chromosomes in the population.
+     * @return the index of the selected chromosome
+     */
+    private int selectParent(final long[] costs) {
+        final int candidate1 = getRandomValue(populationSize);
+        final int candidate2 = getRandomValue(populationSize);
+        return costs[candidate2] < costs[candidate1] ? candidate2 : candidate1;
+    }
+
+    /**
+     * Sorts the chromosomes of the population and the children by cost (then by position),
+     * so that the best ones make up the next population.
+     * @param chromosomes the population followed by the children
+     * @param costs the cost of each chromosome
+     * @param sortKeys an array to sort the chromosomes
+     * @param sortedChromosomes the array to store the sorted chromosomes
+     * @param sortedCosts the array to store the costs of the sorted chromosomes
+     */
+    private void selectSurvivors(
+        final int[][] chromosomes, final long[] costs, final long[] sortKeys,
+        final int[][] sortedChromosomes, final long[] sortedCosts)
+    {
+        for (int i = 0; i < chromosomes.length; i++) {
+            sortKeys[i] = costs[i] * chromosomes.length + i;
+        }
+
+        Arrays.sort(sortKeys);
+        int survivingChildren = 0;
+        for (int i = 0; i < chromosomes.length; i++) {
+            final int index = (int) (sortKeys[i] % chromosomes.length);
+            sortedChromosomes[i] = chromosomes[index];
+            sortedCosts[i] = costs[index];
+            if (i < populationSize && index >= populationSize) {
+                survivingChildren++;
+            }
+        }
+
+        lastAcceptanceProbability = survivingChildren / (double) (chromosomes.length - populationSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * It's the fraction of the children of the last generation that survived to the next population.
+     */
+    @Override
+    public double getAcceptanceProbability() {
+        return lastAcceptanceProbability;
+    }
+
+    @Override
+    public boolean isToStopSearch() {
+        return generation >= maxGenerations;
+    }
+
+    /**
+     * Gets the number of chromosomes in the population.
+     * @return the number of chromosomes in the population
+     */
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    /**
+     * Sets the number of chromosomes in the population.
+     * @param populationSize the population size to set
+     */
+    public void setPopulationSize(final int populationSize) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("The population size must be at least 2.");
+        }
+
+        this.populationSize = populationSize;
+    }
+
+    /**
+     * Gets the max number of generations.
+     * @return the max number of generations
+     */
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    /**
+     * Sets the max number of generations.
+     * @param maxGenerations the max number of generations to set
+     */
+    public void setMaxGenerations(final int maxGenerations) {
+        if (maxGenerations < 1) {
+            throw new IllegalArgumentException("The max number of generations must be greater than zero.");
+        }
+
+        this.maxGenerations = maxGenerations;
+    }
+
+    /**
+     * Gets the fraction of the genes of a child changed to random VMs.
+     * @return the fraction of the genes of a child changed to random VMs
+     */
+    public double getMutationRate() {
+        return mutationRate;
+    }
+
+    /**
+     * Sets the fraction of the genes of a child changed to random VMs.
+     * At least one gene is always changed.
+     * @param mutationRate the mutation rate to set, between 0 and 1
+     */
+    public void setMutationRate(final double mutationRate) {
+        if (mutationRate < 0 || mutationRate > 1) {
+            throw new IllegalArgumentException("The mutation rate must be between 0 and 1.");
+        }
+
+        this.mutationRate = mutationRate;
+    }
+}
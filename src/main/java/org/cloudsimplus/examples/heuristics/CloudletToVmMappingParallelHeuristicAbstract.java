@@ -0,0 +1,322 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.heuristics.CloudletToVmMappingHeuristic;
+import org.cloudsimplus.heuristics.CloudletToVmMappingSolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A base class for {@link CloudletToVmMappingHeuristic}s that represent solutions
+ * as {@link CloudletToVmAssignment}s (arrays with the index of the VM assigned to each Cloudlet)
+ * and evaluate the candidate solutions of each iteration in parallel over a {@link ForkJoinPool}.
+ *
+ * <p>All random values are drawn by the thread calling {@link #solve()},
+ * so that results are the same no matter the number of threads.
+ * Parallel tasks just evaluate candidates drawn beforehand.</p>
+ *
+ * @author Ishak Megatli
+ */
+public abstract class CloudletToVmMappingParallelHeuristicAbstract implements CloudletToVmMappingHeuristic {
+    private final ContinuousDistribution random;
+    private final ForkJoinPool pool;
+    private int searchesByIteration;
+    private int minSearchesToParallelize;
+    private double solveTime;
+
+    private List<Vm> vmList;
+    private List<Cloudlet> cloudletList;
+    private int[] cloudletPes;
+    private int[] vmPes;
+    private CloudletToVmMappingSolution initialSolution;
+    private CloudletToVmMappingSolution bestSolutionSoFar;
+
+    /**
+     * A range of indexes of the candidates of an iteration, which can be processed in parallel.
+     */
+    @FunctionalInterface
+    protected interface RangeAction {
+        /**
+         * Processes the candidates in a given range.
+         * @param from index of the first candidate (inclusive)
+         * @param to index of the last candidate (exclusive)
+         */
+        void apply(int from, int to);
+    }
+
+    /**
+     * Creates a heuristic.
+     * @param random a pseudo random number generator (giving values between 0 and 1)
+     * @param pool the pool to evaluate candidate solutions in parallel
+     * @param minSearchesToParallelize the default {@link #getMinSearchesToParallelize()}
+     */
+    protected CloudletToVmMappingParallelHeuristicAbstract(
+        final ContinuousDistribution random, final ForkJoinPool pool, final int minSearchesToParallelize)
+    {
+        this.random = Objects.requireNonNull(random);
+        this.pool = Objects.requireNonNull(pool);
+        this.searchesByIteration = 1;
+        setMinSearchesToParallelize(minSearchesToParallelize);
+        this.vmList = new ArrayList<>();
+        this.cloudletList = new ArrayList<>();
+        this.initialSolution = new CloudletToVmMappingSolution(this);
+        this.bestSolutionSoFar = initialSolution;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The initial solution maps each Cloudlet to a random VM.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final CloudletToVmMappingSolution solve() {
+        final long startTime = System.currentTimeMillis();
+        if (cloudletList.isEmpty() || vmList.isEmpty()) {
+            bestSolutionSoFar = new CloudletToVmMappingSolution(this);
+            solveTime = 0;
+            return bestSolutionSoFar;
+        }
+
+        cloudletPes = CloudletToVmAssignment.cloudletPes(cloudletList);
+        vmPes = CloudletToVmAssignment.vmPes(vmList);
+        final var initial = newAssignment(newRandomVms());
+        initialSolution = initial.toSolution(this, cloudletList, vmList);
+        bestSolutionSoFar = newAssignment(search(initial)).toSolution(this, cloudletList, vmList);
+        solveTime = (System.currentTimeMillis() - startTime) / 1000.0;
+        return bestSolutionSoFar;
+    }
+
+    /**
+     * Searches for the best solution.
+     * @param initial the initial solution, which can be changed along the search
+     * @return the VM assigned to each Cloudlet in the best solution found
+     */
+    protected abstract int[] search(CloudletToVmAssignment initial);
+
+    /**
+     * Creates an assignment for the Cloudlets and VMs being mapped.
+     * @param vmOfCloudlet the index of the VM assigned to each Cloudlet
+     * @return the new assignment
+     */
+    protected final CloudletToVmAssignment newAssignment(final int[] vmOfCloudlet) {
+        return new CloudletToVmAssignment(cloudletPes, vmPes, vmOfCloudlet);
+    }
+
+    /**
+     * Creates an array with a random VM index for each Cloudlet.
+     * @return an array with a random VM index for each Cloudlet
+     */
+    protected final int[] newRandomVms() {
+        final int[] vmOfCloudlet = new int[cloudletList.size()];
+        for (int cloudlet = 0; cloudlet < vmOfCloudlet.length; cloudlet++) {
+            vmOfCloudlet[cloudlet] = getRandomValue(vmList.size());
+        }
+
+        return vmOfCloudlet;
+    }
+
+    /**
+     * Gets the number of PEs of each Cloudlet being mapped.
+     * The array must not be changed.
+     * @return the number of PEs of each Cloudlet being mapped
+     */
+    protected final int[] getCloudletPes() {
+        return cloudletPes;
+    }
+
+    /**
+     * Gets the number of PEs of each VM being mapped.
+     * The array must not be changed.
+     * @return the number of PEs of each VM being mapped
+     */
+    protected final int[] getVmPes() {
+        return vmPes;
+    }
+
+    /**
+     * Processes a number of candidates, in parallel if they are at least {@link #getMinSearchesToParallelize()}.
+     * @param candidates the number of candidates
+     * @param action the action to process a range of candidates
+     */
+    protected final void processCandidates(final int candidates, final RangeAction action) {
+        if (candidates < minSearchesToParallelize) {
+            action.apply(0, candidates);
+        } else {
+            pool.invoke(new RangeTask(action, 0, candidates));
+        }
+    }
+
+    /**
+     * Processes a range of candidates,
+     * splitting it into subtasks while it's larger than the {@link #getMinSearchesToParallelize()}.
+     */
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 7544908555851084949L;
+
+        private final RangeAction action;
+        private final int from;
+        private final int to;
+
+        private RangeTask(final RangeAction action, final int from, final int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minSearchesToParallelize) {
+                action.apply(from, to);
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(action, from, middle), new RangeTask(action, middle, to));
+        }
+    }
+
+    /**
+     * Gets a random value between 0 and 1.
+     * @return a random value between 0 and 1
+     */
+    protected final double nextRandom() {
+        return random.sample();
+    }
+
+    @Override
+    public int getRandomValue(final int maxValue) {
+        final double uniform = random.sample();
+        return (int)(uniform >= 1.0 ? uniform % maxValue : uniform * maxValue);
+    }
+
+    @Override
+    public CloudletToVmMappingSolution getInitialSolution() {
+        return initialSolution;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Since candidates are evaluated from their {@link CloudletToVmAssignment}, they are not kept.
+     * @return the {@link #getBestSolutionSoFar() best solution so far}
+     */
+    @Override
+    public CloudletToVmMappingSolution getNeighborSolution() {
+        return bestSolutionSoFar;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The neighbor has the VMs of two random Cloudlets swapped.
+     */
+    @Override
+    public CloudletToVmMappingSolution createNeighbor(final CloudletToVmMappingSolution source) {
+        final var neighbor = new CloudletToVmMappingSolution(source);
+        final Map<Cloudlet, Vm> result = source.getResult();
+        if (result.size() < 2) {
+            return neighbor;
+        }
+
+        final List<Cloudlet> cloudlets = new ArrayList<>(result.keySet());
+        final Cloudlet cloudlet1 = cloudlets.get(getRandomValue(cloudlets.size()));
+        final Cloudlet cloudlet2 = cloudlets.get(getRandomValue(cloudlets.size()));
+        neighbor.bindCloudletToVm(cloudlet1, result.get(cloudlet2));
+        neighbor.bindCloudletToVm(cloudlet2, result.get(cloudlet1));
+        return neighbor;
+    }
+
+    @Override
+    public CloudletToVmMappingSolution getBestSolutionSoFar() {
+        return bestSolutionSoFar;
+    }
+
+    @Override
+    public int getSearchesByIteration() {
+        return searchesByIteration;
+    }
+
+    @Override
+    public void setSearchesByIteration(final int searches) {
+        if (searches < 1) {
+            throw new IllegalArgumentException("The number of searches by iteration must be greater than zero.");
+        }
+
+        this.searchesByIteration = searches;
+    }
+
+    @Override
+    public double getSolveTime() {
+        return solveTime;
+    }
+
+    @Override
+    public List<Cloudlet> getCloudletList() {
+        return cloudletList;
+    }
+
+    @Override
+    public void setCloudletList(final List<Cloudlet> cloudletList) {
+        this.cloudletList = Objects.requireNonNull(cloudletList);
+    }
+
+    @Override
+    public List<Vm> getVmList() {
+        return vmList;
+    }
+
+    @Override
+    public void setVmList(final List<Vm> vmList) {
+        this.vmList = Objects.requireNonNull(vmList);
+    }
+
+    /**
+     * Gets the min number of candidates by iteration for them to be evaluated in parallel.
+     * It's also the max number of candidates evaluated by each parallel task.
+     * @return the min number of candidates by iteration for them to be evaluated in parallel
+     */
+    public int getMinSearchesToParallelize() {
+        return minSearchesToParallelize;
+    }
+
+    /**
+     * Sets the min number of candidates by iteration for them to be evaluated in parallel.
+     * It's also the max number of candidates evaluated by each parallel task.
+     * @param minSearchesToParallelize the min number of candidates
+     */
+    public void setMinSearchesToParallelize(final int minSearchesToParallelize) {
+        if (minSearchesToParallelize < 1) {
+            throw new IllegalArgumentException("The min number of searches must be greater than zero.");
+        }
+
+        this.minSearchesToParallelize = minSearchesToParallelize;
+    }
+}
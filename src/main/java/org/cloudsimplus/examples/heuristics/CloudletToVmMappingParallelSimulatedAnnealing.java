@@ -0,0 +1,211 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+import org.cloudsimplus.heuristics.CloudletToVmMappingSimulatedAnnealing;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A <a href="http://en.wikipedia.org/wiki/Simulated_annealing">Simulated Annealing</a> heuristic
+ * for mapping Cloudlets to VMs, which has the same parameters and cost function as the
+ * {@link CloudletToVmMappingSimulatedAnnealing}, but evaluates the neighbors of each iteration in parallel.
+ *
+ * <p>Each neighbor swaps the VMs of two random Cloudlets of the current solution.
+ * Instead of copying and re-costing the whole solution, the cost change of a neighbor
+ * is computed in constant time by a {@link CloudletToVmAssignment}, since just the 2 VMs involved change.
+ * At every iteration, the random Cloudlet pairs are drawn, their cost changes are computed
+ * in parallel over a {@link ForkJoinPool} (when there are at least {@link #getMinSearchesToParallelize()} searches by iteration),
+ * then neighbors are accepted sequentially, in the order they were drawn.
+ * If a previous neighbor accepted in the same iteration changed some of the VMs of a neighbor,
+ * the cost change of the latter is computed again.</p>
+ *
+ * <p>A neighbor which reduces the cost is always accepted, while a worse one is accepted
+ * with the probability given by the {@link #getAcceptanceProbability() Boltzmann distribution}.
+ * The best solution found along the search is kept, even if the search moves away from it.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class CloudletToVmMappingParallelSimulatedAnnealing extends CloudletToVmMappingParallelHeuristicAbstract {
+    /**
+     * The default min number of neighborhood searches by iteration
+     * for the cost changes to be computed in parallel.
+     * Since the cost of each neighbor is computed in constant time,
+     * parallelism only pays off when there are many searches by iteration.
+     */
+    public static final int DEF_MIN_SEARCHES_TO_PARALLELIZE = 2048;
+
+    private final double initialTemperature;
+    private double currentTemperature;
+    private double coldTemperature;
+    private double coolingRate;
+    private double lastAcceptanceProbability;
+
+    /**
+     * Creates a heuristic that uses the {@link ForkJoinPool#commonPool() common pool}.
+     * @param initialTemperature the system temperature at the beginning of the search
+     * @param random a pseudo random number generator (giving values between 0 and 1)
+     */
+    public CloudletToVmMappingParallelSimulatedAnnealing(final double initialTemperature, final ContinuousDistribution random) {
+        this(initialTemperature, random, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a heuristic that uses a given pool.
+     * @param initialTemperature the system temperature at the beginning of the search
+     * @param random a pseudo random number generator (giving values between 0 and 1)
+     * @param pool the pool to compute the cost of neighbors in parallel
+     */
+    public CloudletToVmMappingParallelSimulatedAnnealing(
+        final double initialTemperature, final ContinuousDistribution random, final ForkJoinPool pool)
+    {
+        super(random, pool, DEF_MIN_SEARCHES_TO_PARALLELIZE);
+        this.initialTemperature = initialTemperature;
+        this.currentTemperature = initialTemperature;
+    }
+
+    /**
+     * Runs the search until the system is cold.
+     * @param current the initial solution, which is changed along the search
+     * @return the VM assigned to each Cloudlet in the best solution found
+     */
+    @Override
+    protected int[] search(final CloudletToVmAssignment current) {
+        currentTemperature = initialTemperature;
+        final int searches = getSearchesByIteration();
+        final int cloudlets = current.getCloudletsNumber();
+        final int[] firstCloudlets = new int[searches];
+        final int[] secondCloudlets = new int[searches];
+        final long[] deltas = new long[searches];
+
+        /* The last iteration each VM was changed by an accepted neighbor (starting from 1),
+         * to find out neighbors whose cost change computed in parallel is outdated. */
+        final int[] vmChangeIterations = new int[current.getVmsNumber()];
+        int iteration = 0;
+
+        int[] bestVms = current.toArray();
+        long bestCost = current.getCost();
+        while (!isToStopSearch()) {
+            iteration++;
+            for (int i = 0; i < searches; i++) {
+                firstCloudlets[i] = getRandomValue(cloudlets);
+                secondCloudlets[i] = getRandomValue(cloudlets);
+            }
+
+            processCandidates(searches, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    deltas[i] = current.swapDelta(firstCloudlets[i], secondCloudlets[i]);
+                }
+            });
+
+            for (int i = 0; i < searches; i++) {
+                final int cloudlet1 = firstCloudlets[i];
+                final int cloudlet2 = secondCloudlets[i];
+                final int vm1 = current.getVm(cloudlet1);
+                final int vm2 = current.getVm(cloudlet2);
+                if (vm1 == vm2) {
+                    continue;
+                }
+
+                final boolean outdated = vmChangeIterations[vm1] == iteration || vmChangeIterations[vm2] == iteration;
+                final long delta = outdated ? current.swapDelta(cloudlet1, cloudlet2) : deltas[i];
+                if (isToAccept(delta)) {
+                    current.swap(cloudlet1, cloudlet2);
+                    vmChangeIterations[vm1] = iteration;
+                    vmChangeIterations[vm2] = iteration;
+                }
+            }
+
+            if (current.getCost() < bestCost) {
+                bestCost = current.getCost();
+                bestVms = current.toArray();
+            }
+
+            updateSystemState();
+        }
+
+        return bestVms;
+    }
+
+    /**
+     * Checks if a neighbor is accepted according to its cost change,
+     * drawing a random value only when the neighbor is worse than the current solution.
+     */
+    private boolean isToAccept(final long delta) {
+        if (delta <= 0) {
+            lastAcceptanceProbability = 1;
+            return true;
+        }
+
+        lastAcceptanceProbability = Math.exp(-delta / currentTemperature);
+        return nextRandom() < lastAcceptanceProbability;
+    }
+
+    /**
+     * Cools the system down.
+     */
+    private void updateSystemState() {
+        currentTemperature *= 1 - coolingRate;
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Current system temperature is {}", currentTemperature);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * It's the probability of the last evaluated neighbor, computed as the
+     * <a href="http://en.wikipedia.org/wiki/Boltzmann_distribution">Boltzmann distribution</a>
+     * of its cost change (1 if the neighbor reduces the cost).
+     */
+    @Override
+    public double getAcceptanceProbability() {
+        return lastAcceptanceProbability;
+    }
+
+    @Override
+    public boolean isToStopSearch() {
+        return currentTemperature <= coldTemperature;
+    }
+
+    public double getCurrentTemperature() {
+        return currentTemperature;
+    }
+
+    public double getColdTemperature() {
+        return coldTemperature;
+    }
+
+    public void setColdTemperature(final double coldTemperature) {
+        this.coldTemperature = coldTemperature;
+    }
+
+    public double getCoolingRate() {
+        return coolingRate;
+    }
+
+    public void setCoolingRate(final double coolingRate) {
+        this.coolingRate = coolingRate;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A <a href="https://en.wikipedia.org/wiki/Tabu_search">Tabu Search</a> heuristic
+ * for mapping Cloudlets to VMs, which evaluates the candidate moves of each iteration in parallel.
+ *
+ * <p>At each iteration, {@link #getSearchesByIteration()} random moves (each one moving a random Cloudlet to a random VM)
+ * are drawn and their cost changes are computed in constant time by a {@link CloudletToVmAssignment},
+ * in parallel over a {@link ForkJoinPool} (when there are at least {@link #getMinSearchesToParallelize()} moves).
+ * The best move is then applied, even if it increases the cost.
+ * To avoid cycling, moving a Cloudlet back to the VM it has just left is forbidden
+ * (tabu) for the next {@link #getTabuTenure()} iterations, unless such a move gives a solution
+ * better than the best one found so far (the aspiration criterion).</p>
+ *
+ * <p>Since all candidates are evaluated against the same solution and just one is applied,
+ * the cost changes computed in parallel are never outdated.
+ * Ties are broken by the order moves were drawn, so results are the same no matter the number of threads.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class CloudletToVmMappingParallelTabuSearch extends CloudletToVmMappingParallelHeuristicAbstract {
+    /**
+     * The default min number of candidate moves by iteration for their cost changes to be computed in parallel.
+     * Since the cost change of each move is computed in constant time,
+     * parallelism only pays off when there are many moves by iteration.
+     */
+    public static final int DEF_MIN_SEARCHES_TO_PARALLELIZE = 2048;
+
+    /**
+     * The default number of candidate moves evaluated at each iteration.
+     */
+    public static final int DEF_SEARCHES_BY_ITERATION = 256;
+
+    /**
+     * The default number of iterations a Cloudlet is forbidden to move back to the VM it has left.
+     */
+    public static final int DEF_TABU_TENURE = 10;
+
+    /**
+     * The default max number of iterations.
+     */
+    public static final int DEF_MAX_ITERATIONS = 10_000;
+
+    /**
+     * The default max number of consecutive iterations without improving the best solution.
+     */
+    public static final int DEF_MAX_ITERATIONS_WITHOUT_IMPROVEMENT = 1000;
+
+    private int tabuTenure;
+    private int maxIterations;
+    private int maxIterationsWithoutImprovement;
+    private int iteration;
+    private int iterationsWithoutImprovement;
+
+    /**
+     * Creates a heuristic that uses the {@link ForkJoinPool#commonPool() common pool}.
+     * @param random a pseudo random number generator (giving values between 0 and 1)
+     */
+    public CloudletToVmMappingParallelTabuSearch(final ContinuousDistribution random) {
+        this(random, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a heuristic that uses a given pool.
+     * @param random a pseudo random number generator (giving values between 0 and 1)
+     * @param pool the pool to compute the cost of candidate moves in parallel
+     */
+    public CloudletToVmMappingParallelTabuSearch(final ContinuousDistribution random, final ForkJoinPool pool) {
+        super(random, pool, DEF_MIN_SEARCHES_TO_PARALLELIZE);
+        setSearchesByIteration(DEF_SEARCHES_BY_ITERATION);
+        this.tabuTenure = DEF_TABU_TENURE;
+        this.maxIterations = DEF_MAX_ITERATIONS;
+        this.maxIterationsWithoutImprovement = DEF_MAX_ITERATIONS_WITHOUT_IMPROVEMENT;
+    }
+
+    /**
+     * Runs the search until the max number of iterations (with or without improvement) is reached.
+     * @param current the initial solution, which is changed along the search
+     * @return the VM assigned to each Cloudlet in the best solution found
+     */
+    @Override
+    protected int[] search(final CloudletToVmAssignment current) {
+        final int searches = getSearchesByIteration();
+        final int cloudlets = current.getCloudletsNumber();
+        final int vms = current.getVmsNumber();
+        final int[] moveCloudlets = new int[searches];
+        final int[] moveVms = new int[searches];
+        final long[] deltas = new long[searches];
+
+        /* For each Cloudlet, the VM it is forbidden to move back to
+         * and the last iteration such a move is forbidden. */
+        final int[] tabuVms = new int[cloudlets];
+        final int[] tabuUntil = new int[cloudlets];
+        Arrays.fill(tabuVms, -1);
+
+        int[] bestVms = current.toArray();
+        long bestCost = current.getCost();
+        iteration = 0;
+        iterationsWithoutImprovement = 0;
+        while (!isToStopSearch()) {
+            iteration++;
+            for (int i = 0; i < searches; i++) {
+                moveCloudlets[i] = getRandomValue(cloudlets);
+                moveVms[i] = getRandomValue(vms);
+            }
+
+            processCandidates(searches, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    deltas[i] = current.moveDelta(moveCloudlets[i], moveVms[i]);
+                }
+            });
+
+            final int best = selectMove(current, moveCloudlets, moveVms, deltas, tabuVms, tabuUntil, bestCost);
+            if (best >= 0) {
+                final int cloudlet = moveCloudlets[best];
+                tabuVms[cloudlet] = current.getVm(cloudlet);
+                tabuUntil[cloudlet] = iteration + tabuTenure;
+                current.move(cloudlet, moveVms[best]);
+            }
+
+            if (current.getCost() < bestCost) {
+                bestCost = current.getCost();
+                bestVms = current.toArray();
+                iterationsWithoutImprovement = 0;
+            } else {
+                iterationsWithoutImprovement++;
+            }
+        }
+
+        return bestVms;
+    }
+
+    /**
+     * Selects the move with the lowest cost change which isn't tabu
+     * or which gives a solution better than the best one so far.
+     * @return the index of the selected move or -1 if all moves are forbidden or don't change the solution
+     */
+    private int selectMove(
+        final CloudletToVmAssignment current, final int[] moveCloudlets, final int[] moveVms,
+        final long[] deltas, final int[] tabuVms, final int[] tabuUntil, final long bestCost)
+    {
+        int selected = -1;
+        for (int i = 0; i < deltas.length; i++) {
+            final int cloudlet = moveCloudlets[i];
+            final int vm = moveVms[i];
+            if (current.getVm(cloudlet) == vm || (selected >= 0 && deltas[i] >= deltas[selected])) {
+                continue;
+            }
+
+            final boolean tabu = tabuVms[cloudlet] == vm && tabuUntil[cloudlet] >= iteration;
+            if (!tabu || current.getCost() + deltas[i] < bestCost) {
+                selected = i;
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The best allowed move is always applied, so it's 1.
+     */
+    @Override
+    public double getAcceptanceProbability() {
+        return 1;
+    }
+
+    @Override
+    public boolean isToStopSearch() {
+        return iteration >= maxIterations || iterationsWithoutImprovement >= maxIterationsWithoutImprovement;
+    }
+
+    /**
+     * Gets the number of iterations a Cloudlet is forbidden to move back to the VM it has left.
+     * @return the number of iterations a Cloudlet is forbidden to move back to the VM it has left
+     */
+    public int getTabuTenure() {
+        return tabuTenure;
+    }
+
+    /**
+     * Sets the number of iterations a Cloudlet is forbidden to move back to the VM it has left.
+     * @param tabuTenure the number of iterations to set
+     */
+    public void setTabuTenure(final int tabuTenure) {
+        if (tabuTenure < 0) {
+            throw new IllegalArgumentException("The tabu tenure cannot be negative.");
+        }
+
+        this.tabuTenure = tabuTenure;
+    }
+
+    /**
+     * Gets the max number of iterations.
+     * @return the max number of iterations
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Sets the max number of iterations.
+     * Since a single Cloudlet is moved at each iteration, it should be proportional
+     * to the number of Cloudlets.
+     * @param maxIterations the max number of iterations to set
+     */
+    public void setMaxIterations(final int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("The max number of iterations must be greater than zero.");
+        }
+
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Gets the max number of consecutive iterations without improving the best solution.
+     * @return the max number of consecutive iterations without improving the best solution
+     */
+    public int getMaxIterationsWithoutImprovement() {
+        return maxIterationsWithoutImprovement;
+    }
+
+    /**
+     * Sets the max number of consecutive iterations without improving the best solution.
+     * @param maxIterationsWithoutImprovement the max number of iterations to set
+     */
+    public void setMaxIterationsWithoutImprovement(final int maxIterationsWithoutImprovement) {
+        if (maxIterationsWithoutImprovement < 1) {
+            throw new IllegalArgumentException("The max number of iterations without improvement must be greater than zero.");
+        }
+
+        this.maxIterationsWithoutImprovement = maxIterationsWithoutImprovement;
+    }
+}
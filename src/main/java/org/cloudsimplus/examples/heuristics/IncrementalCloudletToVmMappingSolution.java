@@ -0,0 +1,236 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.heuristics.CloudletToVmMappingSolution;
+import org.cloudsimplus.heuristics.Heuristic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link CloudletToVmMappingSolution} which keeps the PEs requested from each VM
+ * and the number of Cloudlets assigned to it into primitive arrays
+ * (using a {@link CloudletToVmAssignment}),
+ * so that the cost is updated in constant time when a Cloudlet is moved to another VM
+ * or the VMs of two Cloudlets are swapped.
+ * The regular solution instead groups the whole Cloudlet-to-VM map by VM
+ * every time the cost is requested after a change.
+ *
+ * <p>The solution is created for a fixed set of Cloudlets and VMs,
+ * where every Cloudlet is always assigned to some VM.
+ * Binding a Cloudlet or VM which isn't part of such sets is not allowed.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class IncrementalCloudletToVmMappingSolution extends CloudletToVmMappingSolution {
+    private final List<Cloudlet> cloudletList;
+    private final List<Vm> vmList;
+    private final Map<Cloudlet, Integer> cloudletIndexes;
+    private final Map<Vm, Integer> vmIndexes;
+    private final CloudletToVmAssignment assignment;
+
+    /**
+     * Creates a solution from a given assignment.
+     * @param heuristic the heuristic the solution belongs to
+     * @param cloudlets the Cloudlets, in the same order used by the assignment
+     * @param vms the VMs, in the same order used by the assignment
+     * @param assignment the assignment defining the VM of each Cloudlet (which is copied)
+     */
+    public IncrementalCloudletToVmMappingSolution(
+        final Heuristic<CloudletToVmMappingSolution> heuristic, final List<Cloudlet> cloudlets,
+        final List<Vm> vms, final CloudletToVmAssignment assignment)
+    {
+        super(heuristic);
+        if (cloudlets.size() != assignment.getCloudletsNumber() || vms.size() != assignment.getVmsNumber()) {
+            throw new IllegalArgumentException("The number of Cloudlets and VMs must match the ones in the assignment.");
+        }
+
+        this.cloudletList = List.copyOf(cloudlets);
+        this.vmList = List.copyOf(vms);
+        this.cloudletIndexes = indexes(cloudletList);
+        this.vmIndexes = indexes(vmList);
+        this.assignment = new CloudletToVmAssignment(assignment);
+        for (int cloudlet = 0; cloudlet < cloudletList.size(); cloudlet++) {
+            super.bindCloudletToVm(cloudletList.get(cloudlet), vmList.get(assignment.getVm(cloudlet)));
+        }
+    }
+
+    /**
+     * Creates a solution from a given Cloudlet-to-VM map.
+     * @param heuristic the heuristic the solution belongs to
+     * @param vms the VMs Cloudlets can be bound to, which must include every VM in the map
+     * @param cloudletVmMap the map defining the VM of each Cloudlet,
+     *                      whose Cloudlets are the only ones the solution accepts
+     */
+    public IncrementalCloudletToVmMappingSolution(final Heuristic<CloudletToVmMappingSolution> heuristic, final List<Vm> vms, final Map<Cloudlet, Vm> cloudletVmMap) {
+        this(heuristic, new ArrayList<>(cloudletVmMap.keySet()), vms, cloudletVmMap);
+    }
+
+    private IncrementalCloudletToVmMappingSolution(
+        final Heuristic<CloudletToVmMappingSolution> heuristic, final List<Cloudlet> cloudlets,
+        final List<Vm> vms, final Map<Cloudlet, Vm> cloudletVmMap)
+    {
+        this(heuristic, cloudlets, vms, newAssignment(cloudlets, vms, cloudletVmMap));
+    }
+
+    /**
+     * A copy constructor.
+     * @param source the solution to copy
+     */
+    public IncrementalCloudletToVmMappingSolution(final IncrementalCloudletToVmMappingSolution source) {
+        super(source);
+        this.cloudletList = source.cloudletList;
+        this.vmList = source.vmList;
+        this.cloudletIndexes = source.cloudletIndexes;
+        this.vmIndexes = source.vmIndexes;
+        this.assignment = new CloudletToVmAssignment(source.assignment);
+    }
+
+    private static CloudletToVmAssignment newAssignment(final List<Cloudlet> cloudlets, final List<Vm> vms, final Map<Cloudlet, Vm> cloudletVmMap) {
+        final Map<Vm, Integer> vmIndexes = indexes(vms);
+        final int[] vmOfCloudlet = new int[cloudlets.size()];
+        for (int i = 0; i < vmOfCloudlet.length; i++) {
+            final Vm vm = cloudletVmMap.get(cloudlets.get(i));
+            final Integer vmIndex = vmIndexes.get(vm);
+            if (vmIndex == null) {
+                throw new IllegalArgumentException(vm + " is not in the list of VMs.");
+            }
+
+            vmOfCloudlet[i] = vmIndex;
+        }
+
+        return new CloudletToVmAssignment(CloudletToVmAssignment.cloudletPes(cloudlets), CloudletToVmAssignment.vmPes(vms), vmOfCloudlet);
+    }
+
+    private static <T> Map<T, Integer> indexes(final List<T> list) {
+        final Map<T, Integer> map = new HashMap<>(list.size() * 4 / 3 + 1);
+        for (int i = 0; i < list.size(); i++) {
+            map.put(list.get(i), i);
+        }
+
+        return map;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cost is updated in constant time.
+     * @param cloudlet {@inheritDoc}
+     * @param vm {@inheritDoc}
+     * @throws IllegalArgumentException if the Cloudlet or VM isn't part of this solution
+     */
+    @Override
+    public void bindCloudletToVm(final Cloudlet cloudlet, final Vm vm) {
+        final int vmIndex = vmIndex(vm);
+        assignment.move(cloudletIndex(cloudlet), vmIndex);
+        super.bindCloudletToVm(cloudlet, vm);
+    }
+
+    /**
+     * Computes how much the cost changes if a Cloudlet is moved to a given VM,
+     * without changing the solution.
+     * @param cloudlet the Cloudlet to move
+     * @param vm the VM to move the Cloudlet to
+     * @return the cost change (negative if the cost decreases)
+     */
+    public double moveDelta(final Cloudlet cloudlet, final Vm vm) {
+        return assignment.moveDelta(cloudletIndex(cloudlet), vmIndex(vm));
+    }
+
+    /**
+     * Computes how much the cost changes if the VMs of two Cloudlets are swapped,
+     * without changing the solution.
+     * @param cloudlet1 the first Cloudlet
+     * @param cloudlet2 the second Cloudlet
+     * @return the cost change (negative if the cost decreases)
+     */
+    public double swapDelta(final Cloudlet cloudlet1, final Cloudlet cloudlet2) {
+        return assignment.swapDelta(cloudletIndex(cloudlet1), cloudletIndex(cloudlet2));
+    }
+
+    /**
+     * Swaps the VMs of two Cloudlets, updating the cost in constant time.
+     * @param cloudlet1 the first Cloudlet
+     * @param cloudlet2 the second Cloudlet
+     */
+    public void swap(final Cloudlet cloudlet1, final Cloudlet cloudlet2) {
+        final int index1 = cloudletIndex(cloudlet1);
+        final int index2 = cloudletIndex(cloudlet2);
+        assignment.swap(index1, index2);
+        super.bindCloudletToVm(cloudlet1, vmList.get(assignment.getVm(index1)));
+        super.bindCloudletToVm(cloudlet2, vmList.get(assignment.getVm(index2)));
+    }
+
+    private int cloudletIndex(final Cloudlet cloudlet) {
+        final Integer index = cloudletIndexes.get(cloudlet);
+        if (index == null) {
+            throw new IllegalArgumentException(cloudlet + " is not part of the solution.");
+        }
+
+        return index;
+    }
+
+    private int vmIndex(final Vm vm) {
+        final Integer index = vmIndexes.get(vm);
+        if (index == null) {
+            throw new IllegalArgumentException(vm + " is not part of the solution.");
+        }
+
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cost is kept up-to-date after each change, so this method just returns it.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double getCost() {
+        return assignment.getCost();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param forceRecompute {@inheritDoc}
+     *                       Since the incrementally updated cost is always exact,
+     *                       recomputing it is only useful for checking purposes.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double getCost(final boolean forceRecompute) {
+        return forceRecompute ? assignment.computeCost() : assignment.getCost();
+    }
+
+    /**
+     * Gets a copy of the assignment representing this solution.
+     * @return a copy of the assignment representing this solution
+     */
+    public CloudletToVmAssignment getAssignment() {
+        return new CloudletToVmAssignment(assignment);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerHeuristic;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+import static org.cloudsimplus.examples.brokers.DatacenterBrokersMappingComparison.*;
+
+/**
+ * An example comparing the mapping cost and solve time of the
+ * {@link CloudletToVmMappingParallelSimulatedAnnealing}, {@link CloudletToVmMappingParallelTabuSearch}
+ * and {@link CloudletToVmMappingParallelGeneticAlgorithm} for increasing numbers of Cloudlets,
+ * then running a simulation with a {@link DatacenterBrokerHeuristic} using each one of them.
+ *
+ * <p>All heuristics start from the same random initial solution and use the {@link ForkJoinPool#commonPool() common pool}.
+ * Their results are the same no matter the number of available processors,
+ * while the solve time drops on multi-core machines.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class ParallelHeuristicsComparisonExample {
+    private static final int[] CLOUDLETS = {100, 1000, 10_000};
+    private static final int SIMULATION_CLOUDLETS = 1000;
+    private static final int VM_MAX_PES = 4;
+    private static final int CLOUDLET_MAX_PES = 2;
+    private static final long SEED = 1;
+
+    public static void main(String[] args) {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf("Parallelism: %d%n", ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("| %9s | %-19s | %12s | %10s | %10s |%n", "Cloudlets", "Heuristic", "Initial cost", "Final cost", "Solve time");
+        for (final int cloudlets : CLOUDLETS) {
+            final var random = new Random(cloudlets);
+            final List<Vm> vmList = createVms(cloudlets / 2, random);
+            final List<Cloudlet> cloudletList = createCloudlets(cloudlets, random);
+            for (final IntFunction<CloudletToVmMappingParallelHeuristicAbstract> factory : heuristicFactories()) {
+                solve(factory.apply(cloudlets), vmList, cloudletList);
+            }
+        }
+
+        System.out.println();
+        for (final IntFunction<CloudletToVmMappingParallelHeuristicAbstract> factory : heuristicFactories()) {
+            runSimulation(factory.apply(SIMULATION_CLOUDLETS));
+        }
+    }
+
+    /**
+     * Creates functions to instantiate each heuristic for a given number of Cloudlets.
+     * @return the functions creating each heuristic
+     */
+    private static List<IntFunction<CloudletToVmMappingParallelHeuristicAbstract>> heuristicFactories() {
+        return List.of(
+            ParallelHeuristicsComparisonExample::newSimulatedAnnealing,
+            ParallelHeuristicsComparisonExample::newTabuSearch,
+            cloudlets -> new CloudletToVmMappingParallelGeneticAlgorithm(new UniformDistr(0, 1, SEED)));
+    }
+
+    private static CloudletToVmMappingParallelHeuristicAbstract newSimulatedAnnealing(final int cloudlets) {
+        final var heuristic = new CloudletToVmMappingParallelSimulatedAnnealing(SA_INITIAL_TEMPERATURE, new UniformDistr(0, 1, SEED));
+        heuristic.setColdTemperature(SA_COLD_TEMPERATURE);
+        heuristic.setCoolingRate(SA_COOLING_RATE);
+        heuristic.setSearchesByIteration(SA_NUMBER_OF_NEIGHBORHOOD_SEARCHES);
+        return heuristic;
+    }
+
+    /**
+     * Creates a Tabu Search which can move every Cloudlet a few times,
+     * since a single Cloudlet is moved at each iteration.
+     */
+    private static CloudletToVmMappingParallelHeuristicAbstract newTabuSearch(final int cloudlets) {
+        final var heuristic = new CloudletToVmMappingParallelTabuSearch(new UniformDistr(0, 1, SEED));
+        heuristic.setMaxIterations(cloudlets * 4);
+        return heuristic;
+    }
+
+    private static void solve(
+        final CloudletToVmMappingParallelHeuristicAbstract heuristic,
+        final List<Vm> vmList, final List<Cloudlet> cloudletList)
+    {
+        heuristic.setVmList(vmList);
+        heuristic.setCloudletList(cloudletList);
+        final double finalCost = heuristic.solve().getCost();
+        System.out.printf(
+            "| %9d | %-19s | %12.0f | %10.0f | %8.2f s |%n",
+            cloudletList.size(), heuristic.getClass().getSimpleName().replace("CloudletToVmMappingParallel", ""),
+            heuristic.getInitialSolution().getCost(), finalCost, heuristic.getSolveTime());
+    }
+
+    /**
+     * Runs a simulation where Cloudlets are mapped to VMs by a given heuristic.
+     */
+    private static void runSimulation(final CloudletToVmMappingParallelHeuristicAbstract heuristic) {
+        final var random = new Random(SEED);
+        final var simulation = new CloudSim();
+        new DatacenterSimple(simulation, createHosts(SIMULATION_CLOUDLETS / 8), new VmAllocationPolicySimple());
+
+        final var broker = new DatacenterBrokerHeuristic(simulation).setHeuristic(heuristic);
+        broker.submitVmList(createVms(SIMULATION_CLOUDLETS / 2, random));
+        broker.submitCloudletList(createCloudlets(SIMULATION_CLOUDLETS, random));
+        simulation.start();
+
+        System.out.printf(
+            "Simulation with a %s using the %s: %d Cloudlets finished. Mapping cost: %.0f%n",
+            broker.getClass().getSimpleName(), heuristic.getClass().getSimpleName(),
+            broker.getCloudletFinishedList().size(), heuristic.getBestSolutionSoFar().getCost());
+    }
+
+    private static List<Host> createHosts(final int hosts) {
+        final List<Host> list = new ArrayList<>(hosts);
+        for (int i = 0; i < hosts; i++) {
+            final List<Pe> peList = new ArrayList<>(VM_MAX_PES * 4);
+            for (int pe = 0; pe < VM_MAX_PES * 4; pe++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            list.add(new HostSimple(20480, 100000, 1000000, peList));
+        }
+
+        return list;
+    }
+
+    private static List<Vm> createVms(final int vms, final Random random) {
+        final List<Vm> list = new ArrayList<>(vms);
+        for (int i = 0; i < vms; i++) {
+            list.add(new VmSimple(i, 1000, 1 + random.nextInt(VM_MAX_PES)).setRam(512).setBw(1000).setSize(10000));
+        }
+
+        return list;
+    }
+
+    private static List<Cloudlet> createCloudlets(final int cloudlets, final Random random) {
+        final List<Cloudlet> list = new ArrayList<>(cloudlets);
+        for (int i = 0; i < cloudlets; i++) {
+            list.add(new CloudletSimple(i, 10_000, 1 + random.nextInt(CLOUDLET_MAX_PES)).setSizes(1024));
+        }
+
+        return list;
+    }
+}
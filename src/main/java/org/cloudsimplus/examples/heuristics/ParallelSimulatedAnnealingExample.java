@@ -0,0 +1,161 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.heuristics;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerHeuristic;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.examples.brokers.DatacenterBrokersMappingComparison;
+import org.cloudsimplus.heuristics.CloudletToVmMappingHeuristic;
+import org.cloudsimplus.heuristics.CloudletToVmMappingSimulatedAnnealing;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.cloudsimplus.examples.brokers.DatacenterBrokersMappingComparison.*;
+
+/**
+ * An example comparing the {@link CloudletToVmMappingSimulatedAnnealing}
+ * with the {@link CloudletToVmMappingParallelSimulatedAnnealing}, using the same parameters
+ * as the {@link DatacenterBrokersMappingComparison}, for increasing numbers of Cloudlets.
+ * Since the regular heuristic copies and re-costs the whole solution for every neighbor,
+ * it's just executed for up to {@link #MAX_CLOUDLETS_FOR_REGULAR_HEURISTIC} Cloudlets.
+ * At the end, a simulation is run using a {@link DatacenterBrokerHeuristic} with the parallel heuristic,
+ * showing it's plugged into the broker in the same way as the regular one.
+ *
+ * @author Ishak Megatli
+ */
+public class ParallelSimulatedAnnealingExample {
+    private static final int[] CLOUDLETS = {100, 1000, 10_000};
+    private static final int MAX_CLOUDLETS_FOR_REGULAR_HEURISTIC = 1000;
+    private static final int VM_MAX_PES = 4;
+    private static final int CLOUDLET_MAX_PES = 2;
+    private static final long SEED = 1;
+
+    public static void main(String[] args) {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf("| %9s | %-20s | %12s | %10s | %10s |%n", "Cloudlets", "Heuristic", "Initial cost", "Final cost", "Solve time");
+        for (final int cloudlets : CLOUDLETS) {
+            final var random = new Random(cloudlets);
+            final List<Vm> vmList = createVms(cloudlets / 2, random);
+            final List<Cloudlet> cloudletList = createCloudlets(cloudlets, random);
+            if (cloudlets <= MAX_CLOUDLETS_FOR_REGULAR_HEURISTIC) {
+                solve(new CloudletToVmMappingSimulatedAnnealing(SA_INITIAL_TEMPERATURE, new UniformDistr(0, 1, SEED)), vmList, cloudletList);
+            }
+
+            solve(newParallelHeuristic(), vmList, cloudletList);
+        }
+
+        runSimulation();
+    }
+
+    private static CloudletToVmMappingParallelSimulatedAnnealing newParallelHeuristic() {
+        final var heuristic = new CloudletToVmMappingParallelSimulatedAnnealing(SA_INITIAL_TEMPERATURE, new UniformDistr(0, 1, SEED));
+        heuristic.setColdTemperature(SA_COLD_TEMPERATURE);
+        heuristic.setCoolingRate(SA_COOLING_RATE);
+        heuristic.setSearchesByIteration(SA_NUMBER_OF_NEIGHBORHOOD_SEARCHES);
+        return heuristic;
+    }
+
+    private static void solve(final CloudletToVmMappingHeuristic heuristic, final List<Vm> vmList, final List<Cloudlet> cloudletList) {
+        if (heuristic instanceof CloudletToVmMappingSimulatedAnnealing regular) {
+            regular.setColdTemperature(SA_COLD_TEMPERATURE);
+            regular.setCoolingRate(SA_COOLING_RATE);
+            heuristic.setSearchesByIteration(SA_NUMBER_OF_NEIGHBORHOOD_SEARCHES);
+        }
+
+        heuristic.setVmList(vmList);
+        heuristic.setCloudletList(cloudletList);
+        final double finalCost = heuristic.solve().getCost();
+        System.out.printf(
+            "| %9d | %-20s | %12.0f | %10.0f | %8.2f s |%n",
+            cloudletList.size(), heuristic instanceof CloudletToVmMappingSimulatedAnnealing ? "Simulated Annealing" : "Parallel SA",
+            heuristic.getInitialSolution().getCost(), finalCost, heuristic.getSolveTime());
+    }
+
+    /**
+     * Runs a simulation where Cloudlets are mapped to VMs by the parallel heuristic.
+     */
+    private static void runSimulation() {
+        final int cloudlets = 1000;
+        final var random = new Random(SEED);
+        final var simulation = new CloudSim();
+        new DatacenterSimple(simulation, createHosts(cloudlets / 8), new VmAllocationPolicySimple());
+
+        final var heuristic = newParallelHeuristic();
+        final var broker = new DatacenterBrokerHeuristic(simulation).setHeuristic(heuristic);
+        broker.submitVmList(createVms(cloudlets / 2, random));
+        broker.submitCloudletList(createCloudlets(cloudlets, random));
+        simulation.start();
+
+        System.out.printf(
+            "%nSimulation with a %s using the %s: %d Cloudlets finished. Mapping cost: %.0f%n",
+            broker.getClass().getSimpleName(), heuristic.getClass().getSimpleName(),
+            broker.getCloudletFinishedList().size(), heuristic.getBestSolutionSoFar().getCost());
+    }
+
+    private static List<Host> createHosts(final int hosts) {
+        final List<Host> list = new ArrayList<>(hosts);
+        for (int i = 0; i < hosts; i++) {
+            final List<Pe> peList = new ArrayList<>(VM_MAX_PES * 4);
+            for (int pe = 0; pe < VM_MAX_PES * 4; pe++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            list.add(new HostSimple(20480, 100000, 1000000, peList));
+        }
+
+        return list;
+    }
+
+    private static List<Vm> createVms(final int vms, final Random random) {
+        final List<Vm> list = new ArrayList<>(vms);
+        for (int i = 0; i < vms; i++) {
+            list.add(new VmSimple(i, 1000, 1 + random.nextInt(VM_MAX_PES)).setRam(512).setBw(1000).setSize(10000));
+        }
+
+        return list;
+    }
+
+    private static List<Cloudlet> createCloudlets(final int cloudlets, final Random random) {
+        final List<Cloudlet> list = new ArrayList<>(cloudlets);
+        for (int i = 0; i < cloudlets; i++) {
+            list.add(new CloudletSimple(i, 10_000, 1 + random.nextInt(CLOUDLET_MAX_PES)).setSizes(1024));
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Examples of {@link org.cloudsimplus.heuristics.CloudletToVmMappingHeuristic} implementations
+ * to be used by a {@link org.cloudbus.cloudsim.brokers.DatacenterBrokerHeuristic}.
+ * They represent a mapping as an array of VM indexes (one for each Cloudlet)
+ * into a {@link org.cloudsimplus.examples.heuristics.CloudletToVmAssignment},
+ * which keeps the PEs requested from each VM, so that the cost of moving Cloudlets
+ * is computed in constant time, instead of re-costing the whole mapping.
+ * Candidate solutions are evaluated in parallel over a {@link java.util.concurrent.ForkJoinPool}.
+ *
+ * @author Ishak Megatli
+ */
+package org.cloudsimplus.examples.heuristics;
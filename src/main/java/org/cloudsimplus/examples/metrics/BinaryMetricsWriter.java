@@ -0,0 +1,75 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes metrics in a compact binary format using a {@link DataOutputStream}:
+ * the header is the number of gauges followed by their names (in modified UTF-8),
+ * then each row is the simulation time followed by the value of each gauge, all as doubles.
+ *
+ * @author Ishak Megatli
+ */
+public class BinaryMetricsWriter implements MetricsWriter {
+    private final DataOutputStream out;
+
+    /**
+     * Creates a binary writer.
+     * @param out where to write the metrics (which will be buffered)
+     */
+    public BinaryMetricsWriter(final OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    public void writeHeader(final List<String> gaugeNames) throws IOException {
+        out.writeInt(gaugeNames.size());
+        for (final String name : gaugeNames) {
+            out.writeUTF(name);
+        }
+    }
+
+    @Override
+    public void writeRow(final double time, final double[] values, final int offset, final int length) throws IOException {
+        out.writeDouble(time);
+        for (int i = offset; i < offset + length; i++) {
+            out.writeDouble(values[i]);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes metrics as CSV, where the first column is the simulation time
+ * and each other column is a gauge.
+ *
+ * @author Ishak Megatli
+ */
+public class CsvMetricsWriter implements MetricsWriter {
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Creates a CSV writer.
+     * @param writer where to write the CSV (which will be buffered)
+     */
+    public CsvMetricsWriter(final Writer writer) {
+        this.writer = new BufferedWriter(Objects.requireNonNull(writer));
+    }
+
+    @Override
+    public void writeHeader(final List<String> gaugeNames) throws IOException {
+        writer.write("time");
+        for (final String name : gaugeNames) {
+            writer.write(',');
+            writer.write(name);
+        }
+
+        writer.write(System.lineSeparator());
+    }
+
+    @Override
+    public void writeRow(final double time, final double[] values, final int offset, final int length) throws IOException {
+        line.setLength(0);
+        line.append(time);
+        for (int i = offset; i < offset + length; i++) {
+            line.append(',').append(values[i]);
+        }
+
+        line.append(System.lineSeparator());
+        writer.append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.metrics;
+
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Samples registered gauges (such as VM CPU usage or Host power) at a given period
+ * of simulation time and writes them to a {@link MetricsWriter} in a background thread.
+ * It's an alternative to formatting and printing metrics inside a clock tick listener,
+ * which is executed in the simulation thread.
+ *
+ * <p>Gauges are read in the simulation thread, since the simulation state is not thread-safe,
+ * but values are just copied into a batch of primitive arrays.
+ * When a batch is full, it's handed to the background thread to be written,
+ * while the simulation keeps filling another batch.
+ * Batches are reused, so no objects are created for each sample.
+ * If the writer cannot keep up with the simulation, the simulation thread waits
+ * for a batch to be released.</p>
+ *
+ * <p>All gauges must be registered before the first sample.
+ * After the simulation finishes, {@link #close()} must be called
+ * to write the remaining samples and close the writer.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class MetricsSink implements AutoCloseable {
+    /**
+     * The default number of rows in each batch.
+     */
+    public static final int DEF_BATCH_SIZE = 256;
+
+    /**
+     * The number of batches that can be filled by the simulation
+     * while others are written.
+     */
+    private static final int BATCHES = 4;
+
+    /**
+     * A batch signaling the background thread to finish.
+     */
+    private static final Batch END = new Batch(0, 0);
+
+    private final MetricsWriter writer;
+    private final double period;
+    private final int batchSize;
+
+    private final List<String> gaugeNames = new ArrayList<>();
+    private final List<DoubleSupplier> gauges = new ArrayList<>();
+
+    private BlockingQueue<Batch> freeBatches;
+    private BlockingQueue<Batch> fullBatches;
+    private Batch currentBatch;
+    private Thread writerThread;
+
+    /**
+     * The first error thrown by the writer, which is re-thrown by the next {@link #sample(double)}
+     * and by {@link #close()}.
+     */
+    private volatile Throwable writerError;
+
+    private double nextSampleTime;
+    private long samples;
+    private boolean closed;
+
+    /**
+     * Creates a sink with the {@link #DEF_BATCH_SIZE default batch size}.
+     * @param writer the writer to output sampled metrics
+     * @param period the period (in seconds) to sample gauges or 0 to sample at every clock tick
+     */
+    public MetricsSink(final MetricsWriter writer, final double period) {
+        this(writer, period, DEF_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a sink.
+     * @param writer the writer to output sampled metrics
+     * @param period the period (in seconds) to sample gauges or 0 to sample at every clock tick
+     * @param batchSize the number of rows sent to the writer at once
+     */
+    public MetricsSink(final MetricsWriter writer, final double period, final int batchSize) {
+        if (period < 0) {
+            throw new IllegalArgumentException("period cannot be negative");
+        }
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than zero");
+        }
+
+        this.writer = Objects.requireNonNull(writer);
+        this.period = period;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Registers a gauge to be sampled.
+     * @param name the gauge name
+     * @param gauge a function that reads the current gauge value
+     * @return this sink
+     */
+    public MetricsSink addGauge(final String name, final DoubleSupplier gauge) {
+        if (currentBatch != null) {
+            throw new IllegalStateException("Gauges must be added before the first sample");
+        }
+
+        gaugeNames.add(Objects.requireNonNull(name));
+        gauges.add(Objects.requireNonNull(gauge));
+        return this;
+    }
+
+    /**
+     * Registers gauges for the CPU and RAM usage (in scale from 0 to 1) and the number of running Cloudlets of a VM.
+     * @param vm the VM to sample
+     * @return this sink
+     */
+    public MetricsSink addVmGauges(final Vm vm) {
+        final String prefix = "vm" + vm.getId();
+        return addGauge(prefix + ".cpu", vm::getCpuPercentUtilization)
+              .addGauge(prefix + ".ram", () -> vm.getRam().getPercentUtilization())
+              .addGauge(prefix + ".cloudlets", () -> vm.getCloudletScheduler().getCloudletExecList().size());
+    }
+
+    /**
+     * Registers gauges for the CPU usage (in scale from 0 to 1) and the power consumption (in Watts) of a Host.
+     * @param host the Host to sample
+     * @return this sink
+     */
+    public MetricsSink addHostGauges(final Host host) {
+        final String prefix = "host" + host.getId();
+        return addGauge(prefix + ".cpu", host::getCpuPercentUtilization)
+              .addGauge(prefix + ".power", () -> host.getPowerModel().getPower());
+    }
+
+    /**
+     * Starts sampling gauges at every clock tick of a simulation, respecting the sampling period.
+     * @param simulation the simulation to sample
+     * @return this sink
+     */
+    public MetricsSink attach(final Simulation simulation) {
+        simulation.addOnClockTickListener(this::onClockTick);
+        return this;
+    }
+
+    private void onClockTick(final EventInfo info) {
+        final double time = info.getTime();
+        if (time < nextSampleTime || closed) {
+            return;
+        }
+
+        nextSampleTime = period > 0 ? (Math.floor(time / period) + 1) * period : time;
+        sample(time);
+    }
+
+    /**
+     * Reads all gauges at a given time.
+     * It's called at each sampling period when the sink is {@link #attach(Simulation) attached} to a simulation,
+     * but can be called directly too.
+     * @param time the current simulation time
+     * @throws UncheckedIOException if the writer has failed with an {@link IOException}
+     * @throws IllegalStateException if the sink is closed or the writer has failed with any other error
+     */
+    public void sample(final double time) {
+        if (closed) {
+            throw new IllegalStateException("The sink is already closed");
+        }
+
+        if (writerError != null) {
+            throw newWriterException();
+        }
+
+        if (currentBatch == null) {
+            start();
+        }
+
+        final Batch batch = currentBatch;
+        batch.times[batch.rows] = time;
+        final int offset = batch.rows * gauges.size();
+        for (int i = 0; i < gauges.size(); i++) {
+            batch.values[offset + i] = gauges.get(i).getAsDouble();
+        }
+
+        samples++;
+        if (++batch.rows == batchSize) {
+            fullBatches.add(batch);
+            currentBatch = takeFreeBatch();
+        }
+    }
+
+    /**
+     * Creates the batches and starts the background thread.
+     */
+    private void start() {
+        freeBatches = new ArrayBlockingQueue<>(BATCHES);
+        fullBatches = new ArrayBlockingQueue<>(BATCHES + 1);
+        for (int i = 0; i < BATCHES; i++) {
+            freeBatches.add(new Batch(batchSize, gauges.size()));
+        }
+
+        currentBatch = takeFreeBatch();
+        writerThread = new Thread(this::writeBatches, getClass().getSimpleName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private Batch takeFreeBatch() {
+        try {
+            return freeBatches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting the metrics writer", e);
+        }
+    }
+
+    /**
+     * Writes full batches until the {@link #END} one is received, releasing them to be filled again.
+     * If the writer fails (even with an unchecked exception), the error is stored
+     * and remaining batches are just released, so that the simulation doesn't block.
+     */
+    private void writeBatches() {
+        try {
+            writeHeader();
+            Batch batch;
+            while ((batch = fullBatches.take()) != END) {
+                writeBatch(batch);
+                batch.rows = 0;
+                freeBatches.add(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeHeader() {
+        try {
+            writer.writeHeader(Collections.unmodifiableList(gaugeNames));
+        } catch (Throwable e) {
+            writerError = e;
+        }
+    }
+
+    private void writeBatch(final Batch batch) {
+        if (writerError != null) {
+            return;
+        }
+
+        final int length = gauges.size();
+        try {
+            for (int row = 0; row < batch.rows; row++) {
+                writer.writeRow(batch.times[row], batch.values, row * length, length);
+            }
+
+            writer.flush();
+        } catch (Throwable e) {
+            writerError = e;
+        }
+    }
+
+    /**
+     * Writes the remaining samples, waits for the background thread to finish and closes the writer.
+     * The writer is closed even if the current thread is interrupted while waiting.
+     * @throws UncheckedIOException if the writer failed at any time with an {@link IOException}
+     * @throws IllegalStateException if the writer failed at any time with any other error
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            if (writerThread != null) {
+                if (currentBatch.rows > 0) {
+                    fullBatches.add(currentBatch);
+                }
+
+                fullBatches.add(END);
+                writerThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeWriter();
+        }
+
+        if (writerError != null) {
+            throw newWriterException();
+        }
+    }
+
+    private void closeWriter() {
+        try {
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            if (writerError == null) {
+                writerError = e;
+            }
+        }
+    }
+
+    private RuntimeException newWriterException() {
+        final String msg = "Error writing metrics";
+        return writerError instanceof IOException e ?
+                    new UncheckedIOException(msg, e) :
+                    new IllegalStateException(msg, writerError);
+    }
+
+    /**
+     * Gets the names of the registered gauges.
+     * @return the names of the registered gauges
+     */
+    public List<String> getGaugeNames() {
+        return Collections.unmodifiableList(gaugeNames);
+    }
+
+    /**
+     * Gets the number of times gauges were sampled.
+     * @return the number of times gauges were sampled
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Rows of sampled values stored into primitive arrays,
+     * where the values of each row are stored sequentially.
+     */
+    private static final class Batch {
+        private final double[] times;
+        private final double[] values;
+        private int rows;
+
+        private Batch(final int rows, final int gauges) {
+            this.times = new double[rows];
+            this.values = new double[rows * gauges];
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.metrics;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.power.models.PowerModelHostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.listeners.EventInfo;
+import org.cloudsimplus.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An example comparing two ways of exporting the CPU and RAM usage of hundreds of VMs
+ * and the power consumption of Hosts at every clock tick:
+ * <ul>
+ *   <li>formatting and printing each VM state with {@code printf} inside a clock tick listener,
+ *   as done in many examples;</li>
+ *   <li>registering gauges in a {@link MetricsSink}, which just copies their values
+ *   in the simulation thread and writes them as CSV in a background thread.</li>
+ * </ul>
+ * Both runs write into temporary files, which are deleted at the end.
+ * The execution time of the simulation without exporting metrics is shown for comparison.
+ *
+ * @author Ishak Megatli
+ */
+public class MetricsSinkExample {
+    private static final int HOSTS = 100;
+    private static final int HOST_PES = 8;
+
+    private static final int VMS = 400;
+    private static final int VM_PES = 2;
+
+    private static final int CLOUDLET_LENGTH = 1_000_000;
+    private static final int SCHEDULING_INTERVAL = 1;
+
+    private final List<Host> hostList = new ArrayList<>(HOSTS);
+    private final List<Vm> vmList = new ArrayList<>(VMS);
+    private PrintStream printStream;
+    private long ticks;
+
+    public static void main(String[] args) throws IOException {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf("| %-18s | %10s | %12s | %10s |%n", "Run", "Samples", "File size", "Exec time");
+        new MetricsSinkExample().runWithoutMetrics();
+        new MetricsSinkExample().runPrintingInListener();
+        new MetricsSinkExample().runWithMetricsSink();
+    }
+
+    private void runWithoutMetrics() {
+        final double startSecs = TimeUtil.currentTimeSecs();
+        createSimulation().start();
+        System.out.printf("| %-18s | %10s | %12s | %8.2f s |%n", "No metrics", "-", "-", TimeUtil.elapsedSeconds(startSecs));
+    }
+
+    private void runPrintingInListener() throws IOException {
+        final Path file = Files.createTempFile("metrics", ".txt");
+        final double startSecs = TimeUtil.currentTimeSecs();
+        try (var out = new PrintStream(new BufferedOutputStream(new FileOutputStream(file.toFile())))) {
+            printStream = out;
+            final CloudSim simulation = createSimulation();
+            simulation.addOnClockTickListener(this::printVmsState);
+            simulation.start();
+        }
+
+        printResults("printf in listener", ticks, file, startSecs);
+    }
+
+    private void printVmsState(final EventInfo info) {
+        ticks++;
+        for (final Vm vm : vmList) {
+            printStream.printf(
+                "%.2f: Vm %d CPU usage: %.2f%% RAM usage: %.2f%% Running Cloudlets: %d%n",
+                info.getTime(), vm.getId(), vm.getCpuPercentUtilization() * 100,
+                vm.getRam().getPercentUtilization() * 100, vm.getCloudletScheduler().getCloudletExecList().size());
+        }
+
+        for (final Host host : hostList) {
+            printStream.printf("%.2f: Host %d power: %.2f W%n", info.getTime(), host.getId(), host.getPowerModel().getPower());
+        }
+    }
+
+    private void runWithMetricsSink() throws IOException {
+        final Path file = Files.createTempFile("metrics", ".csv");
+        final double startSecs = TimeUtil.currentTimeSecs();
+        final CloudSim simulation = createSimulation();
+        final long samples;
+        try (var sink = new MetricsSink(new CsvMetricsWriter(new FileWriter(file.toFile())), 0)) {
+            vmList.forEach(sink::addVmGauges);
+            hostList.forEach(sink::addHostGauges);
+            sink.attach(simulation);
+            simulation.start();
+            samples = sink.getSamples();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        printResults("MetricsSink", samples, file, startSecs);
+    }
+
+    private static void printResults(final String run, final long samples, final Path file, final double startSecs) throws IOException {
+        System.out.printf(
+            "| %-18s | %10d | %9.1f MB | %8.2f s |%n",
+            run, samples, Files.size(file) / 1024.0 / 1024.0, TimeUtil.elapsedSeconds(startSecs));
+        Files.delete(file);
+    }
+
+    private CloudSim createSimulation() {
+        final var simulation = new CloudSim();
+        createHosts();
+        new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple()).setSchedulingInterval(SCHEDULING_INTERVAL);
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        createVms();
+        broker.submitVmList(vmList);
+        broker.submitCloudletList(createCloudlets());
+        return simulation;
+    }
+
+    private void createHosts() {
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            for (int pe = 0; pe < HOST_PES; pe++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            final var host = new HostSimple(20480, 100000, 1000000, peList);
+            host.setPowerModel(new PowerModelHostSimple(250, 50));
+            hostList.add(host);
+        }
+    }
+
+    private void createVms() {
+        for (int i = 0; i < VMS; i++) {
+            vmList.add(new VmSimple(i, 1000, VM_PES).setRam(512).setBw(1000).setSize(10000));
+        }
+    }
+
+    private List<Cloudlet> createCloudlets() {
+        final List<Cloudlet> list = new ArrayList<>(VMS);
+        final var utilizationRamBw = new UtilizationModelDynamic(0.1);
+        for (int i = 0; i < VMS; i++) {
+            final Cloudlet cloudlet =
+                new CloudletSimple(i, CLOUDLET_LENGTH, VM_PES)
+                    .setUtilizationModelCpu(new UtilizationModelStochastic(i))
+                    .setUtilizationModelRam(utilizationRamBw)
+                    .setUtilizationModelBw(utilizationRamBw);
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes metrics sampled by a {@link MetricsSink}.
+ * Methods are called only by the sink background thread,
+ * thus implementations don't need to be thread-safe.
+ *
+ * @author Ishak Megatli
+ */
+public interface MetricsWriter extends Closeable {
+    /**
+     * Writes the names of the gauges, before any row.
+     * @param gaugeNames the names of the gauges, in the same order of the values in each row
+     */
+    void writeHeader(List<String> gaugeNames) throws IOException;
+
+    /**
+     * Writes the values of all gauges sampled at a given time.
+     * @param time the simulation time the gauges were sampled
+     * @param values an array containing the values of all rows in a batch
+     * @param offset the position of the first value of the row inside the array
+     * @param length the number of values in the row
+     */
+    void writeRow(double time, double[] values, int offset, int length) throws IOException;
+
+    /**
+     * Flushes the rows written so far, after each batch.
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,284 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.metrics;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.builders.tables.CsvTable;
+import org.cloudsimplus.builders.tables.MarkdownTable;
+import org.cloudsimplus.builders.tables.Table;
+import org.cloudsimplus.builders.tables.TableColumn;
+import org.cloudsimplus.builders.tables.TextTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link CloudletsTableBuilder} that writes each row as soon as a Cloudlet finishes,
+ * instead of holding all finished Cloudlets and formatting the whole table at the end.
+ * Rows are formatted into a reusable buffer and written to a {@link WritableByteChannel}
+ * (such as a file) when the buffer is full.
+ * The output is the same of the regular builder, but rows are in the order Cloudlets finish.
+ *
+ * <p>Columns can be customized the same way as for the regular builder,
+ * before the first Cloudlet finishes.
+ * Just {@link CsvTable}, {@link TextTable} and {@link MarkdownTable} are supported.</p>
+ *
+ * <p>Cloudlets to be written must be {@link #subscribe(Collection) subscribed} before the simulation starts.
+ * When it finishes, {@link #build()} (or {@link #close()}) must be called to write
+ * the remaining rows and close the channel.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class StreamingCloudletsTableBuilder extends CloudletsTableBuilder implements AutoCloseable {
+    /**
+     * Number of characters formatted before writing them to the channel.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private final WritableByteChannel channel;
+    private final StringBuilder text = new StringBuilder(BUFFER_SIZE + 1024);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE * 2);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final List<Object> row = new ArrayList<>();
+
+    private boolean headerWritten;
+    private boolean closed;
+    private long rows;
+
+    /**
+     * Creates a builder writing a {@link MarkdownTable} to a channel.
+     * @param channel where to write the table
+     */
+    public StreamingCloudletsTableBuilder(final WritableByteChannel channel) {
+        this(channel, new MarkdownTable());
+    }
+
+    /**
+     * Creates a builder writing a table to a channel.
+     * @param channel where to write the table
+     * @param table the table defining the output format
+     */
+    public StreamingCloudletsTableBuilder(final WritableByteChannel channel, final Table table) {
+        super(List.of(), table);
+        if (!(table instanceof CsvTable)) {
+            throw new IllegalArgumentException("Just CSV, Text and Markdown tables are supported");
+        }
+
+        this.channel = channel;
+    }
+
+    /**
+     * Creates a builder writing a table to a file.
+     * @param file the file to write the table, which is overwritten if it exists
+     * @param table the table defining the output format
+     * @return the new builder
+     */
+    public static StreamingCloudletsTableBuilder of(final Path file, final Table table) {
+        try {
+            final var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new StreamingCloudletsTableBuilder(channel, table);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a row for each given Cloudlet as soon as it finishes.
+     * @param cloudlets the Cloudlets to write
+     * @return this builder
+     */
+    public StreamingCloudletsTableBuilder subscribe(final Collection<? extends Cloudlet> cloudlets) {
+        cloudlets.forEach(cloudlet -> cloudlet.addOnFinishListener(info -> write(info.getCloudlet())));
+        return this;
+    }
+
+    /**
+     * Formats a row for a Cloudlet, writing the buffered rows to the channel if the buffer is full.
+     * @param cloudlet the Cloudlet to write
+     */
+    public void write(final Cloudlet cloudlet) {
+        if (closed) {
+            throw new IllegalStateException("The table is already built");
+        }
+
+        if (!headerWritten) {
+            appendHeader();
+            headerWritten = true;
+        }
+
+        row.clear();
+        addDataToRow(cloudlet, row);
+        text.append(rowOpening());
+        final List<TableColumn> columns = getTable().getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            text.append(columns.get(i).generateData(row.get(i)));
+        }
+
+        text.append(NEW_LINE);
+        rows++;
+        if (text.length() >= BUFFER_SIZE) {
+            flushText();
+        }
+    }
+
+    /**
+     * Writes the remaining rows and the table closing, then closes the channel.
+     */
+    @Override
+    public void build() {
+        if (closed) {
+            return;
+        }
+
+        if (!headerWritten) {
+            appendHeader();
+        }
+
+        if (getTable() instanceof TextTable) {
+            appendHorizontalLine();
+        }
+
+        flushText();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        build();
+    }
+
+    /**
+     * Appends the title and column headers the same way the table does when printed.
+     */
+    private void appendHeader() {
+        final Table table = getTable();
+        if (!isCsv()) {
+            if (table.getTitle().isEmpty()) {
+                table.setTitle("SIMULATION RESULTS");
+            }
+
+            final int indentation = Math.max(0, (headerLength() - table.getTitle().length()) / 2);
+            text.append(NEW_LINE).append(NEW_LINE).append(" ".repeat(indentation)).append(table.getTitle()).append(NEW_LINE).append(NEW_LINE);
+        }
+
+        text.append(rowOpening());
+        table.getColumns().forEach(col -> text.append(col.generateTitleHeader()));
+        text.append(NEW_LINE);
+        if (table.getColumns().stream().anyMatch(col -> !col.getSubTitle().isBlank())) {
+            if (table instanceof MarkdownTable) {
+                appendMarkdownSubtitleLine();
+            }
+
+            text.append(rowOpening());
+            table.getColumns().forEach(col -> text.append(col.generateSubtitleHeader()));
+            text.append(NEW_LINE);
+        }
+
+        if (table instanceof TextTable) {
+            appendHorizontalLine();
+        }
+    }
+
+    private void appendMarkdownSubtitleLine() {
+        final Table table = getTable();
+        text.append(rowOpening());
+        for (int i = 0; i < table.getColumns().size(); i++) {
+            if (i > 0) {
+                text.append(table.getColumnSeparator());
+            }
+
+            text.append("-".repeat(table.getColumns().get(i).getTitle().length()));
+        }
+
+        text.append(NEW_LINE);
+    }
+
+    private void appendHorizontalLine() {
+        text.append("-".repeat(headerLength())).append(NEW_LINE);
+    }
+
+    private int headerLength() {
+        return getTable().getColumns().stream().mapToInt(col -> col.generateTitleHeader().length()).sum();
+    }
+
+    private boolean isCsv() {
+        return !(getTable() instanceof TextTable || getTable() instanceof MarkdownTable);
+    }
+
+    private String rowOpening() {
+        return getTable() instanceof MarkdownTable ? getTable().getColumnSeparator() : "";
+    }
+
+    /**
+     * Encodes the formatted text and writes it to the channel.
+     */
+    private void flushText() {
+        final CharBuffer chars = CharBuffer.wrap(text);
+        try {
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, buffer, true);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                buffer.clear();
+            } while (result.isOverflow());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        encoder.reset();
+        text.setLength(0);
+    }
+
+    /**
+     * Gets the number of rows written so far.
+     * @return the number of rows written so far
+     */
+    public long getRows() {
+        return rows;
+    }
+}
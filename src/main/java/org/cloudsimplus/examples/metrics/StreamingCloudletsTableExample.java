@@ -0,0 +1,172 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.metrics;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.builders.tables.TextTable;
+import org.cloudsimplus.builders.tables.TextTableColumn;
+import org.cloudsimplus.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An example showing how to write the results of {@link #CLOUDLETS} Cloudlets
+ * using a {@link StreamingCloudletsTableBuilder}, which writes each row to a file
+ * as soon as a Cloudlet finishes, instead of building the whole table at the end
+ * using a {@link CloudletsTableBuilder}.
+ * Both runs add the same custom columns and write to temporary files,
+ * which are deleted at the end.
+ * VMs use a {@link CloudletSchedulerSpaceShared} so that the large number of Cloudlets
+ * doesn't dominate the simulation time.
+ *
+ * @author Ishak Megatli
+ */
+public class StreamingCloudletsTableExample {
+    private static final int HOSTS = 100;
+    private static final int HOST_PES = 8;
+
+    private static final int VMS = 400;
+    private static final int VM_PES = 2;
+
+    private static final int CLOUDLETS = 100_000;
+    private static final int CLOUDLET_LENGTH = 10_000;
+
+    private final List<Cloudlet> cloudletList = new ArrayList<>(CLOUDLETS);
+
+    public static void main(String[] args) throws IOException {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf("| %-24s | %10s | %12s | %10s |%n", "Run", "Rows", "File size", "Exec time");
+        new StreamingCloudletsTableExample().runWithRegularTable();
+        new StreamingCloudletsTableExample().runWithStreamingTable();
+    }
+
+    private void runWithRegularTable() throws IOException {
+        final Path file = Files.createTempFile("cloudlets", ".txt");
+        final double startSecs = TimeUtil.currentTimeSecs();
+        final DatacenterBroker broker = createSimulation();
+        broker.getSimulation().start();
+
+        final List<Cloudlet> finishedList = broker.getCloudletFinishedList();
+        try (var out = new PrintStream(new BufferedOutputStream(new FileOutputStream(file.toFile())))) {
+            final var table = new TextTable();
+            table.setPrintStream(out);
+            new CloudletsTableBuilder(finishedList, table)
+                .addColumn(7, new TextTableColumn("Waiting Time", "Seconds").setFormat("%.0f"), Cloudlet::getWaitingTime)
+                .build();
+        }
+
+        printResults("CloudletsTableBuilder", finishedList.size(), file, startSecs);
+    }
+
+    private void runWithStreamingTable() throws IOException {
+        final Path file = Files.createTempFile("cloudlets", ".txt");
+        final double startSecs = TimeUtil.currentTimeSecs();
+        final DatacenterBroker broker = createSimulation();
+        final long rows;
+        try (var tableBuilder = StreamingCloudletsTableBuilder.of(file, new TextTable())) {
+            tableBuilder.addColumn(7, new TextTableColumn("Waiting Time", "Seconds").setFormat("%.0f"), Cloudlet::getWaitingTime);
+            tableBuilder.subscribe(cloudletList);
+            broker.getSimulation().start();
+            rows = tableBuilder.getRows();
+        }
+
+        printResults("StreamingCloudletsTable", rows, file, startSecs);
+    }
+
+    private static void printResults(final String run, final long rows, final Path file, final double startSecs) throws IOException {
+        System.out.printf(
+            "| %-24s | %10d | %9.1f MB | %8.2f s |%n",
+            run, rows, Files.size(file) / 1024.0 / 1024.0, TimeUtil.elapsedSeconds(startSecs));
+        Files.delete(file);
+    }
+
+    private DatacenterBroker createSimulation() {
+        final var simulation = new CloudSim();
+        new DatacenterSimple(simulation, createHosts(), new VmAllocationPolicySimple());
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        createCloudlets();
+        broker.submitVmList(createVms());
+        broker.submitCloudletList(cloudletList);
+        return broker;
+    }
+
+    private List<Host> createHosts() {
+        final List<Host> list = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            for (int pe = 0; pe < HOST_PES; pe++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            list.add(new HostSimple(20480, 100000, 1000000, peList));
+        }
+
+        return list;
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            final Vm vm = new VmSimple(i, 1000, VM_PES).setRam(512).setBw(1000).setSize(10000);
+            list.add(vm.setCloudletScheduler(new CloudletSchedulerSpaceShared()));
+        }
+
+        return list;
+    }
+
+    private void createCloudlets() {
+        final var utilizationRamBw = new UtilizationModelDynamic(0.001);
+        for (int i = 0; i < CLOUDLETS; i++) {
+            final Cloudlet cloudlet =
+                new CloudletSimple(i, CLOUDLET_LENGTH, 1)
+                    .setUtilizationModelRam(utilizationRamBw)
+                    .setUtilizationModelBw(utilizationRamBw);
+            cloudletList.add(cloudlet);
+        }
+    }
+}
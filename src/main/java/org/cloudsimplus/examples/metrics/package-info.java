@@ -0,0 +1,9 @@
+/**
+ * Classes and examples showing how to export metrics sampled along the simulation,
+ * such as VM CPU usage and Host power, without formatting and writing them
+ * in the simulation thread, and how to write simulation results
+ * as Cloudlets finish, instead of holding them until the end.
+ *
+ * @author Ishak Megatli
+ */
+package org.cloudsimplus.examples.metrics;
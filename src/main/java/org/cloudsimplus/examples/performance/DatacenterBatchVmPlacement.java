@@ -0,0 +1,157 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A Datacenter that places all VMs requested at the same simulation time
+ * as a single batch, instead of one VM at a time.
+ * The requests received at a given time are buffered and,
+ * after the last one, the VMs are sorted by a {@link #getVmComparator() comparator}
+ * (by default, in decreasing order of requested resources, giving a First Fit Decreasing placement
+ * when used with a First Fit policy) and placed in one pass by the
+ * {@link VmAllocationPolicy#allocateHostForVm(java.util.Collection)}.
+ *
+ * <p>If the broker is a {@link DatacenterBrokerBatchAck}, it receives a single
+ * acknowledgement with all its VMs of the batch. Otherwise, it receives one acknowledgement per VM,
+ * as sent by the {@link DatacenterSimple}.
+ * This way, placing 80,000 VMs creates 2 events besides the creation requests,
+ * instead of 80,000 acknowledgements.</p>
+ *
+ * <p>Brokers still send one creation request per VM, since the way
+ * a {@link DatacenterBroker} requests VM creation can't be changed by subclasses.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterBatchVmPlacement extends DatacenterSimple {
+    /**
+     * Sorts VMs in decreasing order of PEs, MIPS, RAM, BW and storage.
+     */
+    public static final Comparator<Vm> DECREASING_SIZE_COMPARATOR =
+        Comparator.comparingLong(Vm::getNumberOfPes)
+                  .thenComparingDouble(Vm::getMips)
+                  .thenComparingLong((Vm vm) -> vm.getRam().getCapacity())
+                  .thenComparingLong((Vm vm) -> vm.getBw().getCapacity())
+                  .thenComparingLong((Vm vm) -> vm.getStorage().getCapacity())
+                  .reversed();
+
+    /**
+     * The data of the event this Datacenter sends to itself to place the buffered VMs.
+     * Since it's sent just after the requests already in the event queue for the current time,
+     * all VMs requested at that time are placed together.
+     */
+    private static final Object PLACE_BATCH = new Object();
+
+    private List<Vm> vmBatch;
+    private Comparator<Vm> vmComparator;
+
+    public DatacenterBatchVmPlacement(
+        final Simulation simulation, final List<? extends Host> hostList,
+        final VmAllocationPolicy vmAllocationPolicy)
+    {
+        super(simulation, hostList, vmAllocationPolicy);
+        this.vmBatch = new ArrayList<>();
+        this.vmComparator = DECREASING_SIZE_COMPARATOR;
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        if(evt.getTag() != CloudSimTag.VM_CREATE_ACK) {
+            super.processEvent(evt);
+            return;
+        }
+
+        if(evt.getData() == PLACE_BATCH) {
+            placeVmBatch();
+            return;
+        }
+
+        if(vmBatch.isEmpty()) {
+            schedule(0, CloudSimTag.VM_CREATE_ACK, PLACE_BATCH);
+        }
+
+        vmBatch.add((Vm) evt.getData());
+    }
+
+    private void placeVmBatch() {
+        final List<Vm> batch = vmBatch;
+        vmBatch = new ArrayList<>();
+
+        final var sortedBatch = new ArrayList<>(batch);
+        sortedBatch.sort(vmComparator);
+        getVmAllocationPolicy().allocateHostForVm(sortedBatch);
+
+        // Acks are sent in request order, as the broker expects VMs to be created in that order
+        final Map<DatacenterBroker, List<Vm>> vmsByBroker = new LinkedHashMap<>();
+        for (final Vm vm : batch) {
+            if(vm.isCreated()) {
+                vm.updateProcessing(vm.getHost().getVmScheduler().getAllocatedMips(vm));
+            }
+
+            vmsByBroker.computeIfAbsent(vm.getBroker(), broker -> new ArrayList<>()).add(vm);
+        }
+
+        final double delay = getSimulation().getMinTimeBetweenEvents();
+        vmsByBroker.forEach((broker, vms) -> sendAcks(broker, vms, delay));
+    }
+
+    private void sendAcks(final DatacenterBroker broker, final List<Vm> vms, final double delay) {
+        if(broker instanceof DatacenterBrokerBatchAck) {
+            send(broker, delay, CloudSimTag.VM_CREATE_ACK, vms);
+            return;
+        }
+
+        vms.forEach(vm -> send(broker, delay, CloudSimTag.VM_CREATE_ACK, vm));
+    }
+
+    public Comparator<Vm> getVmComparator() {
+        return vmComparator;
+    }
+
+    /**
+     * Sets the comparator used to sort VMs in a batch before placing them.
+     * @param vmComparator the comparator to set
+     * @return this Datacenter
+     * @see #DECREASING_SIZE_COMPARATOR
+     */
+    public DatacenterBatchVmPlacement setVmComparator(final Comparator<Vm> vmComparator) {
+        this.vmComparator = Objects.requireNonNull(vmComparator);
+        return this;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.events.CloudSimEvent;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.List;
+
+/**
+ * A broker that accepts a single acknowledgement for the creation of a list of VMs,
+ * sent by a {@link DatacenterBatchVmPlacement}.
+ * The acknowledgement of each VM is then processed directly,
+ * without going through the simulation event queue.
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterBrokerBatchAck extends DatacenterBrokerSimple {
+    public DatacenterBrokerBatchAck(final CloudSim simulation) {
+        super(simulation);
+    }
+
+    public DatacenterBrokerBatchAck(final CloudSim simulation, final String name) {
+        super(simulation, name);
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        if(evt.getTag() == CloudSimTag.VM_CREATE_ACK && evt.getData() instanceof List<?> vms) {
+            vms.forEach(vm -> super.processEvent(new CloudSimEvent(0, evt.getSource(), this, CloudSimTag.VM_CREATE_ACK, (Vm) vm)));
+            return;
+        }
+
+        super.processEvent(evt);
+    }
+}
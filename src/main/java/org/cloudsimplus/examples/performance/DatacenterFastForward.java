@@ -0,0 +1,261 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletExecution;
+import org.cloudbus.cloudsim.core.CloudSimTag;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelPlanetLab;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A Datacenter that, instead of updating all Hosts at every {@link #getSchedulingInterval() scheduling interval},
+ * jumps straight to the time the next Cloudlet is expected to finish,
+ * when the CPU usage of running Cloudlets doesn't change along the time
+ * (such as for a {@link UtilizationModelFull}).
+ *
+ * <p>Periodic updates are just used while there are Cloudlets with time-varying
+ * CPU {@link UtilizationModel}s (such as {@link UtilizationModelStochastic} and {@link UtilizationModelPlanetLab}),
+ * and only Hosts running such Cloudlets are updated at every interval.
+ * The other Hosts are only updated when a Cloudlet of theirs is expected to finish
+ * or right before a Cloudlet is submitted, paused, resumed or canceled in some of their VMs.
+ * This way, the progress of running Cloudlets is always computed with
+ * the MIPS they had since the previous update.</p>
+ *
+ * <p>Since Hosts are not updated at every interval, they and their VMs
+ * have fewer utilization samples and update-processing notifications.
+ * It should not be used when a simulation depends on them, such as for
+ * VM migration, autoscaling or power consumption along the time.
+ * It's also assumed that RAM and BW utilization of Cloudlets doesn't exceed VM capacity.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterFastForward extends DatacenterSimple {
+    /**
+     * The time each Host was last updated.
+     */
+    private final Map<Host, Double> lastHostUpdateTimes = new IdentityHashMap<>();
+
+    /**
+     * The time each Host has to be updated again
+     * (when its next Cloudlet is expected to finish).
+     */
+    private final Map<Host, Double> nextHostUpdateTimes = new IdentityHashMap<>();
+
+    /**
+     * Checks if a CPU utilization model doesn't change along the time.
+     */
+    private Predicate<UtilizationModel> deterministicModelPredicate = UtilizationModelFull.class::isInstance;
+
+    /**
+     * Indicates if Hosts are being updated due to a
+     * {@link CloudSimTag#VM_UPDATE_CLOUDLET_PROCESSING} event,
+     * when just the ones due for update are processed.
+     */
+    private boolean updatingCloudletProcessing;
+
+    /**
+     * Indicates if there were Cloudlets with a time-varying CPU utilization model at the last update
+     * (or submitted after that), requiring periodic updates.
+     */
+    private boolean timeVarying;
+
+    private long skippedHostUpdates;
+
+    public DatacenterFastForward(final Simulation simulation, final List<? extends Host> hostList) {
+        super(simulation, hostList);
+    }
+
+    public DatacenterFastForward(final Simulation simulation, final List<? extends Host> hostList, final VmAllocationPolicy vmAllocationPolicy) {
+        super(simulation, hostList, vmAllocationPolicy);
+    }
+
+    @Override
+    protected double updateCloudletProcessing() {
+        updatingCloudletProcessing = true;
+        try {
+            return super.updateCloudletProcessing();
+        } finally {
+            updatingCloudletProcessing = false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * When processing a {@link CloudSimTag#VM_UPDATE_CLOUDLET_PROCESSING} event,
+     * just updates Hosts running time-varying Cloudlets or whose next Cloudlet is expected
+     * to finish by now. Otherwise, updates all Hosts.
+     */
+    @Override
+    protected double updateHostsProcessing() {
+        final double clock = getSimulation().clock();
+        final double tolerance = getSimulation().getMinTimeBetweenEvents();
+        double nextSimulationDelay = Double.MAX_VALUE;
+        boolean timeVaryingHosts = false;
+        for (final Host host : getHostList()) {
+            final double nextUpdateTime = nextHostUpdateTimes.getOrDefault(host, clock);
+            final double delay;
+            if (!updatingCloudletProcessing || isTimeVarying(host) || nextUpdateTime <= clock + tolerance || isIdleActive(host)) {
+                delay = updateHost(host, clock);
+                //Waiting Cloudlets may have started running during the update
+                timeVaryingHosts |= isTimeVarying(host);
+            } else {
+                skippedHostUpdates++;
+                delay = nextUpdateTime - clock;
+            }
+
+            nextSimulationDelay = Math.min(delay, nextSimulationDelay);
+        }
+
+        timeVarying = timeVaryingHosts;
+        final double minTimeBetweenEvents = getSimulation().getMinTimeBetweenEvents() + 0.01;
+        return nextSimulationDelay == 0 ? nextSimulationDelay : Math.max(nextSimulationDelay, minTimeBetweenEvents);
+    }
+
+    /**
+     * Updates the processing of a Host, recording when it has to be updated again.
+     * @return the delay until the next Cloudlet in the Host is expected to finish
+     */
+    private double updateHost(final Host host, final double clock) {
+        final double delay = host.updateProcessing(clock);
+        lastHostUpdateTimes.put(host, clock);
+        nextHostUpdateTimes.put(host, delay == Double.MAX_VALUE ? Double.MAX_VALUE : clock + delay);
+        return delay;
+    }
+
+    /**
+     * Updates a Host if it wasn't updated at the current time yet,
+     * so that the progress of its Cloudlets is computed before their MIPS change
+     * due to the submission, pause, resume or cancellation of a Cloudlet.
+     * Since that may change the time the next Cloudlet in the Host finishes,
+     * an update is scheduled for such a time.
+     * After the Cloudlet is processed, the Host has to be updated
+     * at the next {@link CloudSimTag#VM_UPDATE_CLOUDLET_PROCESSING} event,
+     * so its time for the next update is removed.
+     */
+    private void catchUp(final Host host) {
+        final double clock = getSimulation().clock();
+        if (host == Host.NULL || lastHostUpdateTimes.getOrDefault(host, -1.0) >= clock) {
+            return;
+        }
+
+        final double delay = updateHost(host, clock);
+        if (delay < Double.MAX_VALUE) {
+            final double minTimeBetweenEvents = getSimulation().getMinTimeBetweenEvents() + 0.01;
+            schedule(getCloudletProcessingUpdateInterval(Math.max(delay, minTimeBetweenEvents)), CloudSimTag.VM_UPDATE_CLOUDLET_PROCESSING);
+        }
+    }
+
+    /**
+     * Checks if a Host without VMs needs to be updated, so that it can be shut down
+     * after an {@link Host#getIdleShutdownDeadline() idle deadline}.
+     */
+    private boolean isIdleActive(final Host host) {
+        return host.isActive() && host.getVmList().isEmpty() && host.getIdleShutdownDeadline() >= 0;
+    }
+
+    private boolean isTimeVarying(final Host host) {
+        for (final Vm vm : host.getVmList()) {
+            for (final CloudletExecution cle : vm.getCloudletScheduler().getCloudletExecList()) {
+                if (isTimeVarying(cle.getCloudlet())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isTimeVarying(final Cloudlet cloudlet) {
+        return !deterministicModelPredicate.test(cloudlet.getUtilizationModelCpu());
+    }
+
+    @Override
+    protected boolean processCloudletSubmit(final SimEvent evt, final boolean ack) {
+        final var cloudlet = (Cloudlet)evt.getData();
+        final Host host = cloudlet.getVm().getHost();
+        catchUp(host);
+        timeVarying |= isTimeVarying(cloudlet);
+        final boolean submitted = super.processCloudletSubmit(evt, ack);
+        nextHostUpdateTimes.remove(host);
+        return submitted;
+    }
+
+    @Override
+    protected boolean processCloudlet(final SimEvent evt, final CloudSimTag tag) {
+        if (!(evt.getData() instanceof Cloudlet cloudlet)) {
+            return super.processCloudlet(evt, tag);
+        }
+
+        final Host host = cloudlet.getVm().getHost();
+        catchUp(host);
+        final boolean processed = super.processCloudlet(evt, tag);
+        nextHostUpdateTimes.remove(host);
+        return processed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If there are no time-varying Cloudlets, returns the time the next Cloudlet
+     * is expected to finish, ignoring the {@link #getSchedulingInterval() scheduling interval}.
+     */
+    @Override
+    protected double getCloudletProcessingUpdateInterval(final double nextFinishingCloudletTime) {
+        return timeVarying ? super.getCloudletProcessingUpdateInterval(nextFinishingCloudletTime) : nextFinishingCloudletTime;
+    }
+
+    /**
+     * Sets a {@link Predicate} that checks if a Cloudlet CPU {@link UtilizationModel}
+     * doesn't change along the time, so that its next finish time can be computed
+     * without periodic updates. By default, just {@link UtilizationModelFull} is considered deterministic.
+     * @param deterministicModelPredicate the predicate to set
+     * @return this Datacenter
+     */
+    public DatacenterFastForward setDeterministicModelPredicate(final Predicate<UtilizationModel> deterministicModelPredicate) {
+        this.deterministicModelPredicate = Objects.requireNonNull(deterministicModelPredicate);
+        return this;
+    }
+
+    /**
+     * Gets the number of Host updates skipped at scheduling intervals.
+     * @return the number of Host updates skipped at scheduling intervals
+     */
+    public long getSkippedHostUpdates() {
+        return skippedHostUpdates;
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.groupingBy;
+
+/**
+ * An example comparing a regular {@link DatacenterSimple}, which updates
+ * all Hosts at every {@link #SCHEDULING_INTERVAL scheduling interval},
+ * with a {@link DatacenterFastForward}, which jumps straight to the time the next Cloudlet finishes.
+ * Most Cloudlets use a {@link UtilizationModelFull}, but some of them
+ * use a {@link UtilizationModelStochastic} (when {@link #STOCHASTIC_CLOUDLETS_RATIO} is greater than zero),
+ * so that only Hosts running such Cloudlets are periodically updated.
+ *
+ * <p>Since the regular Datacenter just computes the progress of Cloudlets
+ * at every interval (even when a new Cloudlet arrives in between),
+ * finish times are usually a little later than the ones from the fast-forward run.
+ * To check which run is more accurate, finish times are compared with the ones
+ * computed analytically by a processor-sharing model,
+ * considering just VMs that don't run any Cloudlet with a time-varying utilization.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterFastForwardExample {
+    private static final int HOSTS = 100;
+    private static final int HOST_PES = 8;
+
+    private static final int VMS = 200;
+    private static final int VM_PES = 4;
+
+    private static final int CLOUDLETS = 2000;
+    private static final int CLOUDLET_MAX_LENGTH = 200_000;
+    private static final int CLOUDLET_MAX_SUBMISSION_DELAY = 1000;
+
+    /**
+     * Percentage of Cloudlets using a time-varying {@link UtilizationModelStochastic} (in scale from 0 to 1).
+     */
+    private static final double STOCHASTIC_CLOUDLETS_RATIO = 0.05;
+
+    private static final int SCHEDULING_INTERVAL = 1;
+
+    private final boolean fastForward;
+    private long processedEvents;
+    private long hostUpdates;
+
+    public static void main(String[] args) {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf(
+            "| %-12s | %16s | %12s | %12s | %17s | %17s | %10s |%n",
+            "Run", "Processed events", "Host updates", "Skipped ones", "Avg finish time", "Avg PS difference", "Exec time");
+        final List<Cloudlet> regular = new DatacenterFastForwardExample(false).run();
+        final List<Cloudlet> fastForward = new DatacenterFastForwardExample(true).run();
+        System.out.printf("%nMax Cloudlet finish time difference between runs: %.2f s%n", maxFinishTimeDifference(regular, fastForward));
+    }
+
+    private DatacenterFastForwardExample(final boolean fastForward) {
+        this.fastForward = fastForward;
+    }
+
+    private List<Cloudlet> run() {
+        final double startSecs = TimeUtil.currentTimeSecs();
+        final var simulation = new CloudSim();
+        simulation.addOnEventProcessingListener(evt -> processedEvents++);
+
+        final List<Host> hostList = createHosts();
+        final var allocationPolicy = new VmAllocationPolicySimple();
+        final DatacenterSimple datacenter =
+            fastForward ?
+                new DatacenterFastForward(simulation, hostList, allocationPolicy) :
+                new DatacenterSimple(simulation, hostList, allocationPolicy);
+        datacenter.setSchedulingInterval(SCHEDULING_INTERVAL);
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        broker.submitVmList(createVms());
+        broker.submitCloudletList(createCloudlets());
+
+        simulation.start();
+
+        final List<Cloudlet> finishedList = broker.getCloudletFinishedList();
+        final double avgFinishTime = finishedList.stream().mapToDouble(Cloudlet::getFinishTime).average().orElse(0);
+        final long skipped = fastForward ? ((DatacenterFastForward)datacenter).getSkippedHostUpdates() : 0;
+        System.out.printf(
+            "| %-12s | %16d | %12d | %12d | %15.2f s | %15.4f s | %8.2f s |%n",
+            fastForward ? "Fast-forward" : "Regular", processedEvents, hostUpdates,
+            skipped, avgFinishTime, meanProcessorSharingDifference(finishedList), TimeUtil.elapsedSeconds(startSecs));
+        return finishedList;
+    }
+
+    /**
+     * Computes the mean absolute difference between the finish times of Cloudlets
+     * and the ones given by an analytic processor-sharing model,
+     * for VMs running only Cloudlets with a constant CPU utilization.
+     * @param finishedList the list of finished Cloudlets
+     * @return the mean absolute difference (in seconds)
+     * @see #processorSharingFinishTimes(List)
+     */
+    private static double meanProcessorSharingDifference(final List<Cloudlet> finishedList) {
+        final Map<Vm, List<Cloudlet>> cloudletsByVm = finishedList.stream().collect(groupingBy(Cloudlet::getVm));
+        double totalDifference = 0;
+        int count = 0;
+        for (final List<Cloudlet> cloudlets : cloudletsByVm.values()) {
+            if (cloudlets.stream().anyMatch(cloudlet -> cloudlet.getUtilizationModelCpu() instanceof UtilizationModelStochastic)) {
+                continue;
+            }
+
+            final double[] finishTimes = processorSharingFinishTimes(cloudlets);
+            for (int i = 0; i < finishTimes.length; i++) {
+                totalDifference += Math.abs(cloudlets.get(i).getFinishTime() - finishTimes[i]);
+            }
+
+            count += finishTimes.length;
+        }
+
+        return count == 0 ? 0 : totalDifference / count;
+    }
+
+    /**
+     * Computes the finish times of Cloudlets running in the same VM,
+     * where the VM capacity is shared by all Cloudlets running at a given time.
+     * When the Cloudlets request more PEs than the VM has,
+     * each PE of a Cloudlet gets the same fraction of the VM MIPS.
+     * Cloudlets start at the same time they started in the simulation,
+     * so that just the progress computed in between is compared.
+     * @param cloudlets the Cloudlets that ran in a VM
+     * @return the finish time of each Cloudlet, in the same order of the list
+     */
+    private static double[] processorSharingFinishTimes(final List<Cloudlet> cloudlets) {
+        final Vm vm = cloudlets.get(0).getVm();
+        final int[] arrivalOrder =
+            IntStream.range(0, cloudlets.size())
+                     .boxed()
+                     .sorted(Comparator.comparingDouble(i -> cloudlets.get(i).getExecStartTime()))
+                     .mapToInt(Integer::intValue)
+                     .toArray();
+
+        final double[] remainingLength = cloudlets.stream().mapToDouble(Cloudlet::getLength).toArray();
+        final double[] finishTimes = new double[cloudlets.size()];
+        final List<Integer> running = new ArrayList<>();
+        double time = 0;
+        int next = 0;
+        while (next < arrivalOrder.length || !running.isEmpty()) {
+            if (running.isEmpty()) {
+                time = Math.max(time, cloudlets.get(arrivalOrder[next]).getExecStartTime());
+            } else {
+                final long requestedPes = running.stream().mapToLong(i -> cloudlets.get(i).getNumberOfPes()).sum();
+                final double mipsByPe = vm.getMips() * Math.min(1, vm.getNumberOfPes() / (double)requestedPes);
+                final double nextFinish = time + running.stream().mapToDouble(i -> remainingLength[i]).min().orElseThrow() / mipsByPe;
+                final double nextArrival = next < arrivalOrder.length ? cloudlets.get(arrivalOrder[next]).getExecStartTime() : Double.MAX_VALUE;
+                final double newTime = Math.min(nextFinish, nextArrival);
+                for (final int i : running) {
+                    remainingLength[i] -= mipsByPe * (newTime - time);
+                }
+
+                time = newTime;
+                final double finishTime = time;
+                running.removeIf(i -> {
+                    final boolean finished = remainingLength[i] <= 1e-6;
+                    if (finished) {
+                        finishTimes[i] = finishTime;
+                    }
+                    return finished;
+                });
+            }
+
+            while (next < arrivalOrder.length && cloudlets.get(arrivalOrder[next]).getExecStartTime() <= time) {
+                running.add(arrivalOrder[next++]);
+            }
+        }
+
+        return finishTimes;
+    }
+
+    private static double maxFinishTimeDifference(final List<Cloudlet> list1, final List<Cloudlet> list2) {
+        final double[] finishTimes = new double[CLOUDLETS];
+        list1.forEach(cloudlet -> finishTimes[(int)cloudlet.getId()] = cloudlet.getFinishTime());
+        return list2.stream()
+                    .mapToDouble(cloudlet -> Math.abs(cloudlet.getFinishTime() - finishTimes[(int)cloudlet.getId()]))
+                    .max().orElse(0);
+    }
+
+    private List<Host> createHosts() {
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            IntStream.range(0, HOST_PES).forEach(pe -> peList.add(new PeSimple(1000)));
+
+            final long ram = 20480; //in Megabytes
+            final long bw = 100000; //in Megabits/s
+            final long storage = 1000000; //in Megabytes
+            final var host = new HostSimple(ram, bw, storage, peList);
+            host.addOnUpdateProcessingListener(info -> hostUpdates++);
+            hostList.add(host);
+        }
+
+        return hostList;
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            list.add(new VmSimple(i, 1000, VM_PES).setRam(512).setBw(1000).setSize(10000));
+        }
+
+        return list;
+    }
+
+    /**
+     * Creates Cloudlets with random lengths and submission delays,
+     * using the same seed for both runs.
+     */
+    private List<Cloudlet> createCloudlets() {
+        final List<Cloudlet> list = new ArrayList<>(CLOUDLETS);
+        final var random = new Random(CLOUDLETS);
+        final var utilizationRamBw = new UtilizationModelDynamic(0.01);
+        for (int i = 0; i < CLOUDLETS; i++) {
+            final UtilizationModel utilizationCpu =
+                random.nextDouble() < STOCHASTIC_CLOUDLETS_RATIO ? new UtilizationModelStochastic(i) : new UtilizationModelFull();
+            final Cloudlet cloudlet =
+                new CloudletSimple(i, 10_000 + random.nextInt(CLOUDLET_MAX_LENGTH), 1 + random.nextInt(VM_PES))
+                    .setUtilizationModelCpu(utilizationCpu)
+                    .setUtilizationModelBw(utilizationRamBw)
+                    .setUtilizationModelRam(utilizationRamBw)
+                    .setSizes(1024);
+            cloudlet.setSubmissionDelay(random.nextInt(CLOUDLET_MAX_SUBMISSION_DELAY));
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelStochastic;
+import org.cloudsimplus.examples.performance.DeferringFutureQueue.DeferredEvent;
+import org.slf4j.MDC;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A Datacenter that updates the processing of its Hosts in parallel,
+ * splitting the Host list across a {@link ForkJoinPool}, with results identical to the ones from
+ * a {@link DatacenterSimple}, which updates Hosts sequentially.
+ * The next time the Datacenter has to be updated is the min of the delays returned by each Host.
+ *
+ * <p>Hosts don't interact while being updated, but the update of a Host may send events,
+ * such as when a Cloudlet finishes and is returned to its broker.
+ * Since the simulation future queue isn't thread-safe, it's wrapped by a {@link DeferringFutureQueue},
+ * which buffers the events sent by each Host while they are updated in parallel.
+ * Buffered events are then added to the queue in the order of the Host list,
+ * thus they get the same serial numbers (and are processed in the same order)
+ * as when Hosts are updated sequentially.
+ * Hosts without VMs may be powered off during an update,
+ * so they are updated sequentially, after the parallel phase, in the same order.</p>
+ *
+ * <p>Listeners of Hosts, VMs and Cloudlets are called concurrently for different Hosts,
+ * and {@link org.cloudbus.cloudsim.utilizationmodels.UtilizationModel}s are called concurrently
+ * for Cloudlets in different Hosts.
+ * Therefore, instances shared among Hosts must be thread-safe.
+ * For instance, a {@link UtilizationModelStochastic} or a {@link UtilizationModelDynamic}
+ * having a utilization update function must not be shared among Cloudlets
+ * (the regular case in most examples, which create one per Cloudlet).
+ * Log messages from different Hosts may be written in a different order.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterParallelUpdate extends DatacenterSimple {
+    /**
+     * The default min number of Hosts for them to be updated in parallel.
+     * @see #setMinHostsToParallelize(int)
+     */
+    public static final int DEF_MIN_HOSTS_TO_PARALLELIZE = 256;
+
+    /**
+     * Number of tasks created for each thread of the pool,
+     * so that threads finishing first can take work from the other ones.
+     */
+    private static final int TASKS_BY_THREAD = 8;
+
+    private final ForkJoinPool pool;
+    private final DeferringFutureQueue futureQueue;
+    private boolean parallelUpdate;
+    private int minHostsToParallelize;
+    private long parallelUpdates;
+
+    /**
+     * Delays returned by each Host at the last update
+     * (NaN for Hosts that have to be updated sequentially).
+     */
+    private double[] delays;
+
+    /**
+     * Events sent by each Host at the last update (null when no event was sent).
+     */
+    private List<DeferredEvent>[] deferredEvents;
+
+    /**
+     * Creates a Datacenter that updates Hosts using the {@link ForkJoinPool#commonPool() common pool}.
+     * @see DatacenterSimple#DatacenterSimple(Simulation, List)
+     */
+    public DatacenterParallelUpdate(final Simulation simulation, final List<? extends Host> hostList) {
+        this(simulation, hostList, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a Datacenter that updates Hosts using a given pool.
+     * @param pool the pool to update Hosts in parallel
+     * @see DatacenterSimple#DatacenterSimple(Simulation, List)
+     */
+    public DatacenterParallelUpdate(final Simulation simulation, final List<? extends Host> hostList, final ForkJoinPool pool) {
+        super(simulation, hostList);
+        this.pool = Objects.requireNonNull(pool);
+        this.futureQueue = deferringQueue(simulation);
+        this.parallelUpdate = true;
+        this.minHostsToParallelize = DEF_MIN_HOSTS_TO_PARALLELIZE;
+        this.delays = new double[0];
+        this.deferredEvents = newDeferredEvents(0);
+    }
+
+    /**
+     * Creates a Datacenter that updates Hosts using a given pool.
+     * @param pool the pool to update Hosts in parallel
+     * @see DatacenterSimple#DatacenterSimple(Simulation, List, VmAllocationPolicy)
+     */
+    public DatacenterParallelUpdate(
+        final Simulation simulation, final List<? extends Host> hostList,
+        final VmAllocationPolicy vmAllocationPolicy, final ForkJoinPool pool)
+    {
+        super(simulation, hostList, vmAllocationPolicy);
+        this.pool = Objects.requireNonNull(pool);
+        this.futureQueue = deferringQueue(simulation);
+        this.parallelUpdate = true;
+        this.minHostsToParallelize = DEF_MIN_HOSTS_TO_PARALLELIZE;
+        this.delays = new double[0];
+        this.deferredEvents = newDeferredEvents(0);
+    }
+
+    private static DeferringFutureQueue deferringQueue(final Simulation simulation) {
+        if (simulation instanceof CloudSim cloudSim) {
+            return DeferringFutureQueue.of(cloudSim);
+        }
+
+        throw new IllegalArgumentException("The simulation must be a " + CloudSim.class.getSimpleName() + " instance.");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<DeferredEvent>[] newDeferredEvents(final int size) {
+        return new List[size];
+    }
+
+    /**
+     * {@inheritDoc}
+     * Hosts with VMs are updated in parallel when the parallel update is enabled
+     * and there are at least {@link #getMinHostsToParallelize()} Hosts.
+     */
+    @Override
+    protected double updateHostsProcessing() {
+        final List<Host> hostList = getHostList();
+        final int hosts = hostList.size();
+        if (!parallelUpdate || hosts < minHostsToParallelize) {
+            return super.updateHostsProcessing();
+        }
+
+        if (delays.length < hosts) {
+            delays = new double[hosts];
+            deferredEvents = Arrays.copyOf(deferredEvents, hosts);
+        }
+
+        final double clock = getSimulation().clock();
+        final int grainSize = Math.max(1, hosts / (pool.getParallelism() * TASKS_BY_THREAD));
+        pool.invoke(new HostUpdateTask(hostList, clock, 0, hosts, grainSize, MDC.getCopyOfContextMap()));
+        parallelUpdates++;
+
+        double nextSimulationDelay = Double.MAX_VALUE;
+        for (int i = 0; i < hosts; i++) {
+            final double delay;
+            if (Double.isNaN(delays[i])) {
+                delay = hostList.get(i).updateProcessing(clock);
+            } else {
+                delay = delays[i];
+                if (deferredEvents[i] != null) {
+                    futureQueue.addAll(deferredEvents[i]);
+                    deferredEvents[i] = null;
+                }
+            }
+
+            nextSimulationDelay = Math.min(delay, nextSimulationDelay);
+        }
+
+        final double minTimeBetweenEvents = getSimulation().getMinTimeBetweenEvents() + 0.01;
+        return nextSimulationDelay == 0 ? nextSimulationDelay : Math.max(nextSimulationDelay, minTimeBetweenEvents);
+    }
+
+    /**
+     * Updates a range of Hosts, splitting it into subtasks while it's larger than the grain size.
+     */
+    private final class HostUpdateTask extends RecursiveAction {
+        private static final long serialVersionUID = -4232611027303343041L;
+
+        private final List<Host> hostList;
+        private final double clock;
+        private final int from;
+        private final int to;
+        private final int grainSize;
+
+        /**
+         * The MDC of the thread that requested the update, so that log messages
+         * from Hosts are identified the same way (such as by a
+         * {@link org.cloudsimplus.examples.sweep.SimulationLogContext}).
+         */
+        private final Map<String, String> logContext;
+
+        private HostUpdateTask(
+            final List<Host> hostList, final double clock, final int from, final int to,
+            final int grainSize, final Map<String, String> logContext)
+        {
+            this.hostList = hostList;
+            this.clock = clock;
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+            this.logContext = logContext;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grainSize) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(
+                    new HostUpdateTask(hostList, clock, from, middle, grainSize, logContext),
+                    new HostUpdateTask(hostList, clock, middle, to, grainSize, logContext));
+                return;
+            }
+
+            final Map<String, String> previousLogContext = MDC.getCopyOfContextMap();
+            setLogContext(logContext);
+            final List<DeferredEvent> buffer = futureQueue.startDeferring();
+            try {
+                for (int i = from; i < to; i++) {
+                    updateHost(i, buffer);
+                }
+            } finally {
+                futureQueue.stopDeferring();
+                setLogContext(previousLogContext);
+            }
+        }
+
+        private void updateHost(final int index, final List<DeferredEvent> buffer) {
+            final Host host = hostList.get(index);
+            if (host.getVmList().isEmpty()) {
+                delays[index] = Double.NaN;
+                return;
+            }
+
+            delays[index] = host.updateProcessing(clock);
+            if (!buffer.isEmpty()) {
+                deferredEvents[index] = List.copyOf(buffer);
+                buffer.clear();
+            }
+        }
+
+        private static void setLogContext(final Map<String, String> logContext) {
+            if (logContext == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(logContext);
+            }
+        }
+    }
+
+    /**
+     * Checks if Hosts are updated in parallel or sequentially.
+     * @return true if Hosts are updated in parallel, false if they are updated sequentially
+     */
+    public boolean isParallelUpdate() {
+        return parallelUpdate;
+    }
+
+    /**
+     * Enables or disables the parallel update of Hosts.
+     * @param parallelUpdate true to update Hosts in parallel, false to update them sequentially
+     * @return this Datacenter
+     */
+    public DatacenterParallelUpdate setParallelUpdate(final boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+        return this;
+    }
+
+    /**
+     * Gets the min number of Hosts for them to be updated in parallel.
+     * @return the min number of Hosts for them to be updated in parallel
+     */
+    public int getMinHostsToParallelize() {
+        return minHostsToParallelize;
+    }
+
+    /**
+     * Sets the min number of Hosts for them to be updated in parallel.
+     * Smaller Datacenters are updated sequentially, since the overhead
+     * of splitting the work would be greater than the gain.
+     * @param minHostsToParallelize the min number of Hosts
+     * @return this Datacenter
+     */
+    public DatacenterParallelUpdate setMinHostsToParallelize(final int minHostsToParallelize) {
+        if (minHostsToParallelize < 1) {
+            throw new IllegalArgumentException("The min number of Hosts must be greater than zero.");
+        }
+
+        this.minHostsToParallelize = minHostsToParallelize;
+        return this;
+    }
+
+    /**
+     * Gets the number of times Hosts were updated in parallel.
+     * @return the number of times Hosts were updated in parallel
+     */
+    public long getParallelUpdates() {
+        return parallelUpdates;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * An example comparing the sequential and the parallel update of Hosts
+ * by a {@link DatacenterParallelUpdate}, which updates all Hosts at every
+ * {@link #SCHEDULING_INTERVAL scheduling interval}.
+ * Both runs use the same seed and must produce exactly the same results:
+ * the same number of processed events, the same finish time for every Cloudlet
+ * and the same order Cloudlets finished.
+ *
+ * @author Ishak Megatli
+ */
+public class DatacenterParallelUpdateExample {
+    private static final int HOSTS = 2000;
+    private static final int HOST_PES = 8;
+
+    private static final int VMS = 4000;
+    private static final int VM_PES = 4;
+
+    private static final int CLOUDLETS = 8000;
+    private static final int CLOUDLET_MAX_LENGTH = 200_000;
+    private static final int CLOUDLET_MAX_SUBMISSION_DELAY = 500;
+
+    private static final int SCHEDULING_INTERVAL = 5;
+
+    private final boolean parallel;
+    private long processedEvents;
+
+    public static void main(String[] args) {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        System.out.printf(
+            "Updating %d Hosts using up to %d threads%n%n", HOSTS, ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("| %-10s | %16s | %16s | %17s | %10s |%n", "Run", "Processed events", "Parallel updates", "Avg finish time", "Exec time");
+        final List<Cloudlet> sequential = new DatacenterParallelUpdateExample(false).run();
+        final List<Cloudlet> parallel = new DatacenterParallelUpdateExample(true).run();
+        System.out.printf("%nMax Cloudlet finish time difference between runs: %.2f s%n", maxFinishTimeDifference(sequential, parallel));
+        System.out.printf("Cloudlets finished in the same order: %s%n", sameFinishOrder(sequential, parallel));
+    }
+
+    private DatacenterParallelUpdateExample(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    private List<Cloudlet> run() {
+        final double startSecs = TimeUtil.currentTimeSecs();
+        final var simulation = new CloudSim();
+        simulation.addOnEventProcessingListener(evt -> processedEvents++);
+
+        final var datacenter =
+            new DatacenterParallelUpdate(simulation, createHosts(), new VmAllocationPolicySimple(), ForkJoinPool.commonPool())
+                .setParallelUpdate(parallel);
+        datacenter.setSchedulingInterval(SCHEDULING_INTERVAL);
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        broker.submitVmList(createVms());
+        broker.submitCloudletList(createCloudlets());
+
+        simulation.start();
+
+        final List<Cloudlet> finishedList = broker.getCloudletFinishedList();
+        final double avgFinishTime = finishedList.stream().mapToDouble(Cloudlet::getFinishTime).average().orElse(0);
+        System.out.printf(
+            "| %-10s | %16d | %16d | %15.2f s | %8.2f s |%n",
+            parallel ? "Parallel" : "Sequential", processedEvents, datacenter.getParallelUpdates(),
+            avgFinishTime, TimeUtil.elapsedSeconds(startSecs));
+        return finishedList;
+    }
+
+    private static double maxFinishTimeDifference(final List<Cloudlet> list1, final List<Cloudlet> list2) {
+        final double[] finishTimes = new double[CLOUDLETS];
+        list1.forEach(cloudlet -> finishTimes[(int)cloudlet.getId()] = cloudlet.getFinishTime());
+        return list2.stream()
+                    .mapToDouble(cloudlet -> Math.abs(cloudlet.getFinishTime() - finishTimes[(int)cloudlet.getId()]))
+                    .max().orElse(0);
+    }
+
+    private static boolean sameFinishOrder(final List<Cloudlet> list1, final List<Cloudlet> list2) {
+        return list1.size() == list2.size() &&
+               IntStream.range(0, list1.size()).allMatch(i -> list1.get(i).getId() == list2.get(i).getId());
+    }
+
+    private List<Host> createHosts() {
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            IntStream.range(0, HOST_PES).forEach(pe -> peList.add(new PeSimple(1000)));
+
+            final long ram = 20480; //in Megabytes
+            final long bw = 100000; //in Megabits/s
+            final long storage = 1000000; //in Megabytes
+            hostList.add(new HostSimple(ram, bw, storage, peList));
+        }
+
+        return hostList;
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            list.add(new VmSimple(i, 1000, VM_PES).setRam(512).setBw(1000).setSize(10000));
+        }
+
+        return list;
+    }
+
+    /**
+     * Creates Cloudlets with random lengths and submission delays,
+     * using the same seed for both runs.
+     * The RAM and BW utilization model is shared by all Cloudlets,
+     * which is thread-safe since it has no update function.
+     */
+    private List<Cloudlet> createCloudlets() {
+        final List<Cloudlet> list = new ArrayList<>(CLOUDLETS);
+        final var random = new Random(CLOUDLETS);
+        final var utilizationRamBw = new UtilizationModelDynamic(0.01);
+        for (int i = 0; i < CLOUDLETS; i++) {
+            final Cloudlet cloudlet =
+                new CloudletSimple(i, 10_000 + random.nextInt(CLOUDLET_MAX_LENGTH), 1 + random.nextInt(VM_PES))
+                    .setUtilizationModelCpu(new UtilizationModelFull())
+                    .setUtilizationModelBw(utilizationRamBw)
+                    .setUtilizationModelRam(utilizationRamBw)
+                    .setSizes(1024);
+            cloudlet.setSubmissionDelay(random.nextInt(CLOUDLET_MAX_SUBMISSION_DELAY));
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.events.FutureQueue;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudsimplus.examples.eventqueue.FutureQueues;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link FutureQueue} decorator that, for threads which requested it,
+ * stores new events into a thread-local buffer instead of adding them to the queue.
+ * Buffered events are later added to the queue by a single thread, in a deterministic order,
+ * by calling {@link #addAll(List)}.
+ * That enables entities to be processed concurrently, since the wrapped queue isn't thread-safe.
+ *
+ * <p>The decorator is installed into a {@link CloudSim} instance by {@link #of(CloudSim)},
+ * which replaces the simulation future queue through {@link FutureQueues}.</p>
+ *
+ * @author Ishak Megatli
+ */
+final class DeferringFutureQueue extends FutureQueue {
+    /**
+     * An event whose addition to the queue was deferred.
+     * @param event the deferred event
+     * @param first true if the event has to be added by {@link #addEventFirst(SimEvent)}, false otherwise
+     */
+    record DeferredEvent(SimEvent event, boolean first) { }
+
+    private final FutureQueue queue;
+
+    /**
+     * Buffers of the threads deferring events, which are null for the other ones.
+     */
+    private final ThreadLocal<List<DeferredEvent>> buffers = new ThreadLocal<>();
+
+    private DeferringFutureQueue(final FutureQueue queue) {
+        super();
+        this.queue = Objects.requireNonNull(queue);
+    }
+
+    /**
+     * Gets the deferring queue of a simulation, installing it (by wrapping the simulation's current queue)
+     * if not installed yet.
+     * @param simulation the simulation to get the deferring queue from
+     * @return the deferring queue of the simulation
+     */
+    static DeferringFutureQueue of(final CloudSim simulation) {
+        return (DeferringFutureQueue) FutureQueues.replace(
+            simulation, current -> current instanceof DeferringFutureQueue ? current : new DeferringFutureQueue(current));
+    }
+
+    /**
+     * Starts deferring the events added by the current thread.
+     * @return the (empty) buffer where events added by the current thread will be stored
+     */
+    List<DeferredEvent> startDeferring() {
+        List<DeferredEvent> buffer = buffers.get();
+        if (buffer == null) {
+            buffer = new ArrayList<>();
+            buffers.set(buffer);
+        }
+
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Stops deferring the events added by the current thread.
+     */
+    void stopDeferring() {
+        buffers.remove();
+    }
+
+    /**
+     * Adds deferred events to the queue, in the given order.
+     * @param events the events to add
+     */
+    void addAll(final List<DeferredEvent> events) {
+        for (final DeferredEvent deferred : events) {
+            if (deferred.first()) {
+                queue.addEventFirst(deferred.event());
+            } else {
+                queue.addEvent(deferred.event());
+            }
+        }
+    }
+
+    @Override
+    public void addEvent(final SimEvent newEvent) {
+        final List<DeferredEvent> buffer = buffers.get();
+        if (buffer == null) {
+            queue.addEvent(newEvent);
+        } else {
+            buffer.add(new DeferredEvent(newEvent, false));
+        }
+    }
+
+    @Override
+    public void addEventFirst(final SimEvent newEvent) {
+        final List<DeferredEvent> buffer = buffers.get();
+        if (buffer == null) {
+            queue.addEventFirst(newEvent);
+        } else {
+            buffer.add(new DeferredEvent(newEvent, true));
+        }
+    }
+
+    @Override
+    public boolean remove(final SimEvent event) {
+        return queue.remove(event);
+    }
+
+    @Override
+    public boolean removeAll(final Collection<SimEvent> events) {
+        return queue.removeAll(events);
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<SimEvent> predicate) {
+        return queue.removeIf(predicate);
+    }
+
+    @Override
+    public SimEvent first() throws NoSuchElementException {
+        return queue.first();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public Iterator<SimEvent> iterator() {
+        return queue.iterator();
+    }
+
+    @Override
+    public Stream<SimEvent> stream() {
+        return queue.stream();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public long getSerial() {
+        return queue.getSerial();
+    }
+
+    @Override
+    public long getMaxEventsNumber() {
+        return queue.getMaxEventsNumber();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.schedulers.MipsShare;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerAbstract;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link HostSimple} that skips the processing update of VMs which have no Cloudlets
+ * and were already idle at the previous update.
+ * This way, the periodic updates triggered by a Datacenter scheduling interval
+ * just process VMs that are actually running something.
+ *
+ * <p>A skipped VM doesn't have its Cloudlet scheduler updated,
+ * its update-processing listeners notified or its CPU utilization statistics sampled.
+ * Its broker is still requested to destroy it if it's idle for long enough,
+ * so that {@link org.cloudbus.cloudsim.brokers.DatacenterBroker#setVmDestructionDelay(double)}
+ * keeps working. A VM is never skipped if the MIPS allocated to it changed
+ * since its last update (for instance, due to migration or vertical scaling).</p>
+ *
+ * @author Ishak Megatli
+ * @see org.cloudsimplus.examples.eventqueue.CoalescingFutureQueue
+ */
+public class HostSkippingIdleVms extends HostSimple {
+    /**
+     * VMs that had no Cloudlets after their last update.
+     */
+    private final Set<Vm> idleVms = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long skippedVmUpdates;
+
+    public HostSkippingIdleVms(final List<Pe> peList) {
+        super(peList);
+    }
+
+    public HostSkippingIdleVms(final long ram, final long bw, final long storage, final List<Pe> peList) {
+        super(ram, bw, storage, peList);
+    }
+
+    public HostSkippingIdleVms(final long ram, final long bw, final long storage, final List<Pe> peList, final boolean activate) {
+        super(ram, bw, storage, peList, activate);
+    }
+
+    @Override
+    public double updateProcessing(final double currentTime) {
+        final double nextSimulationDelay = super.updateProcessing(currentTime);
+        if (idleVms.size() > getVmList().size()) {
+            idleVms.retainAll(Set.copyOf(getVmList()));
+        }
+
+        return nextSimulationDelay;
+    }
+
+    @Override
+    protected double updateVmProcessing(final Vm vm, final double currentTime, final double nextSimulationDelay) {
+        if (isIdleSinceLastUpdate(vm)) {
+            skippedVmUpdates++;
+            vm.getBroker().requestIdleVmDestruction(vm);
+            return nextSimulationDelay;
+        }
+
+        final double delay = super.updateVmProcessing(vm, currentTime, nextSimulationDelay);
+        if (vm.getCloudletScheduler().isEmpty()) {
+            idleVms.add(vm);
+        } else idleVms.remove(vm);
+
+        return delay;
+    }
+
+    private boolean isIdleSinceLastUpdate(final Vm vm) {
+        return idleVms.contains(vm) &&
+               vm.getCloudletScheduler().isEmpty() &&
+               vm.getCloudletScheduler() instanceof CloudletSchedulerAbstract scheduler &&
+               isSameMipsShare(vm, scheduler.getCurrentMipsShare(), getVmScheduler().getAllocatedMips(vm));
+    }
+
+    /**
+     * Checks if the MIPS share of a VM's Cloudlet scheduler is the one the Host currently allocates
+     * (considering the scheduler limits the number of PEs to the VM PEs).
+     */
+    private static boolean isSameMipsShare(final Vm vm, final MipsShare schedulerShare, final MipsShare allocatedShare) {
+        return schedulerShare.pes() == Math.min(allocatedShare.pes(), vm.getNumberOfPes()) &&
+               schedulerShare.mips() == allocatedShare.mips();
+    }
+
+    /**
+     * Gets the number of VM processing updates skipped because VMs were idle.
+     * @return the number of VM processing updates skipped because VMs were idle
+     */
+    public long getSkippedVmUpdates() {
+        return skippedVmUpdates;
+    }
+}
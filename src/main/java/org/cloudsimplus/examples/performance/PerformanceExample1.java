@@ -96,6 +96,11 @@ public class PerformanceExample1 {
      */
     private final Supplier<CloudletSchedulerTimeShared> cloudletSchedulerSupplier = CloudletSchedulerTimeShared::new;
 
+    /**
+     * The policy to place VMs into Hosts.
+     * A {@link org.cloudsimplus.examples.allocationpolicies.VmAllocationPolicyIndexedFirstFit}
+     * can be used instead to get the same placement without scanning the Host list for every VM.
+     */
     private final VmAllocationPolicyFirstFit vmAllocationPolicy = new VmAllocationPolicyFirstFit();
 
     private final CloudSim simulation;
@@ -0,0 +1,305 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyFirstFit;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletScheduler;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toCollection;
+
+/**
+ * A reusable, configurable version of the large-scale scenario built by
+ * {@link PerformanceExample1}, {@link UtilizationModelFullPerformance}
+ * and {@link UtilizationModelStochasticPerformance}.
+ * It enables benchmarks and parameter sweeps to build the same kind of
+ * simulation without copying the scenario construction code.
+ *
+ * <p>Each instance can be {@link #build() built} and {@link #run() run} just once,
+ * since a {@link CloudSim} instance cannot be restarted.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class PerformanceScenario {
+    private int hostsNumber = 1_000;
+    private int hostPes = 16;
+    private long hostRam = 20480; //in Megabytes
+    private int vmsNumber = hostsNumber*4;
+    private int vmPes = 4;
+    private int cloudletsNumber = vmsNumber*2;
+    private int cloudletPes = 2;
+    private long cloudletLength = 10_000;
+    private double schedulingInterval;
+
+    private Supplier<VmAllocationPolicy> vmAllocationPolicySupplier = VmAllocationPolicyFirstFit::new;
+    private Supplier<CloudletScheduler> cloudletSchedulerSupplier = CloudletSchedulerTimeShared::new;
+
+    /**
+     * A {@link Supplier} for the CPU {@link UtilizationModel} of each Cloudlet.
+     * It may return the same instance on every call to share a single model
+     * among all Cloudlets (as done in {@link UtilizationModelFullPerformance}).
+     */
+    private Supplier<UtilizationModel> cpuUtilizationModelSupplier;
+
+    /**
+     * {@link Supplier}s for the RAM and BW {@link UtilizationModel} of each Cloudlet.
+     * By default, Cloudlets don't use any RAM or BW.
+     */
+    private Supplier<UtilizationModel> ramUtilizationModelSupplier = () -> UtilizationModel.NULL;
+    private Supplier<UtilizationModel> bwUtilizationModelSupplier = () -> UtilizationModel.NULL;
+
+    /**
+     * Indicates if VMs are placed in batch by a {@link DatacenterBatchVmPlacement}
+     * and acknowledged to a {@link DatacenterBrokerBatchAck}.
+     */
+    private boolean batchVmPlacement;
+
+    /**
+     * A {@link Supplier} for the simulation instance,
+     * enabling to use a {@link CloudSim} subclass such as
+     * {@link org.cloudsimplus.examples.eventqueue.CloudSimPluggableQueue}.
+     */
+    private Supplier<CloudSim> simulationSupplier = CloudSim::new;
+
+    private CloudSim simulation;
+    private Datacenter datacenter;
+    private DatacenterBroker broker;
+
+    public PerformanceScenario() {
+        final var um = new UtilizationModelFull();
+        this.cpuUtilizationModelSupplier = () -> um;
+    }
+
+    /**
+     * Creates the simulation, the Datacenter, the broker, VMs and Cloudlets,
+     * submitting the VMs and Cloudlets to the broker.
+     * @return this scenario, ready to {@link #run()}
+     */
+    public PerformanceScenario build() {
+        if(simulation != null){
+            throw new IllegalStateException("The scenario was already built.");
+        }
+
+        simulation = simulationSupplier.get();
+        datacenter = createDatacenter();
+        broker = batchVmPlacement ? new DatacenterBrokerBatchAck(simulation) : new DatacenterBrokerSimple(simulation);
+        broker.submitVmList(createVms());
+        broker.submitCloudletList(createCloudlets());
+        return this;
+    }
+
+    /**
+     * Runs the simulation, building the scenario first if that wasn't done yet.
+     * @return the final simulation clock (in seconds)
+     */
+    public double run() {
+        if(simulation == null){
+            build();
+        }
+
+        return simulation.start();
+    }
+
+    private Datacenter createDatacenter() {
+        final List<Host> hostList =
+            IntStream.range(0, hostsNumber)
+                     .mapToObj(i -> createHost())
+                     .collect(toCollection(() -> new ArrayList<>(hostsNumber)));
+
+        final var vmAllocationPolicy = vmAllocationPolicySupplier.get();
+        final var dc = batchVmPlacement ?
+                            new DatacenterBatchVmPlacement(simulation, hostList, vmAllocationPolicy) :
+                            new DatacenterSimple(simulation, hostList, vmAllocationPolicy);
+        return dc.setSchedulingInterval(schedulingInterval);
+    }
+
+    private Host createHost() {
+        final List<Pe> peList =
+            IntStream.range(0, hostPes)
+                     .mapToObj(i -> new PeSimple(1000))
+                     .collect(toCollection(() -> new ArrayList<>(hostPes)));
+
+        final long bwMbps = 10000;
+        final long storageMB = 1000000;
+        return new HostSimple(hostRam, bwMbps, storageMB, peList);
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(vmsNumber);
+        for (int i = 0; i < vmsNumber; i++) {
+            final Vm vm = new VmSimple(i, 1000, vmPes).setCloudletScheduler(cloudletSchedulerSupplier.get());
+            list.add(vm);
+        }
+
+        return list;
+    }
+
+    private List<Cloudlet> createCloudlets() {
+        final List<Cloudlet> list = new ArrayList<>(cloudletsNumber);
+        for (int i = 0; i < cloudletsNumber; i++) {
+            final Cloudlet cloudlet = new CloudletSimple(i, cloudletLength, cloudletPes);
+            cloudlet.setUtilizationModelCpu(cpuUtilizationModelSupplier.get())
+                    .setUtilizationModelRam(ramUtilizationModelSupplier.get())
+                    .setUtilizationModelBw(bwUtilizationModelSupplier.get())
+                    .setSizes(1024);
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+
+    public CloudSim getSimulation() {
+        return simulation;
+    }
+
+    public Datacenter getDatacenter() {
+        return datacenter;
+    }
+
+    public DatacenterBroker getBroker() {
+        return broker;
+    }
+
+    public int getHostsNumber() {
+        return hostsNumber;
+    }
+
+    public PerformanceScenario setHostsNumber(final int hostsNumber) {
+        this.hostsNumber = hostsNumber;
+        return this;
+    }
+
+    public PerformanceScenario setHostPes(final int hostPes) {
+        this.hostPes = hostPes;
+        return this;
+    }
+
+    public PerformanceScenario setHostRam(final long hostRam) {
+        this.hostRam = hostRam;
+        return this;
+    }
+
+    public int getVmsNumber() {
+        return vmsNumber;
+    }
+
+    public PerformanceScenario setVmsNumber(final int vmsNumber) {
+        this.vmsNumber = vmsNumber;
+        return this;
+    }
+
+    public PerformanceScenario setVmPes(final int vmPes) {
+        this.vmPes = vmPes;
+        return this;
+    }
+
+    public int getCloudletsNumber() {
+        return cloudletsNumber;
+    }
+
+    public PerformanceScenario setCloudletsNumber(final int cloudletsNumber) {
+        this.cloudletsNumber = cloudletsNumber;
+        return this;
+    }
+
+    public PerformanceScenario setCloudletPes(final int cloudletPes) {
+        this.cloudletPes = cloudletPes;
+        return this;
+    }
+
+    public PerformanceScenario setCloudletLength(final long cloudletLength) {
+        this.cloudletLength = cloudletLength;
+        return this;
+    }
+
+    public double getSchedulingInterval() {
+        return schedulingInterval;
+    }
+
+    public PerformanceScenario setSchedulingInterval(final double schedulingInterval) {
+        this.schedulingInterval = schedulingInterval;
+        return this;
+    }
+
+    public PerformanceScenario setVmAllocationPolicySupplier(final Supplier<VmAllocationPolicy> vmAllocationPolicySupplier) {
+        this.vmAllocationPolicySupplier = Objects.requireNonNull(vmAllocationPolicySupplier);
+        return this;
+    }
+
+    public PerformanceScenario setCloudletSchedulerSupplier(final Supplier<CloudletScheduler> cloudletSchedulerSupplier) {
+        this.cloudletSchedulerSupplier = Objects.requireNonNull(cloudletSchedulerSupplier);
+        return this;
+    }
+
+    public PerformanceScenario setCpuUtilizationModelSupplier(final Supplier<UtilizationModel> cpuUtilizationModelSupplier) {
+        this.cpuUtilizationModelSupplier = Objects.requireNonNull(cpuUtilizationModelSupplier);
+        return this;
+    }
+
+    public PerformanceScenario setRamUtilizationModelSupplier(final Supplier<UtilizationModel> ramUtilizationModelSupplier) {
+        this.ramUtilizationModelSupplier = Objects.requireNonNull(ramUtilizationModelSupplier);
+        return this;
+    }
+
+    public PerformanceScenario setBwUtilizationModelSupplier(final Supplier<UtilizationModel> bwUtilizationModelSupplier) {
+        this.bwUtilizationModelSupplier = Objects.requireNonNull(bwUtilizationModelSupplier);
+        return this;
+    }
+
+    public boolean isBatchVmPlacement() {
+        return batchVmPlacement;
+    }
+
+    public PerformanceScenario setBatchVmPlacement(final boolean batchVmPlacement) {
+        this.batchVmPlacement = batchVmPlacement;
+        return this;
+    }
+
+    public PerformanceScenario setSimulationSupplier(final Supplier<CloudSim> simulationSupplier) {
+        this.simulationSupplier = Objects.requireNonNull(simulationSupplier);
+        return this;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.resourceusage;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudsimplus.builders.tables.HostHistoryTableBuilder;
+
+/**
+ * Builds a table to print the state history of a Host,
+ * reading it from a {@link MachineStateHistory} instead of {@link Host#getStateHistory()}.
+ * If the history rolls up samples by window,
+ * each row shows the mean MIPS of a window.
+ *
+ * @author Ishak Megatli
+ */
+public class HostCompactHistoryTableBuilder extends HostHistoryTableBuilder {
+    /**
+     * Creates a table builder for a Host state history.
+     * @param host the Host the history belongs to
+     * @param history the history to print
+     */
+    public HostCompactHistoryTableBuilder(final Host host, final MachineStateHistory history) {
+        super(host);
+        setObjectList(history.asHostEntries());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.resourceusage;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An example showing how to keep a bounded CPU usage history of Hosts
+ * using a {@link MachineStateHistory}, for a long simulation
+ * with a scheduling interval of 1 second.
+ * Each Host has two histories: one keeping the last {@link #LAST_SAMPLES} samples
+ * and another one keeping the last {@link #WINDOWS} windows of {@link #WINDOW_LENGTH} seconds,
+ * which are printed using a {@link HostCompactHistoryTableBuilder}.
+ *
+ * <p>The first Host also enables the regular {@link Host#enableStateHistory() state history},
+ * which stores every sample, to compare the number of entries kept.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class HostsCompactHistoryExample {
+    private static final int HOSTS = 2;
+    private static final int HOST_PES = 4;
+
+    private static final int VMS = 4;
+    private static final int VM_PES = 2;
+
+    private static final int CLOUDLET_LENGTH = 3_000_000;
+    private static final int SCHEDULING_INTERVAL = 1;
+
+    private static final int LAST_SAMPLES = 5;
+    private static final int WINDOWS = 12;
+    private static final double WINDOW_LENGTH = 600;
+
+    private final List<MachineStateHistory> lastSamplesHistories = new ArrayList<>(HOSTS);
+    private final List<MachineStateHistory> windowsHistories = new ArrayList<>(HOSTS);
+
+    public static void main(String[] args) {
+        new HostsCompactHistoryExample();
+    }
+
+    private HostsCompactHistoryExample() {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+
+        final var simulation = new CloudSim();
+        final List<Host> hostList = createHosts();
+        new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple()).setSchedulingInterval(SCHEDULING_INTERVAL);
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        broker.submitVmList(createVms());
+        broker.submitCloudletList(createCloudlets());
+
+        simulation.start();
+
+        for (int i = 0; i < HOSTS; i++) {
+            printHistories(hostList.get(i), lastSamplesHistories.get(i), windowsHistories.get(i));
+        }
+    }
+
+    private void printHistories(final Host host, final MachineStateHistory lastSamples, final MachineStateHistory windows) {
+        new HostCompactHistoryTableBuilder(host, lastSamples)
+            .setTitle("%s: last %d samples".formatted(host, lastSamples.size()))
+            .build();
+        new HostCompactHistoryTableBuilder(host, windows)
+            .setTitle("%s: last %d windows of %.0f seconds".formatted(host, windows.size(), windows.getWindowLength()))
+            .build();
+
+        System.out.printf(
+            "%s CPU usage in the last %d windows: min %.0f MIPS | mean %.0f MIPS | max %.0f MIPS%n",
+            host, windows.size(), windows.getMinAllocatedMips(), windows.getMeanAllocatedMips(), windows.getMaxAllocatedMips());
+        System.out.printf(
+            "Entries kept: %d + %d (%d evicted)", lastSamples.size(), windows.size(),
+            lastSamples.getEvictedEntries() + windows.getEvictedEntries());
+        if (host.isStateHistoryEnabled()) {
+            System.out.printf(" | Regular state history entries: %d", host.getStateHistory().size());
+        }
+
+        System.out.printf("%n%n");
+    }
+
+    private List<Host> createHosts() {
+        final List<Host> list = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = new ArrayList<>(HOST_PES);
+            for (int pe = 0; pe < HOST_PES; pe++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            final var host = new HostSimple(8192, 10000, 1000000, peList);
+            if (i == 0) {
+                host.enableStateHistory();
+            }
+
+            lastSamplesHistories.add(MachineStateHistory.of(host, LAST_SAMPLES, 0));
+            windowsHistories.add(MachineStateHistory.of(host, WINDOWS, WINDOW_LENGTH));
+            list.add(host);
+        }
+
+        return list;
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            list.add(new VmSimple(1000, VM_PES).setRam(1024).setBw(1000).setSize(10000));
+        }
+
+        return list;
+    }
+
+    /**
+     * Creates Cloudlets with a random CPU usage along the time.
+     */
+    private List<Cloudlet> createCloudlets() {
+        final List<Cloudlet> list = new ArrayList<>(VMS);
+        final var utilizationRamBw = new UtilizationModelDynamic(0.1);
+        for (int i = 0; i < VMS; i++) {
+            final Cloudlet cloudlet =
+                new CloudletSimple(CLOUDLET_LENGTH, VM_PES)
+                    .setUtilizationModelCpu(new UtilizationModelStochastic(i))
+                    .setUtilizationModelRam(utilizationRamBw)
+                    .setUtilizationModelBw(utilizationRamBw);
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.resourceusage;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostStateHistoryEntry;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmStateHistoryEntry;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A fixed-capacity CPU state history for a {@link Host} or {@link Vm},
+ * stored into primitive ring buffers instead of a list of
+ * {@link HostStateHistoryEntry} or {@link VmStateHistoryEntry} objects
+ * (as done by {@link Host#enableStateHistory()}).
+ * When the history is full, the oldest entry is overwritten,
+ * so memory usage doesn't grow along the simulation.
+ *
+ * <p>If a {@link #getWindowLength() window length} is given,
+ * samples are rolled up into one entry by window,
+ * keeping the min, max and mean allocated MIPS and the mean requested MIPS.
+ * Otherwise, each entry is a single sample.
+ * The retention is defined by the capacity: the history keeps
+ * the last samples or windows up to such a number.</p>
+ *
+ * <p>Use {@link #of(Host, int, double)} or {@link #of(Vm, int, double)}
+ * to collect the history every time the machine processing is updated.</p>
+ *
+ * @author Ishak Megatli
+ * @see HostCompactHistoryTableBuilder
+ */
+public class MachineStateHistory {
+    private final double windowLength;
+
+    /**
+     * The time of each entry, which is the sample time
+     * or the start time of the window.
+     */
+    private final double[] times;
+    private final double[] allocatedMipsSum;
+    private final double[] allocatedMipsMin;
+    private final double[] allocatedMipsMax;
+    private final double[] requestedMipsSum;
+    private final int[] samples;
+
+    /**
+     * Indicates, for each entry, if the Host was active
+     * or the VM was in migration for some of its samples.
+     */
+    private final boolean[] flags;
+
+    /**
+     * Index of the oldest entry.
+     */
+    private int head;
+    private int size;
+    private long evictedEntries;
+
+    /**
+     * Time, allocated and requested MIPS of the last sample,
+     * used to replace it when a new sample is added for the same time.
+     */
+    private double lastSampleTime = -1;
+    private double lastAllocatedMips;
+    private double lastRequestedMips;
+
+    /**
+     * Creates a history where each entry is a single sample.
+     * @param capacity the max number of samples to keep
+     */
+    public MachineStateHistory(final int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Creates a history where samples are rolled up by window.
+     * @param capacity the max number of entries to keep
+     * @param windowLength the length of each window (in seconds) or 0 to keep each sample in a different entry
+     */
+    public MachineStateHistory(final int capacity, final double windowLength) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        }
+
+        if (windowLength < 0) {
+            throw new IllegalArgumentException("windowLength cannot be negative");
+        }
+
+        this.windowLength = windowLength;
+        this.times = new double[capacity];
+        this.allocatedMipsSum = new double[capacity];
+        this.allocatedMipsMin = new double[capacity];
+        this.allocatedMipsMax = new double[capacity];
+        this.requestedMipsSum = new double[capacity];
+        this.samples = new int[capacity];
+        this.flags = new boolean[capacity];
+    }
+
+    /**
+     * Creates a history for a Host, which is collected every time the Host processing is updated.
+     * @param host the Host to collect the history
+     * @param capacity the max number of entries to keep
+     * @param windowLength the length of each window (in seconds) or 0 to keep each sample in a different entry
+     * @return the new history
+     */
+    public static MachineStateHistory of(final Host host, final int capacity, final double windowLength) {
+        final var history = new MachineStateHistory(capacity, windowLength);
+        host.addOnUpdateProcessingListener(info -> {
+            double requestedMips = 0;
+            for (final Vm vm : host.getVmList()) {
+                requestedMips += vm.getTotalCpuMipsRequested();
+            }
+
+            history.add(info.getTime(), host.getCpuMipsUtilization(), requestedMips, host.isActive());
+        });
+
+        return history;
+    }
+
+    /**
+     * Creates a history for a VM, which is collected every time the VM processing is updated.
+     * @param vm the VM to collect the history
+     * @param capacity the max number of entries to keep
+     * @param windowLength the length of each window (in seconds) or 0 to keep each sample in a different entry
+     * @return the new history
+     */
+    public static MachineStateHistory of(final Vm vm, final int capacity, final double windowLength) {
+        final var history = new MachineStateHistory(capacity, windowLength);
+        vm.addOnUpdateProcessingListener(info -> {
+            final double allocatedMips = vm.getCpuPercentUtilization() * vm.getTotalMipsCapacity();
+            history.add(info.getTime(), allocatedMips, vm.getTotalCpuMipsRequested(), vm.isInMigration());
+        });
+
+        return history;
+    }
+
+    /**
+     * Adds a sample to the history.
+     * If there is already a sample for the given time, it's replaced.
+     * @param time the sample time
+     * @param allocatedMips the MIPS allocated at that time
+     * @param requestedMips the MIPS requested at that time
+     * @param flag if the Host was active or the VM was in migration at that time
+     */
+    public void add(final double time, final double allocatedMips, final double requestedMips, final boolean flag) {
+        if (size > 0 && time == lastSampleTime) {
+            replaceLastSample(allocatedMips, requestedMips, flag);
+            return;
+        }
+
+        final double entryTime = windowLength > 0 ? Math.floor(time / windowLength) * windowLength : time;
+        if (size > 0 && entryTime == times[lastIndex()]) {
+            final int i = lastIndex();
+            allocatedMipsSum[i] += allocatedMips;
+            allocatedMipsMin[i] = Math.min(allocatedMipsMin[i], allocatedMips);
+            allocatedMipsMax[i] = Math.max(allocatedMipsMax[i], allocatedMips);
+            requestedMipsSum[i] += requestedMips;
+            samples[i]++;
+            flags[i] |= flag;
+        } else {
+            final int i = newEntryIndex();
+            times[i] = entryTime;
+            allocatedMipsSum[i] = allocatedMips;
+            allocatedMipsMin[i] = allocatedMips;
+            allocatedMipsMax[i] = allocatedMips;
+            requestedMipsSum[i] = requestedMips;
+            samples[i] = 1;
+            flags[i] = flag;
+        }
+
+        lastSampleTime = time;
+        lastAllocatedMips = allocatedMips;
+        lastRequestedMips = requestedMips;
+    }
+
+    /**
+     * Replaces the values of the last sample added, which is in the last entry.
+     * The min and max of a window with other samples just consider the new value.
+     */
+    private void replaceLastSample(final double allocatedMips, final double requestedMips, final boolean flag) {
+        final int i = lastIndex();
+        allocatedMipsSum[i] += allocatedMips - lastAllocatedMips;
+        requestedMipsSum[i] += requestedMips - lastRequestedMips;
+        if (samples[i] == 1) {
+            allocatedMipsMin[i] = allocatedMips;
+            allocatedMipsMax[i] = allocatedMips;
+            flags[i] = flag;
+        } else {
+            allocatedMipsMin[i] = Math.min(allocatedMipsMin[i], allocatedMips);
+            allocatedMipsMax[i] = Math.max(allocatedMipsMax[i], allocatedMips);
+            flags[i] |= flag;
+        }
+
+        lastAllocatedMips = allocatedMips;
+        lastRequestedMips = requestedMips;
+    }
+
+    /**
+     * Gets the position for a new entry, evicting the oldest one if the history is full.
+     */
+    private int newEntryIndex() {
+        if (size < times.length) {
+            return physicalIndex(size++);
+        }
+
+        final int i = head;
+        head = (head + 1) % times.length;
+        evictedEntries++;
+        return i;
+    }
+
+    private int lastIndex() {
+        return physicalIndex(size - 1);
+    }
+
+    /**
+     * Converts the index of an entry (where 0 is the oldest one)
+     * to its position inside the arrays.
+     */
+    private int physicalIndex(final int index) {
+        final int i = head + index;
+        return i < times.length ? i : i - times.length;
+    }
+
+    private int checkedIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for history size " + size);
+        }
+
+        return physicalIndex(index);
+    }
+
+    /**
+     * Gets the number of entries currently in the history.
+     * @return the number of entries currently in the history
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the max number of entries the history keeps.
+     * @return the max number of entries the history keeps
+     */
+    public int getCapacity() {
+        return times.length;
+    }
+
+    /**
+     * Gets the length of each window (in seconds) or 0 if each sample is kept in a different entry.
+     * @return the length of each window (in seconds) or 0 if each sample is kept in a different entry
+     */
+    public double getWindowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Gets the number of old entries overwritten because the history was full.
+     * @return the number of old entries overwritten because the history was full
+     */
+    public long getEvictedEntries() {
+        return evictedEntries;
+    }
+
+    /**
+     * Gets the time of an entry, which is the sample time or the start time of the window.
+     * @param index the entry index, where 0 is the oldest one
+     * @return the time of an entry, which is the sample time or the start time of the window
+     */
+    public double getTime(final int index) {
+        return times[checkedIndex(index)];
+    }
+
+    /**
+     * Gets the number of samples rolled up into an entry.
+     * @param index the entry index, where 0 is the oldest one
+     * @return the number of samples rolled up into an entry
+     */
+    public int getSamples(final int index) {
+        return samples[checkedIndex(index)];
+    }
+
+    /**
+     * Gets the mean MIPS allocated in an entry.
+     * @param index the entry index, where 0 is the oldest one
+     * @return the mean MIPS allocated in an entry
+     */
+    public double getAllocatedMips(final int index) {
+        final int i = checkedIndex(index);
+        return allocatedMipsSum[i] / samples[i];
+    }
+
+    /**
+     * Gets the min MIPS allocated in an entry.
+     * @param index the entry index, where 0 is the oldest one
+     * @return the min MIPS allocated in an entry
+     */
+    public double getMinAllocatedMips(final int index) {
+        return allocatedMipsMin[checkedIndex(index)];
+    }
+
+    /**
+     * Gets the max MIPS allocated in an entry.
+     * @param index the entry index, where 0 is the oldest one
+     * @return the max MIPS allocated in an entry
+     */
+    public double getMaxAllocatedMips(final int index) {
+        return allocatedMipsMax[checkedIndex(index)];
+    }
+
+    /**
+     * Gets the mean MIPS requested in an entry.
+     * @param index the entry index, where 0 is the oldest one
+     * @return the mean MIPS requested in an entry
+     */
+    public double getRequestedMips(final int index) {
+        final int i = checkedIndex(index);
+        return requestedMipsSum[i] / samples[i];
+    }
+
+    /**
+     * Checks if the Host was active or the VM was in migration in some sample of an entry.
+     * @param index the entry index, where 0 is the oldest one
+     * @return true if the Host was active or the VM was in migration in some sample of the entry, false otherwise
+     */
+    public boolean getFlag(final int index) {
+        return flags[checkedIndex(index)];
+    }
+
+    /**
+     * Gets the mean MIPS allocated along the samples currently in the history.
+     * @return the mean MIPS allocated along the samples currently in the history
+     */
+    public double getMeanAllocatedMips() {
+        double sum = 0;
+        long count = 0;
+        for (int index = 0; index < size; index++) {
+            final int i = physicalIndex(index);
+            sum += allocatedMipsSum[i];
+            count += samples[i];
+        }
+
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Gets the min MIPS allocated along the samples currently in the history.
+     * @return the min MIPS allocated along the samples currently in the history
+     */
+    public double getMinAllocatedMips() {
+        double min = size == 0 ? 0 : Double.MAX_VALUE;
+        for (int index = 0; index < size; index++) {
+            min = Math.min(min, allocatedMipsMin[physicalIndex(index)]);
+        }
+
+        return min;
+    }
+
+    /**
+     * Gets the max MIPS allocated along the samples currently in the history.
+     * @return the max MIPS allocated along the samples currently in the history
+     */
+    public double getMaxAllocatedMips() {
+        double max = 0;
+        for (int index = 0; index < size; index++) {
+            max = Math.max(max, allocatedMipsMax[physicalIndex(index)]);
+        }
+
+        return max;
+    }
+
+    /**
+     * Gets a read-only view of the history as Host entries.
+     * Each {@link HostStateHistoryEntry} is created when accessed,
+     * with the mean allocated and requested MIPS of the entry.
+     * Since the view is backed by the history, it changes as new samples are added.
+     * @return a read-only view of the history as Host entries
+     */
+    public List<HostStateHistoryEntry> asHostEntries() {
+        return new AbstractList<>() {
+            @Override
+            public HostStateHistoryEntry get(final int index) {
+                return new HostStateHistoryEntry(getTime(index), getAllocatedMips(index), getRequestedMips(index), getFlag(index));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Gets a read-only view of the history as VM entries.
+     * Each {@link VmStateHistoryEntry} is created when accessed,
+     * with the mean allocated and requested MIPS of the entry.
+     * Since the view is backed by the history, it changes as new samples are added.
+     * @return a read-only view of the history as VM entries
+     */
+    public List<VmStateHistoryEntry> asVmEntries() {
+        return new AbstractList<>() {
+            @Override
+            public VmStateHistoryEntry get(final int index) {
+                return new VmStateHistoryEntry(getTime(index), getAllocatedMips(index), getRequestedMips(index), getFlag(index));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
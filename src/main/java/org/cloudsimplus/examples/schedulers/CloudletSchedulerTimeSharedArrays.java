@@ -0,0 +1,471 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.schedulers;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletExecution;
+import org.cloudbus.cloudsim.resources.FileStorage;
+import org.cloudbus.cloudsim.resources.Ram;
+import org.cloudbus.cloudsim.resources.ResourceManageable;
+import org.cloudbus.cloudsim.schedulers.MipsShare;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletScheduler;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.schedulers.cloudlet.network.CloudletTaskScheduler;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.listeners.CloudletResourceAllocationFailEventInfo;
+import org.cloudsimplus.listeners.EventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link CloudletSchedulerTimeShared} whose processing update loop doesn't allocate
+ * objects at every simulation tick.
+ *
+ * <p>The regular time-shared scheduler computes, for every executing Cloudlet
+ * and at every update, the number of PEs used by all executing Cloudlets
+ * using a Stream. It also uses lambda expressions to compute RAM and BW over-subscription
+ * delays and collects finished Cloudlets into a new List.
+ * That generates a lot of garbage and quadratic work
+ * when a VM runs thousands of Cloudlets with a {@code SCHEDULING_INTERVAL = 0},
+ * such as in the {@link org.cloudsimplus.examples.performance.UtilizationModelFullPerformance}.</p>
+ *
+ * <p>This scheduler keeps executing Cloudlets into an array,
+ * which is updated when Cloudlets start, finish, are paused, resumed or canceled.
+ * At every update, it fills primitive arrays with the remaining length and
+ * allocated MIPS of each executing Cloudlet, then computes the time
+ * the next Cloudlet will finish from them.
+ * The total PEs of executing Cloudlets is tracked incrementally,
+ * making {@link #getAvailableMipsByPe()} constant-time.</p>
+ *
+ * <p>The order and formulas of the computations are the same as in
+ * the superclass, so finished Cloudlets get exactly the same results.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class CloudletSchedulerTimeSharedArrays extends CloudletSchedulerTimeShared {
+    private static final long serialVersionUID = 4771258023828835168L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The Cloudlets currently in the execution list, in the same order.
+     */
+    private CloudletExecution[] execCloudlets = new CloudletExecution[INITIAL_CAPACITY];
+
+    /**
+     * The remaining length (in MI) of each Cloudlet in {@link #execCloudlets}
+     * at the last processing update.
+     */
+    private long[] remainingLength = new long[INITIAL_CAPACITY];
+
+    /**
+     * The MIPS allocated to each Cloudlet in {@link #execCloudlets}
+     * at the last processing update.
+     */
+    private double[] allocatedMips = new double[INITIAL_CAPACITY];
+
+    /**
+     * The remaining lifetime of each Cloudlet in {@link #execCloudlets}
+     * at the last processing update.
+     */
+    private double[] remainingLifeTime = new double[INITIAL_CAPACITY];
+
+    private int execCount;
+    private long execPes;
+    private int waitingCount;
+
+    /**
+     * Indicates finished Cloudlets are being removed from {@link #execCloudlets}
+     * by {@link #addCloudletsToFinishedList()}, which compacts the array by itself.
+     */
+    private boolean removingFinished;
+
+    /**
+     * A copy of the listeners registered in the superclass, which keeps them private.
+     */
+    private final List<EventListener<CloudletResourceAllocationFailEventInfo>> resourceAllocationFailListeners = new ArrayList<>();
+
+    @Override
+    public double updateProcessing(final double currentTime, final MipsShare mipsShare) {
+        setCurrentMipsShare(mipsShare);
+        if (isEmpty()) {
+            setPreviousTime(currentTime);
+            return Double.MAX_VALUE;
+        }
+
+        final var vm = (VmSimple)getVm();
+        vm.getRam().deallocateAllResources();
+        vm.getBw().deallocateAllResources();
+
+        double nextCloudletFinishTime = updateCloudletsProcessing(currentTime);
+        if (waitingCount > 0) {
+            nextCloudletFinishTime = Math.min(nextCloudletFinishTime, moveNextCloudletsFromWaitingToExecList(currentTime));
+        }
+
+        addCloudletsToFinishedList();
+        setPreviousTime(currentTime);
+        vm.getSimulation().setLastCloudletProcessingUpdate(currentTime);
+        return nextCloudletFinishTime;
+    }
+
+    /**
+     * Updates the processing of all executing Cloudlets,
+     * filling the primitive arrays with their state after the update.
+     * @param currentTime the current simulation time
+     * @return the time the next Cloudlet is expected to finish
+     */
+    private double updateCloudletsProcessing(final double currentTime) {
+        final CloudletTaskScheduler taskScheduler = getTaskScheduler();
+        long usedPes = 0;
+        for (int i = 0; i < execCount; i++) {
+            final CloudletExecution cle = execCloudlets[i];
+            final Cloudlet cloudlet = cle.getCloudlet();
+            long partialFinishedMI = 0;
+            if (taskScheduler.isTimeToUpdateCloudletProcessing(cloudlet)) {
+                partialFinishedMI = updateCloudletProcessing(cle, currentTime);
+            }
+            taskScheduler.processCloudletTasks(cloudlet, partialFinishedMI);
+
+            cle.setLastAllocatedMips(getAllocatedMipsForCloudlet(cle, currentTime));
+            allocatedMips[i] = cle.getLastAllocatedMips();
+            remainingLength[i] = cle.getRemainingCloudletLength();
+            remainingLifeTime[i] = cle.getRemainingLifeTime();
+            usedPes += cloudlet.getNumberOfPes();
+        }
+
+        final Vm vm = getVm();
+        ((VmSimple)vm).setFreePesNumber(vm.getNumberOfPes() - usedPes);
+
+        final double minTimeBetweenEvents = vm.getSimulation().getMinTimeBetweenEvents();
+        double nextCloudletFinishTime = Double.MAX_VALUE;
+        for (int i = 0; i < execCount; i++) {
+            final double estimatedFinishTime = Math.min(remainingLifeTime[i], remainingLength[i] / allocatedMips[i]);
+            nextCloudletFinishTime = Math.min(nextCloudletFinishTime, Math.max(estimatedFinishTime, minTimeBetweenEvents));
+        }
+
+        return nextCloudletFinishTime;
+    }
+
+    @Override
+    protected long updateCloudletProcessing(final CloudletExecution cle, final double currentTime) {
+        final double partialFinishedInstructions = cloudletExecutedInstructionsForTimeSpan(cle, currentTime);
+        cle.updateProcessing(partialFinishedInstructions);
+        final var vm = (VmSimple)getVm();
+        updateVmResourceAbsoluteUtilization(cle, vm.getRam(), cle.getCloudlet().getUtilizationModelRam());
+        updateVmResourceAbsoluteUtilization(cle, vm.getBw(), cle.getCloudlet().getUtilizationModelBw());
+        return (long)(partialFinishedInstructions / 1_000_000.0);
+    }
+
+    private double cloudletExecutedInstructionsForTimeSpan(final CloudletExecution cle, final double currentTime) {
+        final double processingTimeSpan = hasCloudletFileTransferTimePassed(cle, currentTime) ? timeSpan(cle, currentTime) : 0;
+        final double vMemDelay = getVirtualMemoryDelay(cle, processingTimeSpan);
+        final double reducedBwDelay = getBandwidthOverSubscriptionDelay(cle, processingTimeSpan);
+        if (vMemDelay == Double.MIN_VALUE && reducedBwDelay == Double.MIN_VALUE) {
+            return 0;
+        }
+
+        final double cloudletUsedMips = getAllocatedMipsForCloudlet(cle, currentTime, true);
+        final double actualProcessingTime = processingTimeSpan - (validateDelay(vMemDelay) + validateDelay(reducedBwDelay));
+        return cloudletUsedMips * actualProcessingTime * 1_000_000.0;
+    }
+
+    private static double validateDelay(final double delay) {
+        return delay == Double.MIN_VALUE ? 0 : delay;
+    }
+
+    /**
+     * Computes the delay to process a Cloudlet because RAM it requests isn't available,
+     * requiring swapping.
+     * @return the delay, or {@link Double#MIN_VALUE} if the VM can never provide the requested RAM
+     */
+    private double getVirtualMemoryDelay(final CloudletExecution cle, final double processingTimeSpan) {
+        final Vm vm = getVm();
+        final ResourceManageable vmRam = ((VmSimple)vm).getRam();
+        final double requestedRam = getAbsoluteUtilization(cle.getCloudlet().getUtilizationModelRam(), vmRam);
+        if (requestedRam > vmRam.getCapacity() || requestedRam > vm.getStorage().getAvailableResource()) {
+            cle.incOverSubscriptionDelay(processingTimeSpan);
+            return Double.MIN_VALUE;
+        }
+
+        final double notAllocatedRam = Math.max(requestedRam - vmRam.getAvailableResource(), 0);
+        if (notAllocatedRam > 0) {
+            final FileStorage storage = cle.getCloudlet().getVm().getHost().getStorage();
+            final double delay = storage.getTransferTime((int)notAllocatedRam);
+            cle.incOverSubscriptionDelay(delay);
+            return delay;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Computes the delay to process a Cloudlet because the BW it requests isn't fully available.
+     * @return the delay, or {@link Double#MIN_VALUE} if the VM can never provide the requested BW
+     */
+    private double getBandwidthOverSubscriptionDelay(final CloudletExecution cle, final double processingTimeSpan) {
+        final ResourceManageable vmBw = ((VmSimple)getVm()).getBw();
+        final double requestedBw = getAbsoluteUtilization(cle.getCloudlet().getUtilizationModelBw(), vmBw);
+        if (requestedBw > vmBw.getCapacity()) {
+            cle.incOverSubscriptionDelay(processingTimeSpan);
+            return Double.MIN_VALUE;
+        }
+
+        final double notAllocatedBw = Math.max(requestedBw - vmBw.getAvailableResource(), 0);
+        if (notAllocatedBw > 0) {
+            final double delay = requestedBw / (requestedBw - notAllocatedBw) - 1;
+            cle.incOverSubscriptionDelay(delay);
+            return delay;
+        }
+
+        return 0;
+    }
+
+    private boolean hasCloudletFileTransferTimePassed(final CloudletExecution cle, final double currentTime) {
+        return cle.getFileTransferTime() == 0 ||
+               currentTime - cle.getCloudletArrivalTime() > cle.getFileTransferTime() ||
+               cle.getCloudlet().getFinishedLengthSoFar() > 0;
+    }
+
+    private void updateVmResourceAbsoluteUtilization(
+        final CloudletExecution cle, final ResourceManageable vmResource, final UtilizationModel model)
+    {
+        final Cloudlet cloudlet = cle.getCloudlet();
+        final long requested = (long)getAbsoluteUtilization(model, vmResource);
+        if (requested > vmResource.getCapacity()) {
+            if (LOGGER.isWarnEnabled()) {
+                LOGGER.warn(
+                    "{}: {}: {} requested {} {} of {} but that is >= the VM capacity ({})",
+                    getVm().getSimulation().clockStr(), getClass().getSimpleName(), cloudlet,
+                    requested, vmResource.getUnit(), vmResource.getClass().getSimpleName(), vmResource.getCapacity());
+            }
+            return;
+        }
+
+        final long available = vmResource.getAvailableResource();
+        if (requested > available) {
+            //Called for every Cloudlet at each update, so the message is just built if it's going to be logged
+            if (LOGGER.isWarnEnabled()) {
+                final String msg1 = available > 0 ? String.format("just %d was available", available) : "no amount is available.";
+                final String msg2 = vmResource.getClass() == Ram.class ? ". Using Virtual Memory," : ",";
+                LOGGER.warn(
+                    "{}: {}: {} requested {} {} of {} but {}{} which delays Cloudlet processing.",
+                    getVm().getSimulation().clockStr(), getClass().getSimpleName(), cloudlet,
+                    requested, vmResource.getUnit(), vmResource.getClass().getSimpleName(), msg1, msg2);
+            }
+            notifyResourceAllocationFailListeners(vmResource, cloudlet, requested, available);
+        }
+
+        vmResource.allocateResource(Math.min(requested, available));
+    }
+
+    private void notifyResourceAllocationFailListeners(
+        final ResourceManageable resource, final Cloudlet cloudlet, final long requested, final long available)
+    {
+        final double time = getVm().getSimulation().clock();
+        for (int i = resourceAllocationFailListeners.size() - 1; i >= 0; i--) {
+            final var listener = resourceAllocationFailListeners.get(i);
+            listener.update(CloudletResourceAllocationFailEventInfo.of(listener, cloudlet, resource.getClass(), requested, available, time));
+        }
+    }
+
+    private static double getAbsoluteUtilization(final UtilizationModel model, final ResourceManageable vmResource) {
+        return model.getUnit() == UtilizationModel.Unit.ABSOLUTE ?
+                    Math.min(model.getUtilization(), vmResource.getCapacity()) :
+                    model.getUtilization() * vmResource.getCapacity();
+    }
+
+    /**
+     * Moves finished Cloudlets to the finished list, in execution order,
+     * compacting {@link #execCloudlets} in a single pass.
+     */
+    private void addCloudletsToFinishedList() {
+        final double clock = getVm().getSimulation().clock();
+        int kept = 0;
+        removingFinished = true;
+        try {
+            for (int i = 0; i < execCount; i++) {
+                final CloudletExecution cle = execCloudlets[i];
+                if (cle.getCloudlet().isFinished()) {
+                    cloudletFinish(cle);
+                    cle.setFinishTime(clock);
+                    removeCloudletFromExecList(cle);
+                } else execCloudlets[kept++] = cle;
+            }
+        } finally {
+            removingFinished = false;
+        }
+
+        Arrays.fill(execCloudlets, kept, execCount, null);
+        execCount = kept;
+    }
+
+    @Override
+    public double getAvailableMipsByPe() {
+        final MipsShare mipsShare = getCurrentMipsShare();
+        return execPes > mipsShare.pes() ? mipsShare.totalMips() / execPes : mipsShare.mips();
+    }
+
+    @Override
+    protected void addCloudletToExecList(final CloudletExecution cle) {
+        super.addCloudletToExecList(cle);
+        if (execCount == execCloudlets.length) {
+            final int newCapacity = execCount * 2;
+            execCloudlets = Arrays.copyOf(execCloudlets, newCapacity);
+            remainingLength = Arrays.copyOf(remainingLength, newCapacity);
+            allocatedMips = Arrays.copyOf(allocatedMips, newCapacity);
+            remainingLifeTime = Arrays.copyOf(remainingLifeTime, newCapacity);
+        }
+
+        execCloudlets[execCount++] = cle;
+        execPes += cle.getNumberOfPes();
+    }
+
+    @Override
+    protected CloudletExecution removeCloudletFromExecList(final CloudletExecution cle) {
+        final CloudletExecution removed = super.removeCloudletFromExecList(cle);
+        if (removed == CloudletExecution.NULL) {
+            return removed;
+        }
+
+        execPes -= removed.getNumberOfPes();
+        if (!removingFinished) {
+            removeFromExecArray(removed);
+        }
+
+        return removed;
+    }
+
+    private void removeFromExecArray(final CloudletExecution cle) {
+        for (int i = 0; i < execCount; i++) {
+            if (execCloudlets[i] == cle) {
+                System.arraycopy(execCloudlets, i + 1, execCloudlets, i, execCount - i - 1);
+                execCloudlets[--execCount] = null;
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected void addCloudletToWaitingList(final CloudletExecution cle) {
+        super.addCloudletToWaitingList(cle);
+        if (cle != CloudletExecution.NULL) {
+            waitingCount++;
+        }
+    }
+
+    @Override
+    protected CloudletExecution addWaitingCloudletToExecList(final CloudletExecution cle) {
+        waitingCount--;
+        return super.addWaitingCloudletToExecList(cle);
+    }
+
+    /**
+     * Rebuilds the execution array, PEs and waiting counters from the superclass lists.
+     * It's required after operations which change such lists
+     * through private methods of the superclass, such as pausing or canceling a Cloudlet.
+     */
+    private void syncWithSuperclassLists() {
+        final List<CloudletExecution> execList = getCloudletExecList();
+        Arrays.fill(execCloudlets, 0, execCount, null);
+        execCount = 0;
+        execPes = 0;
+        for (final CloudletExecution cle : execList) {
+            if (execCount == execCloudlets.length) {
+                execCloudlets = Arrays.copyOf(execCloudlets, execCount * 2);
+            }
+
+            execCloudlets[execCount++] = cle;
+            execPes += cle.getNumberOfPes();
+        }
+
+        final int capacity = execCloudlets.length;
+        if (remainingLength.length < capacity) {
+            remainingLength = Arrays.copyOf(remainingLength, capacity);
+            allocatedMips = Arrays.copyOf(allocatedMips, capacity);
+            remainingLifeTime = Arrays.copyOf(remainingLifeTime, capacity);
+        }
+
+        waitingCount = getCloudletWaitingList().size();
+    }
+
+    @Override
+    public boolean cloudletReady(final Cloudlet cloudlet) {
+        final boolean ready = super.cloudletReady(cloudlet);
+        syncWithSuperclassLists();
+        return ready;
+    }
+
+    @Override
+    public boolean cloudletPause(final Cloudlet cloudlet) {
+        final boolean paused = super.cloudletPause(cloudlet);
+        syncWithSuperclassLists();
+        return paused;
+    }
+
+    @Override
+    public double cloudletResume(final Cloudlet cloudlet) {
+        final double estimatedFinishTime = super.cloudletResume(cloudlet);
+        syncWithSuperclassLists();
+        return estimatedFinishTime;
+    }
+
+    @Override
+    public Cloudlet cloudletFail(final Cloudlet cloudlet) {
+        final Cloudlet failed = super.cloudletFail(cloudlet);
+        syncWithSuperclassLists();
+        return failed;
+    }
+
+    @Override
+    public Cloudlet cloudletCancel(final Cloudlet cloudlet) {
+        final Cloudlet canceled = super.cloudletCancel(cloudlet);
+        syncWithSuperclassLists();
+        return canceled;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        syncWithSuperclassLists();
+    }
+
+    @Override
+    public CloudletScheduler addOnCloudletResourceAllocationFail(final EventListener<CloudletResourceAllocationFailEventInfo> listener) {
+        super.addOnCloudletResourceAllocationFail(listener);
+        if (!EventListener.NULL.equals(listener)) {
+            resourceAllocationFailListeners.add(listener);
+        }
+
+        return this;
+    }
+
+    @Override
+    public boolean removeOnCloudletResourceAllocationFail(final EventListener<CloudletResourceAllocationFailEventInfo> listener) {
+        resourceAllocationFailListeners.remove(listener);
+        return super.removeOnCloudletResourceAllocationFail(listener);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.sweep;
+
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudsimplus.examples.performance.PerformanceScenario;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs every {@link SweepConfiguration} of a {@link ParameterGrid}
+ * as an independent simulation, executing them in parallel on a bounded {@link ForkJoinPool}.
+ *
+ * <p>Configurations are taken from the grid only when there is room for them
+ * to be executed, so that the number of simulations alive at the same time
+ * is bounded by the pool parallelism, no matter the size of the grid.
+ * As soon as a simulation finishes, its {@link SweepResult} is sent to the
+ * result consumer (such as a {@link SweepResultTable}) and the simulation objects
+ * become eligible for garbage collection.</p>
+ *
+ * <p>If a log directory is set, the logs of each simulation are written
+ * to their own file by a {@link SimulationLogContext}, thus
+ * logging doesn't need to be disabled.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class ParallelSweepRunner {
+    private final ParameterGrid grid;
+    private int parallelism;
+    private Path logDir;
+    private Consumer<SweepResult> resultConsumer;
+
+    /**
+     * Creates a runner that uses all available processors
+     * and prints results into a {@link SweepResultTable}.
+     * @param grid the grid of parameters to run simulations for
+     */
+    public ParallelSweepRunner(final ParameterGrid grid) {
+        this.grid = Objects.requireNonNull(grid);
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.resultConsumer = new SweepResultTable();
+    }
+
+    /**
+     * Runs all simulations in the grid, returning after all of them have finished.
+     * If a simulation fails, no more simulations are started and,
+     * after the running ones finish, the failure is rethrown
+     * (with the failures of other simulations added as suppressed exceptions).
+     * @throws InterruptedException if the current thread is interrupted while waiting for simulations
+     */
+    public void run() throws InterruptedException {
+        final var pool = new ForkJoinPool(parallelism);
+        final var permits = new Semaphore(parallelism);
+        final var tasks = new ArrayDeque<ForkJoinTask<?>>(parallelism);
+        final SimulationLogContext logContext = logDir == null ? null : SimulationLogContext.install(logDir);
+        RuntimeException failure = null;
+        try {
+            final Iterator<SweepConfiguration> configs = grid.iterator();
+            while (failure == null && configs.hasNext()) {
+                final SweepConfiguration config = configs.next();
+                permits.acquire();
+                failure = joinFinished(tasks, failure);
+                tasks.add(pool.submit(() -> {
+                    try {
+                        runSimulation(config, logContext);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            for (final ForkJoinTask<?> task : tasks) {
+                failure = join(task, failure);
+            }
+        } finally {
+            pool.shutdown();
+            awaitTermination(pool);
+            if(logContext != null) {
+                logContext.close();
+            }
+        }
+
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Joins the finished tasks, removing them from the given collection.
+     * @return the first failure found so far or null if no simulation failed
+     */
+    private static RuntimeException joinFinished(final Collection<ForkJoinTask<?>> tasks, RuntimeException failure) {
+        final Iterator<ForkJoinTask<?>> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            final ForkJoinTask<?> task = iterator.next();
+            if (task.isDone()) {
+                failure = join(task, failure);
+                iterator.remove();
+            }
+        }
+
+        return failure;
+    }
+
+    /**
+     * Waits for a task to finish.
+     * @param failure the first failure found so far or null if no simulation failed
+     * @return the first failure, including the one from the given task
+     */
+    private static RuntimeException join(final ForkJoinTask<?> task, final RuntimeException failure) {
+        try {
+            task.join();
+            return failure;
+        } catch (RuntimeException e) {
+            if(failure == null) {
+                return e;
+            }
+
+            failure.addSuppressed(e);
+            return failure;
+        }
+    }
+
+    /**
+     * Waits for all simulations in the pool to finish,
+     * so that the log context isn't closed while they are running.
+     * If the current thread is interrupted, it keeps waiting and then restores the interrupt status.
+     */
+    private static void awaitTermination(final ForkJoinPool pool) {
+        boolean interrupted = false;
+        while (!pool.isTerminated()) {
+            try {
+                pool.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSimulation(final SweepConfiguration config, final SimulationLogContext logContext) {
+        if(logContext != null) {
+            logContext.open(config.name());
+        }
+
+        try {
+            final double startSecs = TimeUtil.currentTimeSecs();
+            final PerformanceScenario scenario = config.newScenario();
+            scenario.run();
+            final double execSecs = TimeUtil.elapsedSeconds(startSecs);
+            resultConsumer.accept(SweepResult.of(config, execSecs, scenario.getSimulation(), scenario.getBroker()));
+        } finally {
+            if(logContext != null) {
+                logContext.release();
+            }
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of simulations to run at the same time.
+     * @param parallelism the number of simulations to run in parallel
+     * @return this runner
+     */
+    public ParallelSweepRunner setParallelism(final int parallelism) {
+        if(parallelism <= 0){
+            throw new IllegalArgumentException("Parallelism must be greater than zero.");
+        }
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets a directory where the logs of each simulation will be written
+     * to a different file.
+     * @param logDir the log directory or null to keep the log configuration as is
+     * @return this runner
+     */
+    public ParallelSweepRunner setLogDir(final Path logDir) {
+        this.logDir = logDir;
+        return this;
+    }
+
+    /**
+     * Sets a {@link Consumer} to receive the results of each simulation as soon as it finishes.
+     * It is called from multiple threads concurrently, thus it must be thread-safe.
+     * @param resultConsumer the result consumer
+     * @return this runner
+     */
+    public ParallelSweepRunner setResultConsumer(final Consumer<SweepResult> resultConsumer) {
+        this.resultConsumer = Objects.requireNonNull(resultConsumer);
+        return this;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.sweep;
+
+import org.cloudbus.cloudsim.allocationpolicies.*;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletScheduler;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerCompletelyFair;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudsimplus.examples.allocationpolicies.VmAllocationPolicyIndexedFirstFit;
+import org.cloudsimplus.examples.allocationpolicies.VmAllocationPolicySortedBestFit;
+import org.cloudsimplus.examples.schedulers.CloudletSchedulerTimeSharedArrays;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * A grid of simulation parameters whose cartesian product defines
+ * the {@link SweepConfiguration}s to be executed by a {@link ParallelSweepRunner}.
+ * Configurations are generated lazily while the grid is iterated,
+ * so that a sweep of thousands of points doesn't need to hold all of them
+ * in memory.
+ *
+ * <p>VmAllocationPolicies are identified by the suffix of their class names
+ * (such as "FirstFit" for {@link VmAllocationPolicyFirstFit}) and
+ * CloudletSchedulers by theirs (such as "TimeShared" for {@link CloudletSchedulerTimeShared}).</p>
+ *
+ * @author Ishak Megatli
+ */
+public class ParameterGrid implements Iterable<SweepConfiguration> {
+    private List<Integer> hosts = List.of(4);
+    private List<Integer> vms = List.of(4);
+    private List<Integer> cloudlets = List.of(8);
+    private List<String> vmAllocationPolicies = List.of("Simple");
+    private List<String> cloudletSchedulers = List.of("TimeShared");
+
+    /**
+     * Gets the number of configurations in the grid.
+     * @return the number of configurations in the grid
+     */
+    public long size() {
+        return (long)hosts.size() * vms.size() * cloudlets.size() * vmAllocationPolicies.size() * cloudletSchedulers.size();
+    }
+
+    @Override
+    public Iterator<SweepConfiguration> iterator() {
+        return new Iterator<>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public SweepConfiguration next() {
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+
+                /* Decodes the index as a mixed-radix number, where each digit is the index of a parameter value. */
+                long i = next;
+                final String scheduler = cloudletSchedulers.get((int)(i % cloudletSchedulers.size()));
+                i /= cloudletSchedulers.size();
+                final String policy = vmAllocationPolicies.get((int)(i % vmAllocationPolicies.size()));
+                i /= vmAllocationPolicies.size();
+                final int cloudletsNumber = cloudlets.get((int)(i % cloudlets.size()));
+                i /= cloudlets.size();
+                final int vmsNumber = vms.get((int)(i % vms.size()));
+                i /= vms.size();
+                final int hostsNumber = hosts.get((int)i);
+                return new SweepConfiguration((int)next++, hostsNumber, vmsNumber, cloudletsNumber, policy, scheduler);
+            }
+        };
+    }
+
+    /**
+     * Gets a {@link Supplier} that creates {@link VmAllocationPolicy} instances
+     * from a policy name.
+     * @param name the suffix of the VmAllocationPolicy class name (after "VmAllocationPolicy")
+     * @return the supplier for the given policy
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Supplier<VmAllocationPolicy> vmAllocationPolicySupplier(final String name) {
+        return switch (name) {
+            case "Simple" -> VmAllocationPolicySimple::new;
+            case "FirstFit" -> VmAllocationPolicyFirstFit::new;
+            case "IndexedFirstFit" -> VmAllocationPolicyIndexedFirstFit::new;
+            case "BestFit" -> VmAllocationPolicyBestFit::new;
+            case "SortedBestFit" -> VmAllocationPolicySortedBestFit::new;
+            case "RoundRobin" -> VmAllocationPolicyRoundRobin::new;
+            default -> throw new IllegalArgumentException("Unknown VmAllocationPolicy: " + name);
+        };
+    }
+
+    /**
+     * Gets a {@link Supplier} that creates {@link CloudletScheduler} instances
+     * from a scheduler name.
+     * @param name the suffix of the CloudletScheduler class name (after "CloudletScheduler")
+     * @return the supplier for the given scheduler
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Supplier<CloudletScheduler> cloudletSchedulerSupplier(final String name) {
+        return switch (name) {
+            case "TimeShared" -> CloudletSchedulerTimeShared::new;
+            case "TimeSharedArrays" -> CloudletSchedulerTimeSharedArrays::new;
+            case "SpaceShared" -> CloudletSchedulerSpaceShared::new;
+            case "CompletelyFair" -> CloudletSchedulerCompletelyFair::new;
+            default -> throw new IllegalArgumentException("Unknown CloudletScheduler: " + name);
+        };
+    }
+
+    public ParameterGrid setHosts(final Integer... hosts) {
+        this.hosts = requireNonEmpty(List.of(hosts));
+        return this;
+    }
+
+    public ParameterGrid setVms(final Integer... vms) {
+        this.vms = requireNonEmpty(List.of(vms));
+        return this;
+    }
+
+    public ParameterGrid setCloudlets(final Integer... cloudlets) {
+        this.cloudlets = requireNonEmpty(List.of(cloudlets));
+        return this;
+    }
+
+    public ParameterGrid setVmAllocationPolicies(final String... names) {
+        List.of(names).forEach(ParameterGrid::vmAllocationPolicySupplier);
+        this.vmAllocationPolicies = requireNonEmpty(List.of(names));
+        return this;
+    }
+
+    public ParameterGrid setCloudletSchedulers(final String... names) {
+        List.of(names).forEach(ParameterGrid::cloudletSchedulerSupplier);
+        this.cloudletSchedulers = requireNonEmpty(List.of(names));
+        return this;
+    }
+
+    private static <T> List<T> requireNonEmpty(final List<T> values) {
+        if(values.isEmpty()){
+            throw new IllegalArgumentException("At least one value must be given for each grid parameter.");
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.sweep;
+
+import ch.qos.logback.classic.Level;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudsimplus.util.Log;
+
+import java.nio.file.Path;
+
+/**
+ * An example showing how to run a parameter sweep, where an independent
+ * simulation is executed for each combination of a {@link ParameterGrid}.
+ * Simulations run in parallel by a {@link ParallelSweepRunner},
+ * and their results are printed into a single {@link SweepResultTable}
+ * as soon as each simulation finishes.
+ *
+ * <p>As in the {@link org.cloudsimplus.examples.ParallelSimulationsExample},
+ * logging doesn't need to be disabled, since the logs of each simulation
+ * are written to a different file inside the {@link #LOG_DIR}.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class ParameterSweepExample {
+    private static final Path LOG_DIR = Path.of("target", "sweep-logs");
+
+    public static void main(String[] args) throws InterruptedException {
+        new ParameterSweepExample();
+    }
+
+    private ParameterSweepExample() throws InterruptedException {
+        Log.setLevel(Level.INFO);
+        final var grid = new ParameterGrid()
+            .setHosts(10, 20)
+            .setVms(20, 40)
+            .setCloudlets(40, 80, 160)
+            .setVmAllocationPolicies("Simple", "FirstFit", "BestFit")
+            .setCloudletSchedulers("TimeShared", "SpaceShared");
+
+        final var table = new SweepResultTable();
+        final var runner = new ParallelSweepRunner(grid).setLogDir(LOG_DIR).setResultConsumer(table);
+
+        System.out.printf("Running %d simulations using %d threads%n", grid.size(), runner.getParallelism());
+        final double startSecs = TimeUtil.currentTimeSecs();
+        runner.run();
+        System.out.printf(
+            "%nTime to run %d simulations: %s. Logs written to %s%n",
+            table.getRows(), TimeUtil.secondsToStr(TimeUtil.elapsedSeconds(startSecs)), LOG_DIR.toAbsolutePath());
+    }
+}
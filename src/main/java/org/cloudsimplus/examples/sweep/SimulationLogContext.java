@@ -0,0 +1,301 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.sweep;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Routes the log messages of each simulation running in parallel to its own log file,
+ * so that logging doesn't need to be disabled when executing
+ * simulations concurrently (as shown in the {@link org.cloudsimplus.examples.ParallelSimulationsExample}).
+ *
+ * <p>The simulation a log message belongs to is identified by the {@link #KEY}
+ * entry in the SLF4J {@link MDC} of the thread running that simulation,
+ * which is set by {@link #open(String)}.
+ * Messages not belonging to any simulation are sent to the appenders
+ * which were attached to the root logger before this context was installed.</p>
+ *
+ * <p>Messages are formatted by the thread running the simulation
+ * (since the simulation clock is part of each message, it's the one from that simulation)
+ * and then added to a {@link LockFreeRingBuffer}.
+ * A single background thread takes them from the buffer and writes them to files.
+ * That way, simulation threads neither hold locks nor wait for I/O while logging.
+ * They only spin when the buffer is full, so that no message is lost.</p>
+ *
+ * @author Ishak Megatli
+ */
+public final class SimulationLogContext implements AutoCloseable {
+    /**
+     * The MDC key which stores the name of the simulation running on the current thread.
+     */
+    public static final String KEY = "simulation";
+
+    /**
+     * The default number of log messages the buffer can hold.
+     */
+    public static final int DEF_BUFFER_CAPACITY = 8192;
+
+    /**
+     * A message informing the writer thread to stop.
+     */
+    private static final LogLine END = new LogLine("", "");
+
+    /**
+     * Time (in nanoseconds) the writer thread sleeps when the buffer is empty.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Path dir;
+    private final Logger root;
+    private final List<Appender<ILoggingEvent>> previousAppenders;
+
+    /**
+     * Writers for each simulation, which are just accessed by the {@link #writerThread}.
+     */
+    private final Map<String, Writer> writers;
+    private final RoutingAppender appender;
+    private final LockFreeRingBuffer<LogLine> buffer;
+    private final Thread writerThread;
+    private volatile IOException writerError;
+
+    /**
+     * A formatted log message for a given simulation.
+     * @param simulationName the name of the simulation the message belongs to
+     * @param text the formatted message or null to request the simulation log file to be closed
+     */
+    private record LogLine(String simulationName, String text) {}
+
+    private SimulationLogContext(final Path dir, final int bufferCapacity) {
+        this.dir = dir;
+        this.writers = new HashMap<>();
+        this.buffer = new LockFreeRingBuffer<>(bufferCapacity);
+        this.root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        this.previousAppenders = new ArrayList<>();
+        root.iteratorForAppenders().forEachRemaining(previousAppenders::add);
+
+        final var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        final var layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern("%-5level %msg%n");
+        layout.start();
+
+        this.appender = new RoutingAppender(layout);
+        appender.setContext(context);
+        appender.setName(KEY);
+        appender.start();
+
+        this.writerThread = new Thread(this::writeLines, "simulation-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        previousAppenders.forEach(root::detachAppender);
+        root.addAppender(appender);
+    }
+
+    /**
+     * Installs the log context with the {@link #DEF_BUFFER_CAPACITY default buffer capacity},
+     * replacing the appenders of the root logger until the context is {@link #close() closed}.
+     * @param dir the directory where a log file will be created for each simulation
+     * @return the installed context
+     */
+    public static SimulationLogContext install(final Path dir) {
+        return install(dir, DEF_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Installs the log context, replacing the appenders of the root logger
+     * until the context is {@link #close() closed}.
+     * @param dir the directory where a log file will be created for each simulation
+     * @param bufferCapacity the number of log messages the buffer can hold
+     *                       before simulation threads have to wait for them to be written
+     * @return the installed context
+     */
+    public static SimulationLogContext install(final Path dir, final int bufferCapacity) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new SimulationLogContext(dir, bufferCapacity);
+    }
+
+    /**
+     * Binds the current thread to a given simulation,
+     * so that log messages from this thread are written to that simulation's log file.
+     * @param simulationName the name of the simulation (used as the log file name)
+     */
+    public void open(final String simulationName) {
+        MDC.put(KEY, simulationName);
+    }
+
+    /**
+     * Requests the log file of the simulation bound to the current thread to be closed
+     * (after its pending messages are written), unbinding the thread from it.
+     */
+    public void release() {
+        final String name = MDC.get(KEY);
+        MDC.remove(KEY);
+        if(name != null){
+            put(new LogLine(name, null));
+        }
+    }
+
+    /**
+     * Writes all pending messages, closes all log files and
+     * restores the appenders the root logger had before this context was installed.
+     * @throws UncheckedIOException if some message couldn't be written
+     */
+    @Override
+    public void close() {
+        root.detachAppender(appender);
+        appender.stop();
+        previousAppenders.forEach(root::addAppender);
+        put(END);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if(writerError != null) {
+            throw new UncheckedIOException(writerError);
+        }
+    }
+
+    /**
+     * Adds a line to the buffer, spinning while it's full.
+     */
+    private void put(final LogLine line) {
+        while(!buffer.offer(line)) {
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Takes lines from the buffer and writes them to the log file of their simulations,
+     * until the {@link #END} line is found.
+     * Files are flushed only when the buffer becomes empty.
+     * After an error, lines keep being taken from the buffer (but not written),
+     * so that simulation threads don't wait forever for room in the buffer.
+     */
+    private void writeLines() {
+        LogLine line;
+        while((line = buffer.poll()) != END) {
+            try {
+                if(line == null) {
+                    flushAll();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                } else if(line.text() == null) {
+                    closeWriter(writers.remove(line.simulationName()));
+                } else if(writerError == null) {
+                    writers.computeIfAbsent(line.simulationName(), this::newWriter).write(line.text());
+                }
+            } catch (IOException e) {
+                setWriterError(e);
+            } catch (UncheckedIOException e) {
+                setWriterError(e.getCause());
+            }
+        }
+
+        writers.values().forEach(this::closeWriter);
+        writers.clear();
+    }
+
+    private void setWriterError(final IOException e) {
+        if(writerError == null) {
+            writerError = e;
+            appender.addError("Error writing simulation logs", e);
+        }
+    }
+
+    private void flushAll() throws IOException {
+        for (final Writer writer : writers.values()) {
+            writer.flush();
+        }
+    }
+
+    private void closeWriter(final Writer writer) {
+        if(writer == null) {
+            return;
+        }
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            appender.addError("Error closing simulation log file", e);
+        }
+    }
+
+    private Writer newWriter(final String simulationName) {
+        try {
+            return Files.newBufferedWriter(dir.resolve(simulationName + ".log"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * An appender that formats each log message and adds it to the buffer,
+     * tagged with the simulation that generated it.
+     */
+    private final class RoutingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+        private final PatternLayout layout;
+
+        private RoutingAppender(final PatternLayout layout) {
+            this.layout = layout;
+        }
+
+        @Override
+        protected void append(final ILoggingEvent evt) {
+            final String name = evt.getMDCPropertyMap().get(KEY);
+            if(name == null) {
+                previousAppenders.forEach(previous -> previous.doAppend(evt));
+                return;
+            }
+
+            put(new LogLine(name, layout.doLayout(evt)));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.sweep;
+
+import org.cloudsimplus.examples.performance.PerformanceScenario;
+
+/**
+ * A single point of a {@link ParameterGrid}, representing the configuration
+ * of one independent simulation to be executed by a {@link ParallelSweepRunner}.
+ *
+ * @param id the index of the configuration inside the grid
+ * @param hosts number of Hosts to create
+ * @param vms number of VMs to create
+ * @param cloudlets number of Cloudlets to create
+ * @param vmAllocationPolicy the name of the VmAllocationPolicy to use
+ * @param cloudletScheduler the name of the CloudletScheduler to use
+ * @author Ishak Megatli
+ */
+public record SweepConfiguration(
+    int id, int hosts, int vms, int cloudlets,
+    String vmAllocationPolicy, String cloudletScheduler)
+{
+    /**
+     * Creates a {@link PerformanceScenario} with the parameters of this configuration.
+     * @return a new scenario that is not built yet
+     */
+    public PerformanceScenario newScenario() {
+        return new PerformanceScenario()
+            .setHostsNumber(hosts)
+            .setVmsNumber(vms)
+            .setCloudletsNumber(cloudlets)
+            .setVmAllocationPolicySupplier(ParameterGrid.vmAllocationPolicySupplier(vmAllocationPolicy))
+            .setCloudletSchedulerSupplier(ParameterGrid.cloudletSchedulerSupplier(cloudletScheduler));
+    }
+
+    /**
+     * Gets a name to identify the simulation of this configuration. It's used as the logging context.
+     * @return a name to identify the simulation of this configuration
+     */
+    public String name() {
+        return "sim-%d".formatted(id);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.sweep;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import java.util.List;
+
+/**
+ * The summarized results of the simulation of a {@link SweepConfiguration}.
+ * It holds just aggregated values, so that the broker and all
+ * simulation objects can be garbage collected as soon as a simulation finishes.
+ *
+ * @param config the configuration of the simulation
+ * @param execSeconds the wall-clock time the simulation took to run (in seconds)
+ * @param simulationTime the final simulation clock (in seconds)
+ * @param events the number of events generated during the simulation
+ * @param finishedCloudlets the number of Cloudlets that finished
+ * @param meanWaitTime the mean time Cloudlets waited to start executing (in seconds)
+ * @param meanExecTime the mean actual execution time of Cloudlets (in seconds)
+ * @author Ishak Megatli
+ */
+public record SweepResult(
+    SweepConfiguration config, double execSeconds, double simulationTime, long events,
+    int finishedCloudlets, double meanWaitTime, double meanExecTime)
+{
+    /**
+     * Summarizes the results of a finished simulation.
+     * @param config the configuration of the simulation
+     * @param execSeconds the wall-clock time the simulation took to run (in seconds)
+     * @param simulation the finished simulation
+     * @param broker the broker whose finished Cloudlets will be summarized
+     * @return the simulation results
+     */
+    public static SweepResult of(
+        final SweepConfiguration config, final double execSeconds,
+        final CloudSim simulation, final DatacenterBroker broker)
+    {
+        final List<Cloudlet> finished = broker.getCloudletFinishedList();
+        final double meanWaitTime = finished.stream().mapToDouble(Cloudlet::getWaitingTime).average().orElse(0);
+        final double meanExecTime = finished.stream().mapToDouble(Cloudlet::getActualCpuTime).average().orElse(0);
+        return new SweepResult(
+            config, execSeconds, simulation.clock(), simulation.getGeneratedEventsNumber(),
+            finished.size(), meanWaitTime, meanExecTime);
+    }
+}
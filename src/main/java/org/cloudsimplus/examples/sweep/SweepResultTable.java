@@ -0,0 +1,84 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.sweep;
+
+import java.io.PrintStream;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A table that aggregates the {@link SweepResult}s of all simulations in a sweep,
+ * printing each row as soon as the simulation it represents finishes.
+ * This way, results don't need to be held in memory until the end of the sweep.
+ * Rows are printed in the order simulations finish, thus the configuration id
+ * must be used to identify each row.
+ *
+ * <p>It's safe to be used by multiple threads concurrently.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class SweepResultTable implements Consumer<SweepResult> {
+    private static final String HEADER =
+        "|   Id | Hosts    | VMs      | Cloudlets  | VmAllocationPolicy | CloudletScheduler | Exec Time (s) | Sim Time (s) | Events      | Finished   | Mean Wait (s) | Mean Exec (s) |";
+    private static final String FORMAT =
+        "| %4d | %8d | %8d | %10d | %18s | %17s | %13.3f | %12.2f | %11d | %10d | %13.2f | %13.2f |%n";
+
+    private final PrintStream out;
+    private boolean headerPrinted;
+    private long rows;
+
+    public SweepResultTable() {
+        this(System.out);
+    }
+
+    public SweepResultTable(final PrintStream out) {
+        this.out = Objects.requireNonNull(out);
+    }
+
+    @Override
+    public synchronized void accept(final SweepResult result) {
+        if(!headerPrinted){
+            out.println(HEADER);
+            out.println(HEADER.replaceAll("[^|]", "-"));
+            headerPrinted = true;
+        }
+
+        final var config = result.config();
+        out.printf(
+            FORMAT,
+            config.id(), config.hosts(), config.vms(), config.cloudlets(),
+            config.vmAllocationPolicy(), config.cloudletScheduler(),
+            result.execSeconds(), result.simulationTime(), result.events(),
+            result.finishedCloudlets(), result.meanWaitTime(), result.meanExecTime());
+        rows++;
+    }
+
+    /**
+     * Gets the number of rows printed so far.
+     * @return the number of rows printed so far
+     */
+    public synchronized long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Classes and examples showing how to run large parameter sweeps,
+ * where thousands of independent simulations with different configurations
+ * are executed in parallel and their results are aggregated into a single table.
+ *
+ * @author Ishak Megatli
+ */
+package org.cloudsimplus.examples.sweep;
@@ -0,0 +1,346 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * A binary, column-oriented file to cache data parsed from trace files,
+ * so that repeated experiments don't need to parse text or compressed files again.
+ * Each column stores fixed-width primitive values ({@code int}, {@code long} or {@code double})
+ * contiguously, and the file is read through a {@link MappedByteBuffer}.
+ * This way, opening a cache just maps the file into memory,
+ * and values are read directly from the OS page cache when accessed.
+ *
+ * <p>The file layout is: a header with a magic number, the format version,
+ * the number of rows, columns and metadata entries; the name and type of each column;
+ * the name and value of each metadata entry;
+ * then the values of each column, one column after another.
+ * Metadata entries are {@code long} values describing the cached data,
+ * such as the size and modification time of the trace it was created from,
+ * so that a stale cache can be detected.
+ * All values are stored in native byte order, since caches are meant to be
+ * read at the same machine where they were created.</p>
+ *
+ * <p>Files are written using a {@link Writer} and read using {@link #open(Path)}.</p>
+ *
+ * @author Ishak Megatli
+ */
+public final class ColumnarTraceFile {
+    private static final int MAGIC = 0x43535043; // "CSPC"
+    private static final int VERSION = 2;
+
+    /**
+     * The types of values a column can store.
+     */
+    public enum Type {
+        INT(Integer.BYTES), LONG(Long.BYTES), DOUBLE(Double.BYTES);
+
+        private final int bytes;
+
+        Type(final int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    private final Path path;
+    private final int rows;
+    private final Map<String, Integer> columnIndexes;
+    private final Map<String, Long> metadata;
+    private final Type[] types;
+    private final ByteBuffer[] columns;
+
+    private ColumnarTraceFile(final Path path, final MappedByteBuffer buffer) {
+        this.path = path;
+        buffer.order(ByteOrder.nativeOrder());
+        if(buffer.getInt() != MAGIC){
+            throw new IllegalStateException(path + " is not a columnar trace file.");
+        }
+
+        final int version = buffer.getInt();
+        if(version != VERSION){
+            throw new IllegalStateException("Unsupported columnar trace file version %d at %s".formatted(version, path));
+        }
+
+        this.rows = buffer.getInt();
+        final int columnCount = buffer.getInt();
+        final int metadataCount = buffer.getInt();
+        this.columnIndexes = new LinkedHashMap<>();
+        this.types = new Type[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnIndexes.put(readName(buffer), i);
+            types[i] = Type.values()[buffer.get()];
+        }
+
+        this.metadata = new LinkedHashMap<>();
+        for (int i = 0; i < metadataCount; i++) {
+            metadata.put(readName(buffer), buffer.getLong());
+        }
+
+        this.columns = new ByteBuffer[columnCount];
+        int offset = alignedOffset(buffer.position());
+        for (int i = 0; i < columnCount; i++) {
+            final int size = rows * types[i].getBytes();
+            columns[i] = buffer.slice(offset, size).order(ByteOrder.nativeOrder());
+            offset += size;
+        }
+    }
+
+    private static String readName(final ByteBuffer buffer) {
+        final byte[] name = new byte[buffer.getShort()];
+        buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps an existing columnar trace file into memory.
+     * @param path the path of the file
+     * @return the opened file
+     */
+    public static ColumnarTraceFile open(final Path path) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            /* The mapping remains valid after the channel is closed. */
+            return new ColumnarTraceFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Aligns the beginning of columns data to 8 bytes,
+     * so that values are read from aligned memory addresses.
+     */
+    private static int alignedOffset(final int position) {
+        return (position + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the number of rows in the file.
+     * @return the number of rows in the file
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the index of a column, which can be used to read values faster than by its name.
+     * @param name the column name
+     * @return the column index
+     * @throws IllegalArgumentException if there is no such a column
+     */
+    public int columnIndex(final String name) {
+        final Integer index = columnIndexes.get(name);
+        if(index == null){
+            throw new IllegalArgumentException("Column %s not found in %s".formatted(name, path));
+        }
+
+        return index;
+    }
+
+    /**
+     * Gets the value of a metadata entry.
+     * @param name the entry name
+     * @return an {@link OptionalLong} with the entry value or an empty one if there is no such an entry
+     */
+    public OptionalLong getMetadata(final String name) {
+        final Long value = metadata.get(name);
+        return value == null ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
+    public int getInt(final int column, final int row) {
+        return columns[column].getInt(row * Integer.BYTES);
+    }
+
+    public long getLong(final int column, final int row) {
+        return columns[column].getLong(row * Long.BYTES);
+    }
+
+    public double getDouble(final int column, final int row) {
+        return columns[column].getDouble(row * Double.BYTES);
+    }
+
+    /**
+     * Writes a columnar trace file.
+     * Since the number of rows is required in the header, values are kept
+     * in primitive arrays until the file is {@link #write(Path) written}.
+     */
+    public static final class Writer {
+        private final List<String> names = new ArrayList<>();
+        private final List<Type> types = new ArrayList<>();
+        private final List<long[]> values = new ArrayList<>();
+        private final Map<String, Long> metadata = new LinkedHashMap<>();
+        private int rows;
+
+        /**
+         * Adds a column. All columns must be added before any row.
+         * @param name the column name
+         * @param type the type of the column values
+         * @return the index of the column, to be used in {@link #set(int, long)}
+         */
+        public int addColumn(final String name, final Type type) {
+            if(rows > 0){
+                throw new IllegalStateException("Columns must be added before any row.");
+            }
+
+            names.add(name);
+            types.add(type);
+            values.add(new long[1024]);
+            return names.size() - 1;
+        }
+
+        /**
+         * Sets a metadata entry to be stored into the file header.
+         * @param name the entry name
+         * @param value the entry value
+         * @return this writer
+         */
+        public Writer setMetadata(final String name, final long value) {
+            metadata.put(name, value);
+            return this;
+        }
+
+        /**
+         * Starts a new row, whose values must then be {@link #set(int, long) set}.
+         * @return this writer
+         */
+        public Writer newRow() {
+            rows++;
+            for (int i = 0; i < values.size(); i++) {
+                if (values.get(i).length < rows) {
+                    values.set(i, Arrays.copyOf(values.get(i), values.get(i).length * 2));
+                }
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets the value of an INT or LONG column in the current row.
+         */
+        public Writer set(final int column, final long value) {
+            values.get(column)[rows-1] = value;
+            return this;
+        }
+
+        /**
+         * Sets the value of a DOUBLE column in the current row.
+         */
+        public Writer set(final int column, final double value) {
+            values.get(column)[rows-1] = Double.doubleToRawLongBits(value);
+            return this;
+        }
+
+        /**
+         * Gets the number of rows added so far.
+         * @return the number of rows added so far
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Writes all the rows added so far to a file.
+         * @param path the path of the file to create or overwrite
+         * @return the opened file that was written
+         */
+        public ColumnarTraceFile write(final Path path) {
+            int headerSize = Integer.BYTES * 5;
+            final List<byte[]> encodedNames = names.stream().map(name -> name.getBytes(StandardCharsets.UTF_8)).toList();
+            for (final byte[] name : encodedNames) {
+                headerSize += Short.BYTES + name.length + Byte.BYTES;
+            }
+
+            final List<byte[]> encodedKeys = metadata.keySet().stream().map(name -> name.getBytes(StandardCharsets.UTF_8)).toList();
+            for (final byte[] name : encodedKeys) {
+                headerSize += Short.BYTES + name.length + Long.BYTES;
+            }
+
+            long size = alignedOffset(headerSize);
+            for (final Type type : types) {
+                size += (long) rows * type.getBytes();
+            }
+
+            if(size > Integer.MAX_VALUE){
+                throw new IllegalStateException("Columnar trace files are limited to 2GB.");
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate((int)size).order(ByteOrder.nativeOrder());
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(names.size()).putInt(metadata.size());
+            for (int i = 0; i < names.size(); i++) {
+                buffer.putShort((short)encodedNames.get(i).length).put(encodedNames.get(i)).put((byte)types.get(i).ordinal());
+            }
+
+            int entry = 0;
+            for (final long value : metadata.values()) {
+                final byte[] name = encodedKeys.get(entry++);
+                buffer.putShort((short)name.length).put(name).putLong(value);
+            }
+
+            buffer.position(alignedOffset(headerSize));
+            for (int i = 0; i < types.size(); i++) {
+                final long[] column = values.get(i);
+                for (int row = 0; row < rows; row++) {
+                    if (types.get(i) == Type.INT) {
+                        buffer.putInt((int)column[row]);
+                    } else {
+                        buffer.putLong(column[row]);
+                    }
+                }
+            }
+
+            buffer.flip();
+            try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return open(path);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.util.ResourceLoader;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelPlanetLab;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stores all the PlanetLab trace files of a directory (such as the ~1050 files of a
+ * single day) into a single off-heap matrix, where each row is a trace
+ * and each column a CPU utilization sample.
+ * Since PlanetLab traces store integer percentages between 0 and 100,
+ * each sample takes a single byte.
+ *
+ * <p>When every Cloudlet uses a {@link UtilizationModelPlanetLab},
+ * each model holds its own {@code double[]} with the trace samples.
+ * On the other hand, {@link UtilizationModelPlanetLabShared} instances
+ * just keep the index of a row in this store, so that any number of VMs
+ * can share the same traces without duplicating them in the heap.</p>
+ *
+ * <p>The store can be saved to a file by {@link #write(Path)} and then
+ * memory-mapped by {@link #getInstance(String, Path)}, avoiding to parse the trace files again.
+ * The file header stores the number, total size and latest modification time of the trace files,
+ * so that the file is rebuilt when the traces change.</p>
+ *
+ * @author Ishak Megatli
+ */
+public final class PlanetLabTraceStore {
+    private static final int MAGIC = 0x43535054; // "CSPT"
+    private static final int VERSION = 2;
+
+    /**
+     * The byte order of cache files, which is fixed so that a file
+     * created in one machine can be read in any other.
+     * Since samples take a single byte, it only affects the header.
+     */
+    private static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    /**
+     * The size of the fixed part of the cache file header:
+     * magic number, version, total file length, source files count, size and last modification time,
+     * number of traces and number of samples.
+     */
+    private static final int FIXED_HEADER_SIZE = Integer.BYTES * 3 + Long.BYTES * 3 + Integer.BYTES * 2;
+
+    /**
+     * The traces samples, where the sample {@code s} of trace {@code t}
+     * is at the position {@code t * samples + s}.
+     */
+    private final ByteBuffer matrix;
+    private final int samples;
+    private final List<String> names;
+
+    /**
+     * The number of trace files, their total size and latest modification time,
+     * which identify the version of the traces stored in a cache file.
+     */
+    private final long[] sourceAttributes;
+
+    private PlanetLabTraceStore(
+        final ByteBuffer matrix, final int samples,
+        final List<String> names, final long[] sourceAttributes)
+    {
+        this.matrix = matrix;
+        this.samples = samples;
+        this.names = Collections.unmodifiableList(names);
+        this.sourceAttributes = sourceAttributes;
+    }
+
+    /**
+     * Parses all PlanetLab trace files inside a directory into a new store.
+     * Traces are sorted by file name, so that each trace always has the same index.
+     * @param traceDir the directory containing the trace files (which can be a resource inside the classpath)
+     * @return the new store
+     */
+    public static PlanetLabTraceStore load(final String traceDir) {
+        final List<String> files = listFiles(traceDir);
+        return load(traceDir, files, sourceAttributes(files));
+    }
+
+    private static PlanetLabTraceStore load(final String traceDir, final List<String> files, final long[] sourceAttributes) {
+        if(files.isEmpty()){
+            throw new IllegalArgumentException("No trace file found at " + traceDir);
+        }
+
+        final int samples = UtilizationModelPlanetLab.DEF_DATA_SAMPLES;
+        final ByteBuffer matrix = ByteBuffer.allocateDirect(files.size() * samples);
+        final List<String> names = new ArrayList<>(files.size());
+        for (final String file : files) {
+            readTraceFile(file, matrix, samples);
+            names.add(Path.of(file).getFileName().toString());
+        }
+
+        return new PlanetLabTraceStore(matrix.flip(), samples, names, sourceAttributes);
+    }
+
+    private static List<String> listFiles(final String traceDir) {
+        final List<String> files = new ArrayList<>(ResourceLoader.getResourceList(PlanetLabTraceStore.class, traceDir));
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Gets the number of trace files, their total size and latest modification time (in milliseconds).
+     * @param files the path of the trace files (which can be resources inside the classpath)
+     * @return an array with the number of files, total size and latest modification time
+     */
+    private static long[] sourceAttributes(final List<String> files) {
+        long size = 0;
+        long lastModified = 0;
+        try {
+            for (final String file : files) {
+                final URLConnection connection = ResourceLoader.getResourceUrl(PlanetLabTraceStore.class, file).openConnection();
+                size += connection.getContentLengthLong();
+                lastModified = Math.max(lastModified, connection.getLastModified());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new long[]{files.size(), size, lastModified};
+    }
+
+    /**
+     * Reads the samples of a trace file into the next row of the matrix.
+     * Files with fewer samples have the remaining ones set to zero,
+     * like the {@link UtilizationModelPlanetLab} does.
+     */
+    private static void readTraceFile(final String file, final ByteBuffer matrix, final int samples) {
+        final int rowEnd = matrix.position() + samples;
+        try (BufferedReader reader = ResourceLoader.newBufferedReader(file, PlanetLabTraceStore.class)) {
+            String line;
+            while ((line = reader.readLine()) != null && matrix.position() < rowEnd) {
+                if (!line.startsWith("#") && !line.isBlank()) {
+                    matrix.put((byte) Integer.parseInt(line.trim()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        matrix.position(rowEnd);
+    }
+
+    /**
+     * Memory-maps a store previously saved to a cache file,
+     * or loads the traces from a directory and creates such a file if it doesn't exist.
+     * The cache file is also rebuilt when the number, size or modification time of the trace files
+     * don't match the ones stored in it, or when it can't be read
+     * (such as a truncated file or one in an older format).
+     * @param traceDir the directory containing the trace files (which can be a resource inside the classpath)
+     * @param cacheFile the store cache file
+     * @return the store
+     */
+    public static PlanetLabTraceStore getInstance(final String traceDir, final Path cacheFile) {
+        final List<String> files = listFiles(traceDir);
+        final long[] sourceAttributes = sourceAttributes(files);
+        if(Files.exists(cacheFile)) {
+            try {
+                final PlanetLabTraceStore store = open(cacheFile);
+                if(Arrays.equals(store.sourceAttributes, sourceAttributes)) {
+                    return store;
+                }
+            } catch (IllegalStateException | UncheckedIOException | BufferUnderflowException |
+                     IndexOutOfBoundsException | NegativeArraySizeException e) {
+                /* The cache file is invalid and will be rebuilt below. */
+            }
+        }
+
+        load(traceDir, files, sourceAttributes).write(cacheFile);
+        return open(cacheFile);
+    }
+
+    /**
+     * Memory-maps a store cache file.
+     * @param cacheFile the store cache file
+     * @return the store
+     * @throws IllegalStateException when the file isn't a store cache file, is in another version of the format
+     *                               or doesn't have the length stored in its header
+     */
+    private static PlanetLabTraceStore open(final Path cacheFile) {
+        try (var channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(BYTE_ORDER);
+            if(buffer.getInt() != MAGIC){
+                throw new IllegalStateException(cacheFile + " is not a PlanetLab trace store file.");
+            }
+
+            final int version = buffer.getInt();
+            if(version != VERSION){
+                throw new IllegalStateException("Unsupported PlanetLab trace store version %d at %s".formatted(version, cacheFile));
+            }
+
+            final long length = buffer.getLong();
+            if(length != buffer.capacity()){
+                throw new IllegalStateException("%s should have %d bytes but has %d.".formatted(cacheFile, length, buffer.capacity()));
+            }
+
+            final long[] sourceAttributes = {buffer.getInt(), buffer.getLong(), buffer.getLong()};
+            final int traces = buffer.getInt();
+            final int samples = buffer.getInt();
+            final List<String> names = new ArrayList<>(traces);
+            for (int i = 0; i < traces; i++) {
+                final byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                names.add(new String(name, StandardCharsets.UTF_8));
+            }
+
+            final ByteBuffer matrix = buffer.slice(buffer.position(), Math.multiplyExact(traces, samples));
+            return new PlanetLabTraceStore(matrix, samples, names, sourceAttributes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Saves the store into a file that can be memory-mapped by {@link #getInstance(String, Path)}.
+     * The store is first written into a temporary file in the same directory,
+     * which is then renamed to the given file, so that a partially written file is never used as a cache.
+     * @param cacheFile the file to create or overwrite
+     */
+    public void write(final Path cacheFile) {
+        final List<byte[]> encodedNames = names.stream().map(name -> name.getBytes(StandardCharsets.UTF_8)).toList();
+        final int headerSize = FIXED_HEADER_SIZE + encodedNames.stream().mapToInt(name -> Short.BYTES + name.length).sum();
+        final ByteBuffer header = ByteBuffer.allocate(headerSize).order(BYTE_ORDER);
+        header.putInt(MAGIC).putInt(VERSION).putLong((long) headerSize + matrix.limit())
+              .putInt((int) sourceAttributes[0]).putLong(sourceAttributes[1]).putLong(sourceAttributes[2])
+              .putInt(getTraces()).putInt(samples);
+        encodedNames.forEach(name -> header.putShort((short) name.length).put(name));
+
+        final Path dir = cacheFile.toAbsolutePath().getParent();
+        Path tempFile = null;
+        try {
+            Files.createDirectories(dir);
+            tempFile = Files.createTempFile(dir, cacheFile.getFileName().toString(), ".tmp");
+            try (var channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final ByteBuffer[] buffers = {header.flip(), matrix.duplicate().clear()};
+                while (buffers[1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+            }
+
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteTempFile(tempFile, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteTempFile(final Path tempFile, final IOException cause) {
+        if(tempFile == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Gets a CPU utilization sample.
+     * @param trace the index of the trace
+     * @param sample the index of the sample inside the trace
+     * @return the CPU utilization in scale from 0 to 1
+     */
+    public double getUtilization(final int trace, final int sample) {
+        return matrix.get(trace * samples + sample) / 100.0;
+    }
+
+    /**
+     * Creates a CPU {@link UtilizationModelPlanetLabShared} that reads utilization from a trace in this store.
+     * @param trace the index of the trace
+     * @param schedulingInterval the time interval (in seconds) between trace samples
+     * @return the new utilization model
+     */
+    public UtilizationModelPlanetLabShared newUtilizationModel(final int trace, final double schedulingInterval) {
+        return new UtilizationModelPlanetLabShared(this, trace, schedulingInterval);
+    }
+
+    /**
+     * Gets the number of traces in the store.
+     * @return the number of traces in the store
+     */
+    public int getTraces() {
+        return names.size();
+    }
+
+    /**
+     * Gets the number of samples in each trace.
+     * @return the number of samples in each trace
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Gets the name of the file a trace was read from.
+     * @param trace the index of the trace
+     * @return the trace file name
+     */
+    public String getTraceName(final int trace) {
+        return names.get(trace);
+    }
+}
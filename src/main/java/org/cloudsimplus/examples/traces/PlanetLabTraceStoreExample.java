@@ -0,0 +1,178 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelPlanetLab;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.util.Log;
+
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * An example showing how to assign a different PlanetLab trace to each VM
+ * using a {@link PlanetLabTraceStore}, that loads all traces from a day
+ * into a single off-heap matrix shared by all Cloudlets.
+ * Differently from the {@link PlanetLabExample1}, which shares a single
+ * {@link UtilizationModelPlanetLab} among all Cloudlets, each Cloudlet here
+ * has its own {@link UtilizationModelPlanetLabShared}, which just
+ * stores the index of its trace inside the store.
+ *
+ * <p>The store is saved into the {@link #STORE_CACHE_FILE} in the first execution,
+ * then it's just memory-mapped in the next ones.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class PlanetLabTraceStoreExample {
+    private static final int HOSTS = 50;
+    private static final int HOST_PES = 16;
+
+    private static final int VMS = 200;
+    private static final int VM_PES = 2;
+    private static final int VM_MIPS = 1000;
+
+    private static final int CLOUDLET_PES = 2;
+    private static final int CLOUDLET_LENGTH = 1_000_000;
+
+    private static final String TRACE_DIR = "workload/planetlab/20110303";
+    private static final Path STORE_CACHE_FILE = Path.of("target", "planetlab-20110303.store");
+
+    /**
+     * The time interval between samples in the PlanetLab traces,
+     * which is also used as the Datacenter scheduling interval.
+     * @see UtilizationModelPlanetLab#getSchedulingInterval()
+     */
+    private static final int SCHEDULING_INTERVAL = 300;
+
+    private final CloudSim simulation;
+    private final PlanetLabTraceStore store;
+
+    public static void main(String[] args) {
+        new PlanetLabTraceStoreExample();
+    }
+
+    private PlanetLabTraceStoreExample() {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+
+        final double startSecs = TimeUtil.currentTimeSecs();
+        System.out.printf("Simulation started at %s%n", LocalTime.now());
+        store = PlanetLabTraceStore.getInstance(TRACE_DIR, STORE_CACHE_FILE);
+        System.out.printf("Loaded %d traces with %d samples each in %.2f seconds%n%n", store.getTraces(), store.getSamples(), TimeUtil.elapsedSeconds(startSecs));
+
+        simulation = new CloudSim();
+        createDatacenter();
+        final DatacenterBroker broker0 = new DatacenterBrokerSimple(simulation);
+
+        final List<Vm> vmList = createVms();
+        broker0.submitVmList(vmList);
+        broker0.submitCloudletList(createCloudlets(vmList));
+
+        simulation.start();
+
+        final List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
+        final double meanExecTime = finishedCloudlets.stream().mapToDouble(Cloudlet::getActualCpuTime).average().orElse(0);
+        System.out.printf(
+            "%d Cloudlets finished. Mean execution time: %s%n",
+            finishedCloudlets.size(), TimeUtil.secondsToStr(meanExecTime));
+        System.out.printf("Simulation finished at %s. Execution time: %.2f seconds%n", LocalTime.now(), TimeUtil.elapsedSeconds(startSecs));
+    }
+
+    private Datacenter createDatacenter() {
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for(int i = 0; i < HOSTS; i++) {
+            hostList.add(createHost());
+        }
+
+        final DatacenterSimple dc = new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple());
+        dc.setSchedulingInterval(SCHEDULING_INTERVAL);
+        return dc;
+    }
+
+    private Host createHost() {
+        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        IntStream.range(0, HOST_PES).forEach(i -> peList.add(new PeSimple(1000)));
+
+        final long ram = 20480; //in Megabytes
+        final long bw = 100000; //in Megabits/s
+        final long storage = 1000000; //in Megabytes
+        return new HostSimple(ram, bw, storage, peList).setVmScheduler(new VmSchedulerTimeShared());
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            final Vm vm =
+                new VmSimple(i, VM_MIPS, VM_PES)
+                    .setRam(512).setBw(1000).setSize(10000)
+                    .setCloudletScheduler(new CloudletSchedulerTimeShared());
+            list.add(vm);
+        }
+
+        return list;
+    }
+
+    /**
+     * Creates one Cloudlet for each VM, where each Cloudlet
+     * uses a different trace from the {@link #store}
+     * (traces are reused when there are more VMs than traces).
+     */
+    private List<Cloudlet> createCloudlets(final List<Vm> vmList) {
+        final List<Cloudlet> list = new ArrayList<>(vmList.size());
+        final var utilizationRamBw = new UtilizationModelDynamic(0.2);
+        for (final Vm vm : vmList) {
+            final int trace = (int) (vm.getId() % store.getTraces());
+            final Cloudlet cloudlet =
+                new CloudletSimple(vm.getId(), CLOUDLET_LENGTH, CLOUDLET_PES)
+                    .setFileSize(1024)
+                    .setOutputSize(1024)
+                    .setUtilizationModelCpu(store.newUtilizationModel(trace, SCHEDULING_INTERVAL))
+                    .setUtilizationModelBw(utilizationRamBw)
+                    .setUtilizationModelRam(utilizationRamBw)
+                    .setVm(vm);
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.util.ResourceLoader;
+import org.cloudbus.cloudsim.util.SwfWorkloadFileReader;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.Type;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A binary cache for workload files in the Standard Workload Format (.swf),
+ * that stores the job fields required to create Cloudlets into a {@link ColumnarTraceFile}.
+ * The trace is parsed just once, when the cache is created.
+ * Then, Cloudlets are created directly from the memory-mapped columns,
+ * which is much faster than decompressing and parsing the trace again.
+ *
+ * <p>Cloudlets are created in the same way as by the {@link SwfWorkloadFileReader}.
+ * Since the job run time is stored (instead of the Cloudlet length),
+ * the same cache can be used to create Cloudlets for VMs with different MIPS capacity.</p>
+ *
+ * <p>The size and last modification time of the SWF file are stored into the cache,
+ * which is rebuilt by {@link #getInstance(String, Path)} when they don't match anymore
+ * or when the cache file can't be read (such as a truncated file or one in an older format).</p>
+ *
+ * @author Ishak Megatli
+ */
+public final class SwfColumnarCache {
+    private static final String JOB_ID = "jobId";
+    private static final String SUBMIT_TIME = "submitTime";
+    private static final String RUN_TIME = "runTime";
+    private static final String PES = "pes";
+    private static final String SOURCE_SIZE = "sourceSize";
+    private static final String SOURCE_LAST_MODIFIED = "sourceLastModified";
+
+    private final ColumnarTraceFile file;
+    private final int jobIdCol;
+    private final int submitTimeCol;
+    private final int runTimeCol;
+    private final int pesCol;
+
+    private SwfColumnarCache(final ColumnarTraceFile file) {
+        this.file = file;
+        this.jobIdCol = file.columnIndex(JOB_ID);
+        this.submitTimeCol = file.columnIndex(SUBMIT_TIME);
+        this.runTimeCol = file.columnIndex(RUN_TIME);
+        this.pesCol = file.columnIndex(PES);
+    }
+
+    /**
+     * Opens the cache for a given SWF file, creating it if it doesn't exist yet
+     * or if the SWF file has changed since the cache was created.
+     * @param swfFilePath the path of the SWF file (which can be a resource inside the classpath)
+     * @param cacheFile the path of the cache file
+     * @return the opened cache
+     */
+    public static SwfColumnarCache getInstance(final String swfFilePath, final Path cacheFile) {
+        if(Files.exists(cacheFile)) {
+            try {
+                final var file = ColumnarTraceFile.open(cacheFile);
+                if(isUpToDate(file, sourceAttributes(swfFilePath))) {
+                    return new SwfColumnarCache(file);
+                }
+            } catch (IllegalStateException | IllegalArgumentException | UncheckedIOException |
+                     BufferUnderflowException | IndexOutOfBoundsException e) {
+                /* The cache was created by another version of the file format, lacks some column or is truncated. */
+                deleteCache(cacheFile);
+            }
+        }
+
+        return convert(swfFilePath, cacheFile);
+    }
+
+    private static void deleteCache(final Path cacheFile) {
+        try {
+            Files.deleteIfExists(cacheFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isUpToDate(final ColumnarTraceFile file, final long[] sourceAttributes) {
+        return file.getMetadata(SOURCE_SIZE).orElse(-1) == sourceAttributes[0] &&
+               file.getMetadata(SOURCE_LAST_MODIFIED).orElse(-1) == sourceAttributes[1];
+    }
+
+    /**
+     * Gets the size and last modification time (in milliseconds) of the SWF file,
+     * which identify the version of the trace stored in the cache.
+     * @param swfFilePath the path of the SWF file (which can be a resource inside the classpath)
+     * @return an array with the size and last modification time
+     */
+    private static long[] sourceAttributes(final String swfFilePath) {
+        try {
+            final Path path = Path.of(swfFilePath);
+            if(Files.exists(path)) {
+                return new long[]{Files.size(path), Files.getLastModifiedTime(path).toMillis()};
+            }
+
+            final URLConnection connection = ResourceLoader.getResourceUrl(SwfColumnarCache.class, swfFilePath).openConnection();
+            return new long[]{connection.getContentLengthLong(), connection.getLastModified()};
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses an SWF file and stores it into a cache file.
+     * @param swfFilePath the path of the SWF file (which can be a resource inside the classpath)
+     * @param cacheFile the path of the cache file to create or overwrite
+     * @return the created cache
+     */
+    public static SwfColumnarCache convert(final String swfFilePath, final Path cacheFile) {
+        final var writer = new ColumnarTraceFile.Writer();
+        final int jobId = writer.addColumn(JOB_ID, Type.LONG);
+        final int submitTime = writer.addColumn(SUBMIT_TIME, Type.LONG);
+        final int runTime = writer.addColumn(RUN_TIME, Type.LONG);
+        final int pes = writer.addColumn(PES, Type.INT);
+        final long[] sourceAttributes = sourceAttributes(swfFilePath);
+        writer.setMetadata(SOURCE_SIZE, sourceAttributes[0])
+              .setMetadata(SOURCE_LAST_MODIFIED, sourceAttributes[1]);
+
+        /* Using 1 MIPS, the Cloudlet length is equal to the job run time. */
+        try (var reader = new SwfWorkloadStreamReader(swfFilePath, 1)) {
+            while (reader.hasNext()) {
+                final Cloudlet cloudlet = reader.next();
+                writer.newRow()
+                      .set(jobId, cloudlet.getId())
+                      .set(submitTime, (long) cloudlet.getSubmissionDelay())
+                      .set(runTime, cloudlet.getLength())
+                      .set(pes, cloudlet.getNumberOfPes());
+            }
+        }
+
+        return new SwfColumnarCache(writer.write(cacheFile));
+    }
+
+    /**
+     * Creates a Cloudlet for every job in the cache.
+     * @param mips the MIPS capacity of the PEs where the jobs will run,
+     *             used to compute Cloudlets length from the jobs run time
+     * @return the list of created Cloudlets
+     */
+    public List<Cloudlet> generateWorkload(final int mips) {
+        return generateWorkload(mips, file.getRows());
+    }
+
+    /**
+     * Creates a Cloudlet for each one of the first jobs in the cache.
+     * @param mips the MIPS capacity of the PEs where the jobs will run,
+     *             used to compute Cloudlets length from the jobs run time
+     * @param maxCloudlets the maximum number of Cloudlets to create
+     * @return the list of created Cloudlets
+     */
+    public List<Cloudlet> generateWorkload(final int mips, final int maxCloudlets) {
+        if (mips <= 0) {
+            throw new IllegalArgumentException("MIPS must be greater than 0.");
+        }
+
+        final int count = Math.min(maxCloudlets, file.getRows());
+        final List<Cloudlet> list = new ArrayList<>(count);
+        final UtilizationModel utilizationModel = new UtilizationModelFull();
+        for (int row = 0; row < count; row++) {
+            final Cloudlet cloudlet =
+                new CloudletSimple(file.getLong(jobIdCol, row), file.getLong(runTimeCol, row) * mips, file.getInt(pesCol, row))
+                    .setFileSize(1500)
+                    .setOutputSize(1500)
+                    .setUtilizationModel(utilizationModel);
+            cloudlet.setSubmissionDelay(file.getLong(submitTimeCol, row));
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+
+    /**
+     * Gets the number of jobs in the cache.
+     * @return the number of jobs in the cache
+     */
+    public int getJobs() {
+        return file.getRows();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.util.SwfWorkloadFileReader;
+import org.cloudbus.cloudsim.util.TimeUtil;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * An example showing how a {@link SwfColumnarCache} reduces the time to load
+ * a workload file in the Standard Workload Format (.swf).
+ * It compares the time to create Cloudlets by parsing the compressed
+ * trace using the {@link SwfWorkloadFileReader} (as done in the {@link SwfWorkloadFormatExample1})
+ * with the time to create them from the binary cache.
+ * The cache is created the first time the example runs,
+ * and it's reused afterwards.
+ *
+ * @author Ishak Megatli
+ */
+public class SwfColumnarCacheExample {
+    private static final String WORKLOAD_FILENAME = "workload/swf/NASA-iPSC-1993-3.1-cln.swf.gz";
+    private static final Path CACHE_FILE = Path.of("target", "NASA-iPSC-1993-3.1-cln.swf.columnar");
+    private static final int VM_MIPS = 10000;
+
+    public static void main(String[] args) {
+        new SwfColumnarCacheExample();
+    }
+
+    private SwfColumnarCacheExample() {
+        double startSecs = TimeUtil.currentTimeSecs();
+        final List<Cloudlet> parsedList =
+            SwfWorkloadFileReader.getInstance(WORKLOAD_FILENAME, VM_MIPS).generateWorkload();
+        System.out.printf("Created %d Cloudlets parsing %s in %.3f seconds%n",
+            parsedList.size(), WORKLOAD_FILENAME, TimeUtil.elapsedSeconds(startSecs));
+
+        startSecs = TimeUtil.currentTimeSecs();
+        final var cache = SwfColumnarCache.getInstance(WORKLOAD_FILENAME, CACHE_FILE);
+        System.out.printf("Opened cache %s with %d jobs in %.3f seconds%n",
+            CACHE_FILE, cache.getJobs(), TimeUtil.elapsedSeconds(startSecs));
+
+        startSecs = TimeUtil.currentTimeSecs();
+        final List<Cloudlet> cachedList = cache.generateWorkload(VM_MIPS);
+        System.out.printf("Created %d Cloudlets from the cache in %.3f seconds%n",
+            cachedList.size(), TimeUtil.elapsedSeconds(startSecs));
+    }
+}
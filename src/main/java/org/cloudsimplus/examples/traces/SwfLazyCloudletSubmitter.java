@@ -0,0 +1,178 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Submits the Cloudlets read from a {@link SwfWorkloadStreamReader} to a broker lazily,
+ * as their submit time gets close in simulation time.
+ * Only the Cloudlets whose submit time is inside a look-ahead window
+ * ({@code clock + lookAheadSecs}) are read from the trace and submitted,
+ * so that a trace with millions of jobs can be simulated using a fixed amount of memory
+ * for the workload not yet submitted.
+ * The memory used by Cloudlets already submitted depends on the broker:
+ * a {@link org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple} keeps all of them until the simulation ends,
+ * while a {@link org.cloudsimplus.examples.brokers.DatacenterBrokerRetention} drops the finished ones.
+ *
+ * <p>Every time an event is processed, the next window is read if the clock
+ * got close to the submit time of the next Cloudlet in the trace.
+ * Since the last submitted Cloudlet is always scheduled to arrive in the future
+ * (even if that is beyond the window), the simulation keeps running until the whole trace is submitted.
+ * The number of Cloudlets submitted at once is limited by the {@link #getMaxWindowSize()},
+ * except for Cloudlets whose submit time has already been reached,
+ * which are always submitted to avoid delaying their arrival.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class SwfLazyCloudletSubmitter {
+    private final DatacenterBroker broker;
+    private final SwfWorkloadStreamReader reader;
+    private final double lookAheadSecs;
+    private final int maxWindowSize;
+    private long submittedCloudlets;
+    private boolean finished;
+
+    /**
+     * The submit time of the last Cloudlet submitted to the broker.
+     */
+    private double lastSubmitTime = -1;
+
+    /**
+     * Creates a lazy submitter.
+     * @param broker the broker to submit Cloudlets to
+     * @param reader the reader to get Cloudlets from
+     * @param lookAheadSecs how far in the future (in seconds) Cloudlets are submitted in advance
+     * @param maxWindowSize the maximum number of Cloudlets to read and submit at once
+     */
+    public SwfLazyCloudletSubmitter(
+        final DatacenterBroker broker, final SwfWorkloadStreamReader reader,
+        final double lookAheadSecs, final int maxWindowSize)
+    {
+        if(lookAheadSecs <= 0){
+            throw new IllegalArgumentException("The look-ahead window must be greater than zero.");
+        }
+
+        if(maxWindowSize <= 0){
+            throw new IllegalArgumentException("The max window size must be greater than zero.");
+        }
+
+        this.broker = Objects.requireNonNull(broker);
+        this.reader = Objects.requireNonNull(reader);
+        this.lookAheadSecs = lookAheadSecs;
+        this.maxWindowSize = maxWindowSize;
+    }
+
+    /**
+     * Submits the first window of Cloudlets and starts following the simulation clock
+     * to submit the next ones.
+     * It must be called before the simulation starts.
+     * @return this submitter
+     */
+    public SwfLazyCloudletSubmitter start() {
+        final Simulation simulation = broker.getSimulation();
+        submitNextWindow(simulation.clock());
+        simulation.addOnEventProcessingListener(this::onEventProcessing);
+
+        return this;
+    }
+
+    /**
+     * Submits the next window when the clock reaches it.
+     * It's called for every processed event, instead of using a clock tick listener,
+     * because such listeners are notified with the previous clock
+     * and may be notified only after the last event inside the window was processed.
+     * The listener isn't removed after the whole trace is read,
+     * since listeners can't be removed while they are being notified.
+     * @param evt the event being processed
+     */
+    private void onEventProcessing(final SimEvent evt) {
+        if(finished){
+            return;
+        }
+
+        final double clock = evt.getSimulation().clock();
+        if(reader.peek().getSubmissionDelay() <= clock + lookAheadSecs || lastSubmitTime <= clock) {
+            submitNextWindow(clock);
+        }
+
+        if(!reader.hasNext()){
+            finished = true;
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the Cloudlets inside the look-ahead window and submits them,
+     * changing their submission delay from the absolute submit time
+     * into a delay relative to the current clock.
+     * It ensures that at least one Cloudlet will arrive in the future:
+     * if there is a long period without jobs in the trace,
+     * the next Cloudlet is submitted even if it's beyond the window,
+     * otherwise there would be no future event to trigger the reading of the next window.
+     * @param clock the current simulation time
+     */
+    private void submitNextWindow(final double clock) {
+        final List<Cloudlet> window = new ArrayList<>();
+        while (reader.hasNext()) {
+            final double submitTime = reader.peek().getSubmissionDelay();
+            final boolean overdue = submitTime <= clock;
+            final boolean windowFull = submitTime > clock + lookAheadSecs || window.size() >= maxWindowSize;
+            if (!overdue && windowFull && lastSubmitTime > clock) {
+                break;
+            }
+
+            final Cloudlet cloudlet = reader.next();
+            cloudlet.setSubmissionDelay(Math.max(submitTime - clock, 0));
+            window.add(cloudlet);
+            lastSubmitTime = submitTime;
+        }
+
+        submittedCloudlets += window.size();
+        broker.submitCloudletList(window);
+    }
+
+    public double getLookAheadSecs() {
+        return lookAheadSecs;
+    }
+
+    public int getMaxWindowSize() {
+        return maxWindowSize;
+    }
+
+    /**
+     * Gets the number of Cloudlets submitted to the broker so far.
+     * @return the number of Cloudlets submitted to the broker so far
+     */
+    public long getSubmittedCloudlets() {
+        return submittedCloudlets;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.util.ResourceLoader;
+import org.cloudbus.cloudsim.util.SwfWorkloadFileReader;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a workload file in the Standard Workload Format (.swf or .swf.gz)
+ * one job at a time, creating a Cloudlet only when {@link #next()} is called.
+ * Differently from the {@link SwfWorkloadFileReader#generateWorkload()},
+ * which builds the list of all Cloudlets before the simulation starts,
+ * the file is decompressed and parsed incrementally,
+ * so memory usage doesn't depend on the size of the trace.
+ *
+ * <p>Cloudlets are created in the same way as by the {@link SwfWorkloadFileReader}:
+ * the length is the job run time multiplied by the {@link #getMips() MIPS},
+ * the number of PEs is the maximum between the requested and allocated processors,
+ * and the submission delay is the job submit time.</p>
+ *
+ * <p>Jobs are expected to be sorted by submit time, as defined by the SWF format.</p>
+ *
+ * @author Ishak Megatli
+ * @see SwfLazyCloudletSubmitter
+ */
+public class SwfWorkloadStreamReader implements Iterator<Cloudlet>, AutoCloseable {
+    private static final int JOB_NUM_INDEX = 0;
+    private static final int SUBMIT_TIME_INDEX = 1;
+    private static final int RUN_TIME_INDEX = 3;
+    private static final int NUM_PROC_INDEX = 4;
+    private static final int REQ_NUM_PROC_INDEX = 7;
+    private static final int FIELD_COUNT = 18;
+
+    private final BufferedReader reader;
+    private final int mips;
+
+    /**
+     * A single {@link UtilizationModel} shared by all created Cloudlets,
+     * since {@link UtilizationModelFull} has no state.
+     */
+    private final UtilizationModel utilizationModel = new UtilizationModelFull();
+
+    /**
+     * Reusable buffer for the fields of the current line, avoiding to allocate
+     * an array for every line read.
+     */
+    private final long[] fields = new long[REQ_NUM_PROC_INDEX+1];
+    private Cloudlet next;
+    private long jobsRead;
+
+    /**
+     * Creates a reader for a given SWF file.
+     * @param filePath the path of the file, which can be a resource inside the classpath.
+     *                 If it ends with ".gz", it's decompressed on the fly.
+     * @param mips the MIPS capacity of the PEs where the jobs will run,
+     *             used to compute Cloudlets length from the jobs run time
+     */
+    public SwfWorkloadStreamReader(final String filePath, final int mips) {
+        if (mips <= 0) {
+            throw new IllegalArgumentException("MIPS must be greater than 0.");
+        }
+
+        this.mips = mips;
+        try {
+            final InputStream input = ResourceLoader.newInputStream(filePath, getClass());
+            final InputStream decompressed = filePath.endsWith(".gz") ? new GZIPInputStream(input) : input;
+            this.reader = new BufferedReader(new InputStreamReader(decompressed));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(next == null) {
+            next = readNextCloudlet();
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public Cloudlet next() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+
+        final Cloudlet cloudlet = next;
+        next = null;
+        return cloudlet;
+    }
+
+    /**
+     * Gets the next Cloudlet without consuming it.
+     * @return the next Cloudlet or {@link Cloudlet#NULL} if the end of the file was reached
+     */
+    public Cloudlet peek() {
+        return hasNext() ? next : Cloudlet.NULL;
+    }
+
+    private Cloudlet readNextCloudlet() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (parseLine(line)) {
+                    jobsRead++;
+                    return createCloudlet();
+                }
+            }
+
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses the fields of a line which are required to create a Cloudlet
+     * into the {@link #fields} array, without splitting the line into Strings.
+     * The other fields are just skipped, since they may have values
+     * (such as fractional times) that are not used here.
+     * @param line the line to parse
+     * @return true if the line is a valid job, false if it's a comment or has fewer fields than required
+     */
+    private boolean parseLine(final String line) {
+        final int len = line.length();
+        int field = 0;
+        int i = 0;
+        while (i < len) {
+            while (i < len && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+
+            if (i == len) {
+                break;
+            }
+
+            if (field == 0 && (line.charAt(i) == ';' || line.charAt(i) == '#')) {
+                return false;
+            }
+
+            final int start = i;
+            while (i < len && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+
+            if (isRequiredField(field)) {
+                fields[field] = Long.parseLong(line, start, i, 10);
+            }
+            field++;
+        }
+
+        return field >= FIELD_COUNT;
+    }
+
+    /**
+     * Checks if a field is used to create Cloudlets.
+     * @param field the index of the field
+     * @return true if the field must be parsed, false if it can be skipped
+     */
+    private static boolean isRequiredField(final int field) {
+        return switch (field) {
+            case JOB_NUM_INDEX, SUBMIT_TIME_INDEX, RUN_TIME_INDEX, NUM_PROC_INDEX, REQ_NUM_PROC_INDEX -> true;
+            default -> false;
+        };
+    }
+
+    private Cloudlet createCloudlet() {
+        final long runTime = Math.max(fields[RUN_TIME_INDEX], 1);
+        final int numProc = (int)Math.max(Math.max(fields[REQ_NUM_PROC_INDEX], fields[NUM_PROC_INDEX]), 1);
+        final Cloudlet cloudlet =
+            new CloudletSimple(fields[JOB_NUM_INDEX], runTime * mips, numProc)
+                .setFileSize(1500)
+                .setOutputSize(1500)
+                .setUtilizationModel(utilizationModel);
+        cloudlet.setSubmissionDelay(fields[SUBMIT_TIME_INDEX]);
+        return cloudlet;
+    }
+
+    public int getMips() {
+        return mips;
+    }
+
+    /**
+     * Gets the number of jobs read from the file so far.
+     * @return the number of jobs read from the file so far
+     */
+    public long getJobsRead() {
+        return jobsRead;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicyFirstFit;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.util.SwfWorkloadFileReader;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.examples.brokers.CloudletRetentionPolicy;
+import org.cloudsimplus.examples.brokers.DatacenterBrokerRetention;
+import org.cloudsimplus.examples.brokers.FinishedCloudletsStats;
+import org.cloudsimplus.util.Log;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An example showing how to simulate a workload file in the Standard Workload Format (.swf)
+ * using a bounded amount of memory, no matter how many jobs the trace has.
+ * It uses the same trace and configurations of the {@link SwfWorkloadFormatExample1},
+ * but instead of creating all Cloudlets by the {@link SwfWorkloadFileReader#generateWorkload()}
+ * before the simulation starts, the file is read incrementally by a {@link SwfWorkloadStreamReader}.
+ * A {@link SwfLazyCloudletSubmitter} just submits the Cloudlets whose submit time
+ * is inside a look-ahead window as the simulation clock advances.
+ * Finished Cloudlets are dropped by a {@link DatacenterBrokerRetention},
+ * which keeps just their {@link FinishedCloudletsStats}.
+ * Otherwise, a regular broker would keep every submitted Cloudlet until the end of the simulation,
+ * making memory usage grow with the size of the trace.
+ *
+ * <p>Since the total number of jobs is not known in advance,
+ * the number of VMs is defined by the {@link #VMS} constant,
+ * instead of being computed from the Cloudlets' requirements.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class SwfWorkloadStreamingExample {
+    /**
+     * The workload file to be read.
+     */
+    private static final String WORKLOAD_FILENAME = "workload/swf/NASA-iPSC-1993-3.1-cln.swf.gz";
+
+    /**
+     * How far in the future (in seconds) Cloudlets are read from the trace and submitted to the broker.
+     */
+    private static final double LOOK_AHEAD_SECS = TimeUtil.hoursToSeconds(1);
+
+    /**
+     * The maximum number of Cloudlets to read from the trace at once.
+     */
+    private static final int MAX_WINDOW_SIZE = 1000;
+
+    private static final int HOST_PES = 12;
+
+    private static final int  VMS = 2000;
+    private static final int  VM_MIPS = 10000;
+    private static final int  VM_PES = 4;
+    private static final long VM_SIZE = 2000;
+    private static final int  VM_RAM = 1000;
+    private static final long VM_BW = 50000;
+
+    private final CloudSim simulation;
+    private final DatacenterBrokerRetention broker;
+
+    public static void main(String[] args) {
+        new SwfWorkloadStreamingExample();
+    }
+
+    private SwfWorkloadStreamingExample() {
+        Log.setLevel(ch.qos.logback.classic.Level.WARN);
+        final double startSecs = TimeUtil.currentTimeSecs();
+        System.out.printf("Simulation started at %s%n%n", LocalTime.now());
+
+        simulation = new CloudSim();
+        createDatacenter();
+        broker = new DatacenterBrokerRetention(simulation, CloudletRetentionPolicy.AGGREGATES);
+        broker.submitVmList(createVms());
+
+        try (var reader = new SwfWorkloadStreamReader(WORKLOAD_FILENAME, VM_MIPS)) {
+            final var submitter = new SwfLazyCloudletSubmitter(broker, reader, LOOK_AHEAD_SECS, MAX_WINDOW_SIZE).start();
+            simulation.start();
+
+            final FinishedCloudletsStats stats = broker.getFinishedCloudletsStats();
+            System.out.printf(
+                "%nJobs read: %d | Cloudlets submitted: %d | Cloudlets finished: %d | Mean wait time: %.2f seconds%n",
+                reader.getJobsRead(), submitter.getSubmittedCloudlets(), stats.getCloudlets(), stats.getMeanWaitTime());
+        }
+
+        System.out.println(getClass().getSimpleName() + " finished!");
+        System.out.printf(
+            "Simulation finished at %s. Simulated time: %s. Execution time: %.2f seconds%n",
+            LocalTime.now(), TimeUtil.secondsToStr(simulation.clock()), TimeUtil.elapsedSeconds(startSecs));
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            final Vm vm = new VmSimple(VM_MIPS, VM_PES)
+                            .setRam(VM_RAM).setBw(VM_BW).setSize(VM_SIZE)
+                            .setCloudletScheduler(new CloudletSchedulerSpaceShared());
+            list.add(vm);
+        }
+
+        return list;
+    }
+
+    private Datacenter createDatacenter() {
+        final List<Host> hostList = createHosts(VMS/2);
+        return new DatacenterSimple(simulation, hostList, new VmAllocationPolicyFirstFit());
+    }
+
+    private List<Host> createHosts(final int hostsNumber) {
+        final long ram = VM_RAM * 100;
+        final long storage = VM_SIZE * 1000;
+        final long bw = VM_BW * 1000;
+
+        final List<Host> list = new ArrayList<>(hostsNumber);
+        for (int i = 0; i < hostsNumber; i++) {
+            final List<Pe> peList = createPeList(VM_MIPS);
+            list.add(new HostSimple(ram, bw, storage, peList));
+        }
+
+        return list;
+    }
+
+    private List<Pe> createPeList(final long mips) {
+        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        for (int i = 0; i < HOST_PES; i++) {
+            peList.add(new PeSimple(mips));
+        }
+
+        return peList;
+    }
+}
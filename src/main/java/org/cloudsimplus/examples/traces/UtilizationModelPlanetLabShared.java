@@ -0,0 +1,91 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelAbstract;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelPlanetLab;
+
+import java.util.Objects;
+
+/**
+ * A CPU utilization model that reads values from a trace inside a {@link PlanetLabTraceStore},
+ * which may be shared by any number of models.
+ * It computes utilization in the same way as the {@link UtilizationModelPlanetLab},
+ * but only stores the index of the trace, instead of an array with all its samples.
+ * Utilization is computed without any object allocation.
+ *
+ * @author Ishak Megatli
+ */
+public class UtilizationModelPlanetLabShared extends UtilizationModelAbstract {
+    private final PlanetLabTraceStore store;
+    private final int trace;
+    private final double schedulingInterval;
+
+    /**
+     * Creates a utilization model for a trace inside a store.
+     * @param store the store containing the trace
+     * @param trace the index of the trace
+     * @param schedulingInterval the time interval (in seconds) between trace samples
+     * @see PlanetLabTraceStore#newUtilizationModel(int, double)
+     */
+    public UtilizationModelPlanetLabShared(final PlanetLabTraceStore store, final int trace, final double schedulingInterval) {
+        super();
+        this.store = Objects.requireNonNull(store);
+        if (trace < 0 || trace >= store.getTraces()) {
+            throw new IndexOutOfBoundsException("Invalid trace index %d for a store with %d traces".formatted(trace, store.getTraces()));
+        }
+
+        if (schedulingInterval <= 0) {
+            throw new IllegalArgumentException("Scheduling interval must greater than 0. The given value is " + schedulingInterval);
+        }
+
+        this.trace = trace;
+        this.schedulingInterval = schedulingInterval;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the time is between two samples, returns the mean of them.
+     */
+    @Override
+    protected double getUtilizationInternal(final double time) {
+        final int samples = store.getSamples();
+        final double index = time / schedulingInterval % samples;
+        if (Math.round(time) % schedulingInterval == 0) {
+            return store.getUtilization(trace, (int) index);
+        }
+
+        final int prevIndex = (int) Math.floor(index);
+        final int nextIndex = (int) Math.ceil(index) % samples;
+        return (store.getUtilization(trace, prevIndex) + store.getUtilization(trace, nextIndex)) / 2.0;
+    }
+
+    public int getTrace() {
+        return trace;
+    }
+
+    public double getSchedulingInterval() {
+        return schedulingInterval;
+    }
+}
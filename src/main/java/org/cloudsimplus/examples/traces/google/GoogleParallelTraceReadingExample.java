@@ -0,0 +1,205 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import ch.qos.logback.classic.Level;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.util.Conversion;
+import org.cloudbus.cloudsim.util.ResourceLoader;
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.traces.google.GoogleTaskUsageTraceReader;
+import org.cloudsimplus.traces.google.TaskEvent;
+import org.cloudsimplus.util.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.cloudbus.cloudsim.util.BytesConversion.megaBytesToBytes;
+import static org.cloudbus.cloudsim.util.MathUtil.positive;
+
+/**
+ * An example showing how to read <a href="https://github.com/google/cluster-data">Google Cluster Data</a>
+ * traces split into many (possibly gzipped) part files,
+ * parsing them in parallel with a {@link GoogleTraceParts}.
+ * It works like the {@link GoogleTaskEventsExample1}, but
+ * "task events" are read by a {@link MergedGoogleTaskEventsTraceReader}
+ * and "task usage" part files are merged into a single temporary file
+ * given to a {@link GoogleTaskUsageTraceReader}.
+ *
+ * <p>You can give a directory or glob for the "task events"
+ * and "task usage" part files as command line arguments, such as
+ * {@code clusterdata-2011-2/task_events/part-*.csv.gz clusterdata-2011-2/task_usage/part-*.csv.gz}.
+ * If no argument is given, the sample trace files in resources/workload/google-traces/ are used.</p>
+ *
+ * @author Ishak Megatli
+ */
+public class GoogleParallelTraceReadingExample {
+    private static final String TRACES_DIR = "workload/google-traces";
+    private static final String TASK_EVENTS_GLOB = "task-events-sample-*.csv";
+    private static final String TASK_USAGE_GLOB = "task-usage-sample-*.csv";
+
+    private static final int HOSTS = 100;
+    private static final int VMS = 8;
+    private static final int HOST_PES = 8;
+    private static final long HOST_RAM = 2048; //in Megabytes
+    private static final long HOST_BW = 10000; //in Megabits/s
+    private static final long HOST_STORAGE = 1000000; //in Megabytes
+    private static final double HOST_MIPS = 1000;
+
+    /**
+     * A negative length to make Cloudlets run until a finish event is found in the trace.
+     * @see GoogleTaskEventsExample1
+     */
+    private static final int  CLOUDLET_LENGTH = -10_000;
+
+    private static final long VM_PES = 4;
+    private static final int  VM_MIPS = 1000;
+    private static final long VM_RAM = 500; //in Megabytes
+    private static final long VM_BW = 100; //in Megabits/s
+    private static final long VM_SIZE_MB = 1000; //in Megabytes
+
+    private final CloudSim simulation;
+
+    public static void main(String[] args) {
+        final String tracesDir = ResourceLoader.getResourcePath(GoogleParallelTraceReadingExample.class, TRACES_DIR);
+        final var taskEvents = args.length > 0 ? GoogleTraceParts.of(args[0]) : new GoogleTraceParts(Path.of(tracesDir), TASK_EVENTS_GLOB);
+        final var taskUsage  = args.length > 1 ? GoogleTraceParts.of(args[1]) : new GoogleTraceParts(Path.of(tracesDir), TASK_USAGE_GLOB);
+        new GoogleParallelTraceReadingExample(taskEvents, taskUsage);
+    }
+
+    private GoogleParallelTraceReadingExample(final GoogleTraceParts taskEvents, final GoogleTraceParts taskUsage) {
+        final double startSecs = TimeUtil.currentTimeSecs();
+        System.out.printf("Simulation started at %s%n%n", LocalTime.now());
+        Log.setLevel(Level.WARN);
+
+        simulation = new CloudSim();
+        createDatacenter();
+
+        final var taskEventsReader = MergedGoogleTaskEventsTraceReader.getInstance(simulation, taskEvents, this::createCloudlet);
+        final var cloudlets = taskEventsReader.process();
+        System.out.printf("Task events: %s%n", taskEvents.getReport());
+        final List<DatacenterBroker> brokers = taskEventsReader.getBrokerManager().getBrokers();
+        brokers.forEach(broker -> broker.submitVmList(createVms()));
+        System.out.printf("%d Cloudlets and %d Brokers created from %s%n", cloudlets.size(), brokers.size(), taskEvents);
+
+        final Path mergedTaskUsage = createTempFile();
+        try {
+            taskUsage.mergeInto(mergedTaskUsage);
+            System.out.printf("Task usage: %s%n", taskUsage.getReport());
+            final var usageReader = GoogleTaskUsageTraceReader.getInstance(taskEventsReader, mergedTaskUsage.toString());
+            System.out.printf("%d Cloudlets processed from %s%n%n", usageReader.process().size(), taskUsage);
+        } finally {
+            deleteFile(mergedTaskUsage);
+        }
+
+        simulation.start();
+
+        final long finished = brokers.stream().mapToLong(broker -> broker.getCloudletFinishedList().size()).sum();
+        System.out.printf("%d Cloudlets finished%n", finished);
+        System.out.printf(
+            "Simulation finished at %s. Execution time: %.2f seconds%n",
+            LocalTime.now(), TimeUtil.elapsedSeconds(startSecs));
+    }
+
+    private static Path createTempFile() {
+        try {
+            return Files.createTempFile("task-usage-", ".csv");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteFile(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a Cloudlet from a task event in the same way as the {@link GoogleTaskEventsExample1}.
+     */
+    private Cloudlet createCloudlet(final TaskEvent event) {
+        final long pesNumber = positive(event.actualCpuCores(VM_PES), VM_PES);
+
+        final double maxRamUsagePercent = positive(event.getResourceRequestForRam(), Conversion.HUNDRED_PERCENT);
+        final var utilizationRam = new UtilizationModelDynamic(0, maxRamUsagePercent);
+
+        final double sizeInMB    = event.getResourceRequestForLocalDiskSpace() * VM_SIZE_MB + 1;
+        final long   sizeInBytes = (long) Math.ceil(megaBytesToBytes(sizeInMB));
+        return new CloudletSimple(CLOUDLET_LENGTH, pesNumber)
+            .setFileSize(sizeInBytes)
+            .setOutputSize(sizeInBytes)
+            .setUtilizationModelBw(new UtilizationModelFull())
+            .setUtilizationModelCpu(new UtilizationModelFull())
+            .setUtilizationModelRam(utilizationRam);
+    }
+
+    private Datacenter createDatacenter() {
+        final var hostList = new ArrayList<Host>(HOSTS);
+        for(int i = 0; i < HOSTS; i++) {
+            hostList.add(createHost());
+        }
+
+        return new DatacenterSimple(simulation, hostList);
+    }
+
+    private Host createHost() {
+        final var peList = new ArrayList<Pe>(HOST_PES);
+        for(int i = 0; i < HOST_PES; i++){
+            peList.add(new PeSimple(HOST_MIPS));
+        }
+
+        return new HostSimple(HOST_RAM, HOST_BW, HOST_STORAGE, peList).setVmScheduler(new VmSchedulerTimeShared());
+    }
+
+    private List<Vm> createVms() {
+        return IntStream.range(0, VMS).mapToObj(i -> createVm()).toList();
+    }
+
+    private Vm createVm() {
+        return new VmSimple(VM_MIPS, VM_PES).setRam(VM_RAM).setBw(VM_BW).setSize(VM_SIZE_MB);
+    }
+}
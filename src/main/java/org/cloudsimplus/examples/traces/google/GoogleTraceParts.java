@@ -0,0 +1,640 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudbus.cloudsim.util.TimeUtil;
+import org.cloudsimplus.traces.google.GoogleTaskEventsTraceReader;
+import org.cloudsimplus.traces.google.GoogleTaskUsageTraceReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A set of part files from the <a href="https://github.com/google/cluster-data">Google Cluster Data</a>
+ * (such as {@code part-00000-of-00500.csv.gz}) which are parsed in parallel
+ * and merged into a single stream of lines ordered by timestamp.
+ *
+ * <p>The real traces are split into hundreds of gzipped part files,
+ * but the {@link GoogleTaskEventsTraceReader} and {@link GoogleTaskUsageTraceReader}
+ * read a single file, line by line, in the caller thread.
+ * This class decompresses the parts and extracts the timestamp (the first field)
+ * of their lines in parallel, one batch of lines at a time.
+ * Each part has a bounded queue of batches, which is refilled by tasks
+ * in a {@link ForkJoinPool} as the parts are lazily merged by timestamp
+ * (ties are kept in the order of the part file names).
+ * This way, the library readers (and the {@link org.cloudsimplus.traces.google.BrokerManager})
+ * see the events in the same order as if all parts were a single file,
+ * while memory usage depends on the number of part files, not on the size of the trace.</p>
+ *
+ * <p>Lines inside each part file must be sorted by timestamp, as they are in the Google traces.
+ * Files ending with ".gz" are decompressed. Comment lines (starting with #) are discarded.</p>
+ *
+ * @author Ishak Megatli
+ * @see MergedGoogleTaskEventsTraceReader
+ */
+public class GoogleTraceParts {
+    private static final String COMMENT = "#";
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /** Max number of lines read from a part file by each task. */
+    private static final int BATCH_LINES = 1024;
+
+    /** Max number of batches read from a part file that may be waiting to be merged. */
+    private static final int BATCHES_PER_PART = 2;
+
+    private final Path dir;
+    private final String glob;
+    private int parallelism;
+    private Report report;
+
+    /**
+     * Creates an object to read the part files inside a directory.
+     * @param dir the directory containing the part files
+     * @param glob a glob pattern to select the part files inside the dir (such as "part-*.csv.gz")
+     * @see #of(String)
+     */
+    public GoogleTraceParts(final Path dir, final String glob) {
+        if(!Files.isDirectory(dir)) {
+            throw new IllegalArgumentException("Directory not found: " + dir);
+        }
+
+        this.dir = dir;
+        this.glob = glob;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.report = Report.EMPTY;
+    }
+
+    /**
+     * Creates an object to read the part files from a directory or glob.
+     * @param dirOrGlob a directory (to read all files inside it)
+     *                  or a glob pattern in the file name (such as "task_events/part-*.csv.gz")
+     * @return the new object
+     */
+    public static GoogleTraceParts of(final String dirOrGlob) {
+        final var path = Path.of(dirOrGlob);
+        if(Files.isDirectory(path)) {
+            return new GoogleTraceParts(path, "*");
+        }
+
+        final Path parent = path.getParent() == null ? Path.of(".") : path.getParent();
+        return new GoogleTraceParts(parent, path.getFileName().toString());
+    }
+
+    /**
+     * Gets the part files matching the glob, sorted by name.
+     * @return the part files matching the glob, sorted by name
+     */
+    public List<Path> getFiles() {
+        final var files = new ArrayList<Path>();
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        files.sort(Comparator.naturalOrder());
+        return files;
+    }
+
+    /**
+     * Returns an {@link InputStream} that provides the lines of all part files ordered by timestamp.
+     * The part files are parsed in parallel and merged while the stream is read.
+     * @return a new InputStream with the merged lines
+     */
+    public InputStream newMergedInputStream() {
+        return new MergedLinesInputStream(newMerger());
+    }
+
+    /**
+     * Parses all part files in parallel and writes their lines,
+     * ordered by timestamp, into a single file.
+     * It's used for readers that can only read from a file path,
+     * such as the {@link GoogleTaskUsageTraceReader}.
+     * @param file the file to write the merged lines to
+     * @return the given file
+     */
+    public Path mergeInto(final Path file) {
+        try(PartsMerger merger = newMerger(); BufferedWriter writer = Files.newBufferedWriter(file, CHARSET)) {
+            while(merger.hasNext()) {
+                writer.write(merger.next());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return file;
+    }
+
+    private PartsMerger newMerger() {
+        final List<Path> files = getFiles();
+        if(files.isEmpty()) {
+            throw new IllegalStateException("No file matching %s found in %s".formatted(glob, dir));
+        }
+
+        return new PartsMerger(files, parallelism, newReport -> this.report = newReport);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the max number of part files to parse at the same time.
+     * @param parallelism the parallelism level to set (default is the number of available processors)
+     * @return this object
+     */
+    public GoogleTraceParts setParallelism(final int parallelism) {
+        if(parallelism <= 0){
+            throw new IllegalArgumentException("Parallelism must be greater than zero.");
+        }
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Gets the throughput report of the last time the part files were entirely merged.
+     * @return the throughput report of the last time the part files were entirely merged
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return dir.resolve(glob).toString();
+    }
+
+    /**
+     * Throughput of the parallel parsing of part files.
+     * @param parts number of part files parsed
+     * @param lines number of trace lines merged (excluding comments)
+     * @param bytes total size of the part files (compressed, when that is the case)
+     * @param seconds wall-clock time to parse and merge all parts,
+     *                which includes the time the merged lines took to be consumed
+     */
+    public record Report(int parts, long lines, long bytes, double seconds) {
+        private static final Report EMPTY = new Report(0, 0, 0, 0);
+
+        public double linesPerSecond() {
+            return seconds == 0 ? 0 : lines / seconds;
+        }
+
+        public double megaBytesPerSecond() {
+            return seconds == 0 ? 0 : bytes / 1_048_576.0 / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return "%d part files (%d lines, %.1f MB) parsed in %.2f seconds: %.0f lines/s, %.1f MB/s".formatted(
+                        parts, lines, bytes / 1_048_576.0, seconds, linesPerSecond(), megaBytesPerSecond());
+        }
+    }
+
+    /**
+     * A batch of lines read from a part file, with their timestamps.
+     * @param lines the lines read
+     * @param timestamps the timestamp of each line
+     * @param size the number of lines in the batch
+     * @param last indicates if it's the last batch of the part file
+     * @param error the error that prevented the batch to be read, or null if the read succeeded
+     */
+    private record Batch(String[] lines, long[] timestamps, int size, boolean last, Exception error) {
+        private static final Batch EMPTY = new Batch(new String[0], new long[0], 0, false, null);
+
+        private static Batch failed(final Exception error) {
+            return new Batch(EMPTY.lines, EMPTY.timestamps, 0, true, error);
+        }
+    }
+
+    /**
+     * Reads a part file in batches of lines, which are decompressed and parsed by tasks in a pool.
+     * At most one task reads the file at a time, and only while there is room in the queue of batches.
+     * Since tasks never wait for the merger, any number of parts can be read by a pool
+     * with fewer threads.
+     */
+    private static final class PartReader {
+        private final Path file;
+        private final long bytes;
+        private final BlockingQueue<Batch> batches = new ArrayBlockingQueue<>(BATCHES_PER_PART);
+
+        /**
+         * Indicates if a task owns the {@link #reader}.
+         * Only the owner can access it and the other fields used to read the file.
+         */
+        private final AtomicBoolean loading = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean finished;
+        private BufferedReader reader;
+        private long lineNumber;
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        /** The batch being merged and the position of its next line, accessed only by the merger. */
+        private Batch current = Batch.EMPTY;
+        private int position;
+
+        private PartReader(final Path file) {
+            this.file = file;
+            try {
+                this.bytes = Files.size(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Submits a task to read the next batch, if there is room for it
+         * and no other task is reading the file.
+         */
+        private void requestBatch(final ForkJoinPool pool) {
+            if(closed || finished || batches.remainingCapacity() == 0 || !loading.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                pool.execute(() -> loadBatch(pool));
+            } catch (RejectedExecutionException e) {
+                /* The pool was shut down because the merger was closed. */
+                closeReader();
+            }
+        }
+
+        private void loadBatch(final ForkJoinPool pool) {
+            try {
+                if(!closed && !finished) {
+                    batches.add(readBatch());
+                }
+            } catch (IOException | RuntimeException e) {
+                finished = true;
+                closeReader();
+                batches.add(Batch.failed(e));
+            } finally {
+                loading.set(false);
+            }
+
+            if(closed) {
+                if(loading.compareAndSet(false, true)) {
+                    closeReader();
+                }
+            } else {
+                requestBatch(pool);
+            }
+        }
+
+        private Batch readBatch() throws IOException {
+            if(reader == null) {
+                reader = newReader(file);
+            }
+
+            final var lines = new String[BATCH_LINES];
+            final var timestamps = new long[BATCH_LINES];
+            int size = 0;
+            String line;
+            while(size < BATCH_LINES && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if(line.isBlank() || line.startsWith(COMMENT)) {
+                    continue;
+                }
+
+                final long timestamp = parseTimestamp(line);
+                if(timestamp < lastTimestamp) {
+                    throw new IllegalStateException("%s is not sorted by timestamp at line %d".formatted(file, lineNumber));
+                }
+
+                lastTimestamp = timestamp;
+                lines[size] = line;
+                timestamps[size++] = timestamp;
+            }
+
+            final boolean last = size < BATCH_LINES;
+            if(last) {
+                finished = true;
+                closeReader();
+            }
+
+            return new Batch(lines, timestamps, size, last, null);
+        }
+
+        private static BufferedReader newReader(final Path file) throws IOException {
+            final InputStream input = Files.newInputStream(file);
+            final boolean gzip = file.getFileName().toString().endsWith(".gz");
+            return new BufferedReader(new InputStreamReader(gzip ? new GZIPInputStream(input) : input, CHARSET));
+        }
+
+        /**
+         * Parses the first field of a line, which is the timestamp (in microseconds)
+         * in both task events and task usage traces.
+         */
+        private static long parseTimestamp(final String line) {
+            final int comma = line.indexOf(',');
+            int end = comma < 0 ? line.length() : comma;
+            int begin = 0;
+            while(begin < end && Character.isWhitespace(line.charAt(begin))) {
+                begin++;
+            }
+
+            while(end > begin && Character.isWhitespace(line.charAt(end - 1))) {
+                end--;
+            }
+
+            return Long.parseLong(line, begin, end, 10);
+        }
+
+        /**
+         * Moves to the next line to be merged, waiting for the next batch
+         * when the current one was entirely merged.
+         * @return true if there is a next line, false if all lines were merged
+         */
+        private boolean advance(final ForkJoinPool pool) {
+            while(position == current.size()) {
+                if(current.last()) {
+                    return false;
+                }
+
+                current = takeBatch();
+                position = 0;
+                requestBatch(pool);
+                if(current.error() instanceof IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                if(current.error() instanceof RuntimeException e) {
+                    throw e;
+                }
+            }
+
+            return true;
+        }
+
+        private Batch takeBatch() {
+            try {
+                return batches.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private long nextTimestamp() {
+            return current.timestamps()[position];
+        }
+
+        private String nextLine() {
+            return current.lines()[position++];
+        }
+
+        private void close() {
+            closed = true;
+            if(loading.compareAndSet(false, true)) {
+                closeReader();
+            }
+        }
+
+        private void closeReader() {
+            if(reader == null) {
+                return;
+            }
+
+            try {
+                reader.close();
+            } catch (IOException e) {
+                /* Nothing is lost when a read-only file fails to close. */
+            } finally {
+                reader = null;
+            }
+        }
+    }
+
+    /**
+     * Lazily merges sorted parts using a binary heap with the index of each part having remaining lines,
+     * ordered by the timestamp of its next line and then by the part index.
+     * The merger is closed (and the throughput report is produced) when all lines are merged.
+     */
+    private static final class PartsMerger implements AutoCloseable {
+        private final double startSecs;
+        private final PartReader[] parts;
+        private final ForkJoinPool pool;
+        private final Consumer<Report> reportConsumer;
+        private final int[] heap;
+        private int heapSize;
+        private long lines;
+        private boolean closed;
+
+        private PartsMerger(final List<Path> files, final int parallelism, final Consumer<Report> reportConsumer) {
+            this.startSecs = TimeUtil.currentTimeSecs();
+            this.parts = files.stream().map(PartReader::new).toArray(PartReader[]::new);
+            this.pool = new ForkJoinPool(parallelism);
+            this.reportConsumer = reportConsumer;
+            this.heap = new int[parts.length];
+            for (final PartReader part : parts) {
+                part.requestBatch(pool);
+            }
+
+            try {
+                for (int i = 0; i < parts.length; i++) {
+                    if(parts[i].advance(pool)) {
+                        heap[heapSize] = i;
+                        siftUp(heapSize++);
+                    }
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+
+            if(heapSize == 0) {
+                close();
+            }
+        }
+
+        private boolean hasNext() {
+            return heapSize > 0;
+        }
+
+        private String next() {
+            final PartReader part = parts[heap[0]];
+            final String line = part.nextLine();
+            lines++;
+            try {
+                if(!part.advance(pool)) {
+                    heap[0] = heap[--heapSize];
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+
+            if(heapSize > 0) {
+                siftDown(0);
+            } else {
+                close();
+            }
+
+            return line;
+        }
+
+        private boolean isBefore(final int part1, final int part2) {
+            final long timestamp1 = parts[part1].nextTimestamp();
+            final long timestamp2 = parts[part2].nextTimestamp();
+            return timestamp1 < timestamp2 || (timestamp1 == timestamp2 && part1 < part2);
+        }
+
+        private void siftUp(int i) {
+            while(i > 0) {
+                final int parent = (i - 1) / 2;
+                if(!isBefore(heap[i], heap[parent])) {
+                    return;
+                }
+
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while(2 * i + 1 < heapSize) {
+                int child = 2 * i + 1;
+                if(child + 1 < heapSize && isBefore(heap[child + 1], heap[child])) {
+                    child++;
+                }
+
+                if(!isBefore(heap[child], heap[i])) {
+                    return;
+                }
+
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(final int i, final int j) {
+            final int part = heap[i];
+            heap[i] = heap[j];
+            heap[j] = part;
+        }
+
+        @Override
+        public void close() {
+            if(closed) {
+                return;
+            }
+
+            closed = true;
+            heapSize = 0;
+            long bytes = 0;
+            for (final PartReader part : parts) {
+                part.close();
+                bytes += part.bytes;
+            }
+
+            pool.shutdown();
+            reportConsumer.accept(new Report(parts.length, lines, bytes, TimeUtil.elapsedSeconds(startSecs)));
+        }
+    }
+
+    /**
+     * An InputStream providing the lines from a {@link PartsMerger}.
+     * It reports the bytes of the current line as {@link #available()},
+     * since the library trace readers stop reading when a
+     * {@link BufferedReader} isn't {@link BufferedReader#ready() ready}.
+     */
+    private static final class MergedLinesInputStream extends InputStream {
+        private final PartsMerger merger;
+        private byte[] buffer = new byte[0];
+        private int position;
+
+        private MergedLinesInputStream(final PartsMerger merger) {
+            this.merger = merger;
+        }
+
+        private boolean fill() {
+            if(position < buffer.length) {
+                return true;
+            }
+
+            if(!merger.hasNext()) {
+                return false;
+            }
+
+            buffer = (merger.next() + System.lineSeparator()).getBytes(CHARSET);
+            position = 0;
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return fill() ? buffer[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int off, final int len) {
+            if(len == 0) {
+                return 0;
+            }
+
+            if(!fill()) {
+                return -1;
+            }
+
+            int count = 0;
+            while(count < len && fill()) {
+                final int n = Math.min(len - count, buffer.length - position);
+                System.arraycopy(buffer, position, bytes, off + count, n);
+                position += n;
+                count += n;
+            }
+
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return fill() ? buffer.length - position : 0;
+        }
+
+        @Override
+        public void close() {
+            merger.close();
+        }
+    }
+}
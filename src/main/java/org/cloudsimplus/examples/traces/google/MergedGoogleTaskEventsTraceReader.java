@@ -0,0 +1,94 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudsimplus.traces.google.GoogleTaskEventsTraceReader;
+import org.cloudsimplus.traces.google.TaskEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+/**
+ * A {@link GoogleTaskEventsTraceReader} that reads the "task events" from
+ * a set of part files, which are parsed in parallel and merged by timestamp
+ * by a {@link GoogleTraceParts}.
+ * Cloudlets, brokers and events are created exactly as the
+ * superclass does for a single file.
+ *
+ * @author Ishak Megatli
+ */
+public class MergedGoogleTaskEventsTraceReader extends GoogleTaskEventsTraceReader {
+    private final GoogleTraceParts parts;
+
+    private MergedGoogleTaskEventsTraceReader(
+        final CloudSim simulation, final GoogleTraceParts parts,
+        final Function<TaskEvent, Cloudlet> cloudletCreationFunction)
+    {
+        super(simulation, parts.toString(), parts.newMergedInputStream(), cloudletCreationFunction);
+        this.parts = parts;
+    }
+
+    /**
+     * Gets a reader for the "task events" part files.
+     * The files are parsed and merged while the reader {@link #process() processes} them.
+     *
+     * @param simulation the simulation instance that the created Cloudlets and brokers will belong to
+     * @param parts the part files to read
+     * @param cloudletCreationFunction a {@link Function} that receives a {@link TaskEvent}
+     *                                 and creates a {@link Cloudlet} from it
+     * @return the new reader
+     * @see GoogleTaskEventsTraceReader#getInstance(CloudSim, String, Function)
+     */
+    public static MergedGoogleTaskEventsTraceReader getInstance(
+        final CloudSim simulation, final GoogleTraceParts parts,
+        final Function<TaskEvent, Cloudlet> cloudletCreationFunction)
+    {
+        return new MergedGoogleTaskEventsTraceReader(simulation, parts, cloudletCreationFunction);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The merged stream is always plain text,
+     * even if the part files are compressed.
+     */
+    @Override
+    protected void readFile(final Function<String[], Boolean> processParsedLineFunction) {
+        try {
+            readTextFile(getInputStream(), processParsedLineFunction);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the part files this reader reads.
+     * @return the part files this reader reads
+     */
+    public GoogleTraceParts getParts() {
+        return parts;
+    }
+}